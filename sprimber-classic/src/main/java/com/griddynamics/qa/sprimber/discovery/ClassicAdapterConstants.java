@@ -38,6 +38,7 @@ public abstract class ClassicAdapterConstants {
     public static final String DESCRIPTION_ATTRIBUTE = "description";
     public static final String NAME_ATTRIBUTE = "name";
     public static final String TAGS_ATTRIBUTE = "tags";
+    public static final String DATA_SOURCE_ATTRIBUTE = "dataSource";
 
     private ClassicAdapterConstants() {
     }
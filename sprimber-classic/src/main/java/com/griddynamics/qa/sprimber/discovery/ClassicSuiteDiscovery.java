@@ -24,17 +24,24 @@ $Id:
 
 package com.griddynamics.qa.sprimber.discovery;
 
+import com.google.common.collect.Iterators;
+import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
 import com.griddynamics.qa.sprimber.engine.Node;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.griddynamics.qa.sprimber.discovery.ClassicAdapterConstants.*;
@@ -54,6 +61,7 @@ class ClassicSuiteDiscovery implements TestSuiteDiscovery {
     private final ClassicTestBinder classicTestBinder;
     private final ApplicationContext applicationContext;
     private final TagFilter tagFilter;
+    private final SprimberProperties sprimberProperties;
     private final Statistic statistic = new Statistic();
 
     @Override
@@ -68,15 +76,21 @@ class ClassicSuiteDiscovery implements TestSuiteDiscovery {
 
     @Override
     public Node discover() {
+        SprimberProperties.DataSources dataSources = sprimberProperties.getDiscovery().getDataSources();
         Node testSuite = Node.createRootNode(CLASSIC_SUITE_ROLE, CLASSIC_ADAPTER_NAME, EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE,
                 BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_CHILDREN_AFTER_ITERATION_ERROR));
-        applicationContext.getBeansWithAnnotation(TestController.class).values()
-                .forEach(testController -> testCaseNodeDiscover(testSuite, testController));
+        // the types are taken from the bean definitions, so the test controllers aren't created for the discovery
+        Arrays.stream(applicationContext.getBeanNamesForAnnotation(TestController.class))
+                .map(applicationContext::getType)
+                .filter(Objects::nonNull)
+                .map(ClassUtils::getUserClass)
+                .distinct()
+                .forEach(testControllerType -> testCaseNodeDiscover(testSuite, testControllerType, dataSources));
         return testSuite;
     }
 
-    private void testCaseNodeDiscover(Node parentNode, Object testController) {
-        TestController controller = testController.getClass().getAnnotation(TestController.class);
+    private void testCaseNodeDiscover(Node parentNode, Class<?> testControllerType, SprimberProperties.DataSources dataSources) {
+        TestController controller = AnnotationUtils.findAnnotation(testControllerType, TestController.class);
         Builder builder = new Builder()
                 .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE,
                         BYPASS_CHILDREN_AFTER_ITERATION_ERROR))
@@ -85,13 +99,45 @@ class ClassicSuiteDiscovery implements TestSuiteDiscovery {
                 .withDescription(String.valueOf(AnnotationUtils.getValue(controller, DESCRIPTION_ATTRIBUTE_NAME)));
         Node testCase = parentNode.addChild(builder);
 
-        Arrays.stream(testController.getClass().getDeclaredMethods())
+        List<Method> testMethods = Arrays.stream(testControllerType.getDeclaredMethods())
                 .filter(method -> method.isAnnotationPresent(TestMapping.class))
                 .filter(this::filterTests)
-                .forEach(method -> {
-                    classicTestBinder.bind(testCase, method);
-                    statistic.registerPreparedStage(CLASSIC_TEST_ROLE);
-                });
+                .collect(Collectors.toList());
+        if (testMethods.stream().noneMatch(method -> getDataSource(method).isPresent())) {
+            testMethods.forEach(method -> {
+                classicTestBinder.bind(testCase, method);
+                statistic.registerPreparedStage(CLASSIC_TEST_ROLE);
+            });
+            return;
+        }
+        openTestSource(testCase, testMethods, dataSources);
+    }
+
+    /**
+     * The tests of the data sources created row by row while the test case executes,
+     * only the rows of the current shard of every data source executed
+     */
+    private void openTestSource(Node testCase, List<Method> testMethods, SprimberProperties.DataSources dataSources) {
+        List<Iterator<Node>> testSources = new ArrayList<>();
+        for (Method method : testMethods) {
+            Optional<String> dataSourceLocation = getDataSource(method);
+            if (dataSourceLocation.isPresent()) {
+                DataSource dataSource = DataSource.open(applicationContext.getResource(dataSourceLocation.get()));
+                long[] range = dataSource.shardRange(dataSources.getShardIndex(), dataSources.getShardCount());
+                testSources.add(classicTestBinder.bindRows(testCase::newDetachedChild, method, dataSource, range[0], range[1]));
+                statistic.registerPreparedStages(CLASSIC_TEST_ROLE, range[1] - range[0]);
+            } else {
+                testSources.add(Iterators.singletonIterator(classicTestBinder.bind(testCase::newDetachedChild, method)));
+                statistic.registerPreparedStage(CLASSIC_TEST_ROLE);
+            }
+        }
+        testCase.openChildSource(Iterators.concat(testSources.iterator()), dataSources.getBufferSize());
+    }
+
+    private Optional<String> getDataSource(Method method) {
+        TestMapping testMapping = AnnotationUtils.getAnnotation(method, TestMapping.class);
+        return Optional.of(String.valueOf(AnnotationUtils.getValue(testMapping, DATA_SOURCE_ATTRIBUTE)))
+                .filter(dataSource -> !dataSource.isEmpty());
     }
 
     private boolean filterTests(Method method) {
@@ -99,7 +145,7 @@ class ClassicSuiteDiscovery implements TestSuiteDiscovery {
         List<String> tags = Arrays.stream((Object[]) AnnotationUtils.getValue(testMapping, TAGS_ATTRIBUTE))
                 .map(o -> (String) o)
                 .collect(Collectors.toList());
-        boolean isMatched = tagFilter.filter(tags);
+        boolean isMatched = tagFilter.filter(TagSet.of(tags));
         if (!isMatched) {
             statistic.registerFilteredStage(CLASSIC_TEST_ROLE);
         }
@@ -29,11 +29,20 @@ import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
 import com.griddynamics.qa.sprimber.stepdefinition.TestMethodRegistry;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.util.DigestUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import static com.griddynamics.qa.sprimber.discovery.ClassicAdapterConstants.*;
 import static com.griddynamics.qa.sprimber.engine.Node.Builder;
@@ -47,34 +56,99 @@ import static com.griddynamics.qa.sprimber.engine.Node.Bypass.*;
 class ClassicTestBinder {
 
     private final TestMethodRegistry testMethodRegistry;
+    private final ConversionService conversionService = DefaultConversionService.getSharedInstance();
 
     void bind(Node parentNode, Method testCandidate) {
+        bind(parentNode::addChild, testCandidate);
+    }
+
+    /**
+     * @param testNodeFactory - creates the test node from the builder, either as the child of the test case
+     *                        or detached one when the test case receives its tests lazily
+     */
+    Node bind(Function<Builder, Node> testNodeFactory, Method testCandidate) {
+        TestMapping testMapping = AnnotationUtils.getAnnotation(testCandidate, TestMapping.class);
+        Node test = testNodeFactory.apply(testBuilder(testCandidate, testMapping, buildTestName(testCandidate, testMapping),
+                buildTestHistoryId(testCandidate)));
+        provideStepNode(test, findTestMethod(testCandidate), Collections.emptyMap());
+        return test;
+    }
+
+    /**
+     * Binds the test per row of the data source, the values of the row converted to the parameters
+     * of the test method in the order of the columns
+     *
+     * @param testNodeFactory - creates the test node from the builder that is not a part of the test case yet
+     * @return the tests of the rows, every next one bound only once the executor asks for it
+     */
+    Iterator<Node> bindRows(Function<Builder, Node> testNodeFactory, Method testCandidate, DataSource dataSource,
+                            long fromRow, long toRow) {
+        if (dataSource.getColumns().size() != testCandidate.getParameterCount()) {
+            throw new IllegalStateException(String.format("The data source %s has %d columns, but the test %s has %d parameters",
+                    dataSource.getPath(), dataSource.getColumns().size(), testCandidate, testCandidate.getParameterCount()));
+        }
         TestMapping testMapping = AnnotationUtils.getAnnotation(testCandidate, TestMapping.class);
+        TestMethod testMethod = findTestMethod(testCandidate);
         String testName = buildTestName(testCandidate, testMapping);
-        Builder builder = new Builder()
+        Iterator<List<String>> rows = dataSource.rows(fromRow, toRow);
+        return new Iterator<Node>() {
+
+            private long rowIndex = fromRow;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Node next() {
+                List<String> row = rows.next();
+                long rowNumber = ++rowIndex;
+                Node test = testNodeFactory.apply(testBuilder(testCandidate, testMapping, testName + " [" + rowNumber + "]",
+                        buildTestHistoryId(testCandidate, rowNumber)));
+                provideStepNode(test, testMethod, convertRow(testCandidate, row));
+                return test;
+            }
+        };
+    }
+
+    private Builder testBuilder(Method testCandidate, TestMapping testMapping, String testName, String historyId) {
+        return new Builder()
                 .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE,
                         BYPASS_CHILDREN_AFTER_ITERATION_ERROR))
                 .withRole(CLASSIC_TEST_ROLE)
                 .withName(testName)
                 .withDescription(String.valueOf(AnnotationUtils.getValue(testMapping, DESCRIPTION_ATTRIBUTE)))
-                .withHistoryId(buildTestHistoryId(testCandidate));
-        Node test = parentNode.addChild(builder);
-        provideStepNode(test, testCandidate);
+                .withHistoryId(historyId);
     }
 
-    private void provideStepNode(Node parentNode, Method method) {
-        TestMethod testMethod = testMethodRegistry.streamAllTestMethods()
-                .filter(tm -> method.equals(tm.getMethod()))
-                .findFirst().orElseThrow(() -> new RuntimeException("No methods found"));
+    private void provideStepNode(Node parentNode, TestMethod testMethod, Map<String, Object> parameters) {
         Builder builder = new Builder()
                 .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE,
                         BYPASS_CHILDREN_AFTER_ITERATION_ERROR))
                 .withRole(CLASSIC_STEP_ROLE)
-                .withName(method.getName())
-                .withMethod(testMethod.getMethod());
+                .withName(testMethod.getMethod().getName())
+                .withMethod(testMethod.getMethod())
+                .withParameters(parameters);
         parentNode.addTarget(builder);
     }
 
+    private TestMethod findTestMethod(Method method) {
+        return testMethodRegistry.streamAllTestMethods()
+                .filter(tm -> method.equals(tm.getMethod()))
+                .findFirst().orElseThrow(() -> new RuntimeException("No methods found"));
+    }
+
+    private Map<String, Object> convertRow(Method method, List<String> row) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < row.size(); i++) {
+            TypeDescriptor parameterType = new TypeDescriptor(new MethodParameter(method, i));
+            parameters.put(method.getParameters()[i].getName(),
+                    conversionService.convert(row.get(i), TypeDescriptor.valueOf(String.class), parameterType));
+        }
+        return parameters;
+    }
+
     private String buildTestName(Method method, TestMapping testMapping) {
         String testName = String.valueOf(AnnotationUtils.getValue(testMapping, NAME_ATTRIBUTE));
         return testName.isEmpty() ? method.getName() : testName;
@@ -84,6 +158,14 @@ class ClassicTestBinder {
         String uniqueName = method.getDeclaringClass().getCanonicalName() + "#" +
                 method.getName() + "#" +
                 method.getParameterCount();
-        return DigestUtils.md5DigestAsHex(uniqueName.getBytes());
+        return Node.stableIdOf(uniqueName);
+    }
+
+    private String buildTestHistoryId(Method method, long rowNumber) {
+        String uniqueName = method.getDeclaringClass().getCanonicalName() + "#" +
+                method.getName() + "#" +
+                method.getParameterCount() + "#" +
+                rowNumber;
+        return Node.stableIdOf(uniqueName);
     }
 }
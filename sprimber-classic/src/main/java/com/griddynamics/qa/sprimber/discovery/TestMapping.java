@@ -49,4 +49,11 @@ public @interface TestMapping {
     String description() default "";
 
     String[] tags() default {};
+
+    /**
+     * Location of the CSV or JSON lines file that drives the test, e.g. {@code classpath:data/users.csv}.
+     * The test executed once per row of the file, the values of the row passed to the parameters of the method
+     * in the order of the columns, see {@link DataSource}
+     */
+    String dataSource() default "";
 }
@@ -27,6 +27,7 @@ package com.griddynamics.qa.sprimber.reporting;
 import com.griddynamics.qa.sprimber.engine.Node;
 import com.griddynamics.qa.sprimber.runtime.ExecutionContext;
 
+import static com.griddynamics.qa.sprimber.discovery.ClassicAdapterConstants.CLASSIC_ADAPTER_NAME;
 import static com.griddynamics.qa.sprimber.discovery.ClassicAdapterConstants.CLASSIC_TEST_ROLE;
 
 /**
@@ -38,6 +39,11 @@ public class ClassicTestSummaryPrinter extends TestSummaryPrinter {
         super(executionContext);
     }
 
+    @Override
+    public String getAdapterName() {
+        return CLASSIC_ADAPTER_NAME;
+    }
+
     @Override
     boolean isNodeOfRoleTest(Node node) {
         return CLASSIC_TEST_ROLE.equals(node.getRole());
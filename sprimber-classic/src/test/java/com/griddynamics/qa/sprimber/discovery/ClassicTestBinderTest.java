@@ -26,13 +26,27 @@ package com.griddynamics.qa.sprimber.discovery;
 
 
 import com.griddynamics.qa.sprimber.engine.Node;
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethodRegistry;
 import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.BDDMockito;
 import org.mockito.Mockito;
 import org.springframework.util.ReflectionUtils;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
 
 import static com.griddynamics.qa.sprimber.discovery.ExampleTestController.*;
 
@@ -43,6 +57,23 @@ public class ClassicTestBinderTest {
 
     private static final String DEFAULT_HISTORY_ID = "ee17157fc5eba979689e028b6132883d";
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Node testCase = Node.createRootNode("testCase", "test", EnumSet.noneOf(Node.Bypass.class));
+    private final List<Node.Builder> stepBuilders = new ArrayList<>();
+    private final Method dataDrivenMethod = ReflectionUtils.findMethod(ExampleTestController.class, "testRow",
+            String.class, int.class, boolean.class);
+    private ClassicTestBinder classicTestBinder;
+
+    @Before
+    public void setUp() {
+        TestMethodRegistry testMethodRegistry = new TestMethodRegistry();
+        TestMethod testMethod = new TestMethod(DATA_DRIVEN_TEST_NAME, "classic", "", dataDrivenMethod);
+        testMethodRegistry.registerTestMethod(testMethod, TestMethod.IdBuilder.calculateUniqueId(testMethod));
+        classicTestBinder = new ClassicTestBinder(testMethodRegistry);
+    }
+
     @Test
     public void testSimpleBinding() {
 //        ClassicStepFactory stepFactoryMock = Mockito.mock(ClassicStepFactory.class);
@@ -56,6 +87,57 @@ public class ClassicTestBinderTest {
 //        Assertions.assertThat(test.getRuntimeId()).isNotEmpty();
     }
 
+    @Test
+    public void testRowsBinding() throws IOException {
+        DataSource dataSource = dataSource("login,attempts,active", "alice,1,true", "bob,2,false", "carol,3,true");
+
+        Iterator<Node> tests = classicTestBinder.bindRows(this::testNode, dataDrivenMethod, dataSource, 1, 3);
+
+        Assertions.assertThat(stepBuilders).isEmpty();
+        List<Node> boundTests = new ArrayList<>();
+        tests.forEachRemaining(boundTests::add);
+        Assertions.assertThat(boundTests).extracting(Node::getName)
+                .containsExactly(DATA_DRIVEN_TEST_NAME + " [2]", DATA_DRIVEN_TEST_NAME + " [3]");
+        Assertions.assertThat(boundTests).extracting(Node::getHistoryId).doesNotHaveDuplicates();
+        Assertions.assertThat(stepBuilders).hasSize(2);
+    }
+
+    @Test
+    public void testRowConversion() throws IOException {
+        DataSource dataSource = dataSource("login,attempts,active", "alice,42,true");
+
+        classicTestBinder.bindRows(this::testNode, dataDrivenMethod, dataSource, 0, 1).next();
+
+        Node step = testCase.newDetachedChild(stepBuilders.get(0));
+        Assertions.assertThat(step.getMethod()).isEqualTo(dataDrivenMethod);
+        Assertions.assertThat(step.getMethodArguments()).containsExactly("alice", 42, true);
+    }
+
+    @Test
+    public void testColumnsMismatch() throws IOException {
+        DataSource dataSource = dataSource("login,attempts", "alice,1");
+
+        Assertions.assertThatThrownBy(() -> classicTestBinder.bindRows(this::testNode, dataDrivenMethod, dataSource, 0, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("has 2 columns")
+                .hasMessageContaining("has 3 parameters");
+    }
+
+    private Node testNode(Node.Builder builder) {
+        Node test = Mockito.spy(testCase.newDetachedChild(builder));
+        BDDMockito.willAnswer(invocation -> {
+            stepBuilders.add(invocation.getArgument(0));
+            return test;
+        }).given(test).addTarget(Mockito.any(Node.Builder.class));
+        return test;
+    }
+
+    private DataSource dataSource(String... lines) throws IOException {
+        Path path = temporaryFolder.newFile("rows.csv").toPath();
+        Files.write(path, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return DataSource.open(path);
+    }
+
 //    private Node.ExecutableNode buildStep() {
 //        Node.ExecutableNode executableNode = new Node.ExecutableNode("step");
 //        executableNode.setName(TEST_STEP_NAME);
@@ -24,12 +24,14 @@ $Id:
 
 package com.griddynamics.qa.sprimber.discovery;
 
+import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
 import com.griddynamics.qa.sprimber.stepdefinition.ClassicStepDefinitionConfiguration;
 import com.griddynamics.qa.sprimber.stepdefinition.StepDefinitionSrpingConfiguration;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -60,6 +62,7 @@ public class ConfigurationTest {
     }
 
     @TestConfiguration
+    @EnableConfigurationProperties(SprimberProperties.class)
     public static class Configuration {
 
         @Bean
@@ -32,9 +32,15 @@ class ExampleTestController {
     static final String TEST_NAME = "Test Name";
     static final String TEST_DESCRIPTION = "Test Description";
     static final String TEST_STEP_NAME = "Test Step Name";
+    static final String DATA_DRIVEN_TEST_NAME = "Data Driven Test Name";
 
     @TestMapping(name = TEST_NAME, description = TEST_DESCRIPTION)
     void testMe() {
         // return nothing
     }
+
+    @TestMapping(name = DATA_DRIVEN_TEST_NAME, dataSource = "classpath:data/users.csv")
+    void testRow(String login, int attempts, boolean active) {
+        // return nothing
+    }
 }
@@ -61,6 +61,8 @@ public abstract class CucumberAdapterConstants {
     public static final String META_ATTRIBUTE_NAME = "meta";
     public static final String STEP_DATA_ATTRIBUTE = "stepData";
 
+    public static final String DATA_SOURCE_TAG_PREFIX = "@dataSource:";
+
     private CucumberAdapterConstants() {
     }
 }
@@ -24,25 +24,49 @@ $Id:
 
 package com.griddynamics.qa.sprimber.discovery;
 
+import com.google.common.collect.Iterators;
 import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
 import com.griddynamics.qa.sprimber.engine.Node;
 import gherkin.Parser;
 import gherkin.TokenMatcher;
+import gherkin.ast.Examples;
 import gherkin.ast.GherkinDocument;
+import gherkin.ast.Scenario;
+import gherkin.ast.ScenarioDefinition;
+import gherkin.ast.ScenarioOutline;
+import gherkin.ast.TableRow;
 import gherkin.ast.Tag;
 import gherkin.pickles.Compiler;
 import gherkin.pickles.Pickle;
 import gherkin.pickles.PickleTag;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -55,16 +79,21 @@ import static com.griddynamics.qa.sprimber.engine.Node.Bypass.*;
  * @author fparamonov
  */
 
+@Slf4j
 @RequiredArgsConstructor
 class CucumberSuiteDiscovery implements TestSuiteDiscovery {
 
-    private final Compiler compiler;
-    private final TokenMatcher tokenMatcher;
+    private final ObjectProvider<Compiler> compilerProvider;
+    private final ObjectProvider<TokenMatcher> tokenMatcherProvider;
     private final CucumberTestBinder cucumberTestBinder;
     private final SprimberProperties sprimberProperties;
-    private final Parser<GherkinDocument> gherkinParser;
+    private final ObjectProvider<Parser<GherkinDocument>> gherkinParserProvider;
     private final ApplicationContext applicationContext;
     private final CucumberTagFilter tagFilter;
+    private final StepResolutionCache stepResolutionCache;
+    private final HookBindingCache hookBindingCache;
+    private final FeatureSnapshotStore featureSnapshotStore;
+    private final ScenarioOutlineExpander scenarioOutlineExpander;
     private final Statistic statistic = new Statistic();
 
     @Override
@@ -79,29 +108,135 @@ class CucumberSuiteDiscovery implements TestSuiteDiscovery {
 
     @Override
     public Node discover() {
+        Node testSuiteNode = createSuiteNode();
+        discoverTestCases(newGherkinTools(), testSuiteNode::newDetachedChild, testSuiteNode::attachChild);
+        return testSuiteNode;
+    }
+
+    @Override
+    public Node discoverStreaming(int bufferSize) {
+        Node testSuiteNode = createSuiteNode();
+        Node.ChildStream testCaseStream = testSuiteNode.openChildStream(bufferSize);
+        BlockingQueue<GherkinTools> gherkinTools = newGherkinTools();
+        Thread discoveryThread = new Thread(() -> {
+            try {
+                discoverTestCases(gherkinTools, testCaseStream::newChild, testCaseStream::publish);
+                testCaseStream.complete();
+                log.debug("Streaming discovery completed with statistic: {}", statistic);
+            } catch (Throwable throwable) {
+                log.error("Streaming discovery failed", throwable);
+                testCaseStream.completeExceptionally(throwable);
+            }
+        }, "CucumberDiscovery");
+        discoveryThread.setDaemon(true);
+        discoveryThread.start();
+        return testSuiteNode;
+    }
+
+    /**
+     * Discovers the test case per every feature resource. In the parallel mode the resources parsed and bound
+     * on the dedicated pool, but the test cases still passed to the consumer in the order of the resources,
+     * at most two times of parallelism resources are processed ahead of the consumer
+     *
+     * @param gherkinTools     - the parsers to borrow for every resource, one per discovery thread
+     * @param testCaseFactory  - creates the test case node that is not a part of the suite yet
+     * @param testCaseConsumer - receives the fully discovered test case nodes in the order of the resources
+     */
+    private void discoverTestCases(BlockingQueue<GherkinTools> gherkinTools,
+                                   Function<Builder, Node> testCaseFactory, Consumer<Node> testCaseConsumer) {
+        SprimberProperties.Parallel parallel = sprimberProperties.getDiscovery().getParallel();
+        if (!parallel.isEnable()) {
+            featureResourcesStream()
+                    .map(resource -> discoverTestCase(resource, gherkinTools, testCaseFactory))
+                    .forEach(testCaseConsumer);
+            return;
+        }
+        ForkJoinPool discoveryPool = new ForkJoinPool(parallel.getParallelism());
+        try {
+            int window = parallel.getParallelism() * 2;
+            Deque<CompletableFuture<Node>> pendingTestCases = new ArrayDeque<>();
+            featureResourcesStream().forEach(resource -> {
+                pendingTestCases.addLast(CompletableFuture.supplyAsync(() -> discoverTestCase(resource, gherkinTools, testCaseFactory), discoveryPool));
+                if (pendingTestCases.size() >= window) {
+                    testCaseConsumer.accept(joinTestCase(pendingTestCases.pollFirst()));
+                }
+            });
+            while (!pendingTestCases.isEmpty()) {
+                testCaseConsumer.accept(joinTestCase(pendingTestCases.pollFirst()));
+            }
+        } finally {
+            discoveryPool.shutdownNow();
+        }
+    }
+
+    private Node discoverTestCase(Resource resource, BlockingQueue<GherkinTools> gherkinTools, Function<Builder, Node> testCaseFactory) {
+        if (!featureSnapshotStore.isEnabled()) {
+            return discoverTestCase(buildCucumberDocument(resource, readContent(resource), gherkinTools), testCaseFactory);
+        }
+        byte[] content = readContent(resource);
+        URL url = urlOf(resource);
+        Optional<CucumberDocument> snapshot = featureSnapshotStore.load(url, content);
+        if (snapshot.isPresent()) {
+            return discoverTestCase(snapshot.get(), testCaseFactory);
+        }
+        CucumberDocument cucumberDocument = buildCucumberDocument(resource, content, gherkinTools);
+        Node testCaseNode = discoverTestCase(cucumberDocument, testCaseFactory);
+        if (!isExpandedLazily(cucumberDocument)) {
+            featureSnapshotStore.save(cucumberDocument, content);
+        }
+        return testCaseNode;
+    }
+
+    private Node discoverTestCase(CucumberDocument cucumberDocument, Function<Builder, Node> testCaseFactory) {
+        Node testCaseNode = testCaseFactory.apply(testCaseBuilder(cucumberDocument));
+        testCaseNodeDiscover(testCaseNode, cucumberDocument);
+        return testCaseNode;
+    }
+
+    private Node joinTestCase(CompletableFuture<Node> testCaseFuture) {
+        try {
+            return testCaseFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Node createSuiteNode() {
+        stepResolutionCache.getStatistic().aggregateTo(statistic);
+        hookBindingCache.getStatistic().aggregateTo(statistic);
+        featureSnapshotStore.getStatistic().aggregateTo(statistic);
         Node testSuiteNode = Node.createRootNode(CUCUMBER_SUITE_ROLE, ADAPTER_NAME, EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE,
                 BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_CHILDREN_AFTER_ITERATION_ERROR));
         fillSuiteHooks(testSuiteNode);
-        featureResourcesStream()
-                .map(this::buildCucumberDocument)
-                .forEach(cucumberDocument -> testCaseNodeDiscover(testSuiteNode, cucumberDocument));
         return testSuiteNode;
     }
 
-    private void testCaseNodeDiscover(Node suiteNode, CucumberDocument cucumberDocument) {
-        Builder builder = new Builder()
+    private Builder testCaseBuilder(CucumberDocument cucumberDocument) {
+        return new Builder()
                 .withDescription(cucumberDocument.getDocument().getFeature().getDescription())
                 .withName(cucumberDocument.getDocument().getFeature().getName())
                 .withRole(CUCUMBER_FEATURE_ROLE)
                 .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE,
                         BYPASS_CHILDREN_AFTER_ITERATION_ERROR));
-        Node testCaseNode = suiteNode.addChild(builder);
-        List<String> tagsToEvaluate = cucumberDocument.getDocument().getFeature().getTags()
+    }
+
+    private void testCaseNodeDiscover(Node testCaseNode, CucumberDocument cucumberDocument) {
+        TagSet tagsToEvaluate = TagSet.of(cucumberDocument.getDocument().getFeature().getTags()
                 .stream()
                 .map(Tag::getName)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
         fillFeatureHooks(testCaseNode, tagsToEvaluate);
-        compiler.compile(cucumberDocument.getDocument()).stream()
+        if (isExpandedLazily(cucumberDocument)) {
+            openScenarioSource(testCaseNode, cucumberDocument);
+            return;
+        }
+        cucumberDocument.getPickles().stream()
                 .filter(pickleTagFilter())
                 .forEach(pickle -> {
                     cucumberTestBinder.buildAndAddTestNode(testCaseNode, pickle, cucumberDocument);
@@ -109,19 +244,95 @@ class CucumberSuiteDiscovery implements TestSuiteDiscovery {
                 });
     }
 
+    /**
+     * The scenarios bound upfront and the outlines expanded while the feature executes, all in the order
+     * of the document. The tag filter evaluated once per examples block, since every row of the block has the same tags.
+     * The examples block with the data source takes the rows of the current shard of the data source after its own rows
+     */
+    private void openScenarioSource(Node testCaseNode, CucumberDocument cucumberDocument) {
+        Map<Integer, Pickle> scenarioPickles = cucumberDocument.getPickles().stream()
+                .collect(Collectors.toMap(pickle -> pickle.getLocations().get(0).getLine(), Function.identity()));
+        List<Tag> featureTags = cucumberDocument.getDocument().getFeature().getTags();
+        List<Iterator<Node>> scenarioSources = new ArrayList<>();
+        for (ScenarioDefinition scenarioDefinition : cucumberDocument.getDocument().getFeature().getChildren()) {
+            if (scenarioDefinition instanceof Scenario) {
+                Optional.ofNullable(scenarioPickles.get(scenarioDefinition.getLocation().getLine()))
+                        .filter(pickleTagFilter())
+                        .ifPresent(pickle -> {
+                            scenarioSources.add(Iterators.singletonIterator(
+                                    cucumberTestBinder.buildTestNode(testCaseNode::newDetachedChild, pickle, cucumberDocument)));
+                            statistic.registerPreparedStage(CUCUMBER_SCENARIO_ROLE);
+                        });
+            }
+            if (scenarioDefinition instanceof ScenarioOutline) {
+                ScenarioOutline outline = (ScenarioOutline) scenarioDefinition;
+                for (Examples examples : outline.getExamples()) {
+                    if (examples.getTableHeader() == null) {
+                        continue;
+                    }
+                    List<String> examplesTags = Stream.of(featureTags, outline.getTags(), examples.getTags())
+                            .flatMap(List::stream)
+                            .map(Tag::getName)
+                            .collect(Collectors.toList());
+                    boolean isMatched = tagFilter.filter(TagSet.of(examplesTags));
+                    Iterator<TableRow> rows = examples.getTableBody().iterator();
+                    long rowCount = examples.getTableBody().size();
+                    Optional<String> dataSourceLocation = ScenarioOutlineExpander.dataSourceOf(examples);
+                    if (isMatched && dataSourceLocation.isPresent()) {
+                        DataSource dataSource = DataSource.open(applicationContext.getResource(dataSourceLocation.get()));
+                        SprimberProperties.DataSources dataSources = sprimberProperties.getDiscovery().getDataSources();
+                        long[] range = dataSource.shardRange(dataSources.getShardIndex(), dataSources.getShardCount());
+                        rows = Iterators.concat(rows, scenarioOutlineExpander.readRows(examples, dataSource, range[0], range[1]));
+                        rowCount += range[1] - range[0];
+                    }
+                    if (isMatched) {
+                        statistic.registerPreparedStages(CUCUMBER_SCENARIO_ROLE, rowCount);
+                    } else {
+                        statistic.registerFilteredStages(CUCUMBER_SCENARIO_ROLE, rowCount);
+                    }
+                    if (isMatched) {
+                        scenarioSources.add(scenarioOutlineExpander.expand(testCaseNode::newDetachedChild, outline,
+                                examples, rows, cucumberDocument));
+                    }
+                }
+            }
+        }
+        testCaseNode.openChildSource(Iterators.concat(scenarioSources.iterator()),
+                ScenarioOutlineExpander.hasDataSources(cucumberDocument.getDocument()) ?
+                        sprimberProperties.getDiscovery().getDataSources().getBufferSize() :
+                        sprimberProperties.getDiscovery().getLazyOutlines().getBufferSize());
+    }
+
+    private boolean isLazyOutlinesEnabled() {
+        return sprimberProperties.getDiscovery().getLazyOutlines().isEnable();
+    }
+
+    private boolean isExpandedLazily(CucumberDocument cucumberDocument) {
+        return isExpandedLazily(cucumberDocument.getDocument());
+    }
+
+    /**
+     * The outlines with the data sources expanded lazily regardless of the lazy outlines mode, since the data source
+     * may have more rows than fit the memory
+     */
+    private boolean isExpandedLazily(GherkinDocument document) {
+        return ScenarioOutlineExpander.hasOutlines(document) &&
+                (isLazyOutlinesEnabled() || ScenarioOutlineExpander.hasDataSources(document));
+    }
+
     private void fillSuiteHooks(Node suiteNode) {
         cucumberTestBinder.fillPreConditionsWithoutFiltering(BEFORE_SUITE_ACTION_STYLE, suiteNode);
         cucumberTestBinder.fillPostConditionsWithoutFiltering(AFTER_SUITE_ACTION_STYLE, suiteNode);
     }
 
-    private void fillFeatureHooks(Node testCaseNode, List<String> featureTags) {
+    private void fillFeatureHooks(Node testCaseNode, TagSet featureTags) {
         cucumberTestBinder.fillPreConditions(BEFORE_FEATURE_ACTION_STYLE, testCaseNode, featureTags);
         cucumberTestBinder.fillPostConditions(AFTER_FEATURE_ACTION_STYLE, testCaseNode, featureTags);
     }
 
     private Predicate<Pickle> pickleTagFilter() {
         return pickle -> {
-            boolean isMatched = tagFilter.filter(getTagsFromPickle(pickle));
+            boolean isMatched = tagFilter.filter(TagSet.of(getTagsFromPickle(pickle)));
             if (!isMatched) {
                 statistic.registerFilteredStage(CUCUMBER_SCENARIO_ROLE);
             }
@@ -144,21 +355,77 @@ class CucumberSuiteDiscovery implements TestSuiteDiscovery {
         }
     }
 
-    private CucumberDocument buildCucumberDocument(Resource resource) {
+    private CucumberDocument buildCucumberDocument(Resource resource, byte[] content, BlockingQueue<GherkinTools> gherkinTools) {
+        GherkinTools tools = borrow(gherkinTools);
         try {
-            GherkinDocument document = gherkinParser.parse(new InputStreamReader(resource.getInputStream()), tokenMatcher);
+            GherkinDocument document = tools.parser.parse(new InputStreamReader(new ByteArrayInputStream(content)), tools.tokenMatcher);
             CucumberDocument cucumberDocument = new CucumberDocument();
             cucumberDocument.setDocument(document);
-            cucumberDocument.setUrl(resource.getURL());
+            cucumberDocument.setPickles(isExpandedLazily(document) ?
+                    scenarioOutlineExpander.compileWithoutOutlines(document) : tools.compiler.compile(document));
+            cucumberDocument.setUrl(urlOf(resource));
             return cucumberDocument;
+        } finally {
+            gherkinTools.add(tools);
+        }
+    }
+
+    private GherkinTools borrow(BlockingQueue<GherkinTools> gherkinTools) {
+        try {
+            return gherkinTools.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the gherkin parser", e);
+        }
+    }
+
+    private byte[] readContent(Resource resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return StreamUtils.copyToByteArray(inputStream);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    class CucumberDocument {
+    private URL urlOf(Resource resource) {
+        try {
+            return resource.getURL();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * The discovery may run while the application context is still starting, so the prototype beans
+     * taken on the calling thread upfront, the bean factory can't be used from the discovery threads then
+     */
+    private BlockingQueue<GherkinTools> newGherkinTools() {
+        SprimberProperties.Parallel parallel = sprimberProperties.getDiscovery().getParallel();
+        int toolsCount = parallel.isEnable() ? parallel.getParallelism() : 1;
+        BlockingQueue<GherkinTools> gherkinTools = new ArrayBlockingQueue<>(toolsCount);
+        for (int counter = 0; counter < toolsCount; counter++) {
+            gherkinTools.add(new GherkinTools(gherkinParserProvider.getObject(), tokenMatcherProvider.getObject(),
+                    compilerProvider.getObject()));
+        }
+        return gherkinTools;
+    }
+
+    /**
+     * The gherkin parser, token matcher and compiler hold the state of the current document,
+     * so every discovery thread borrows own instances
+     */
+    @RequiredArgsConstructor
+    private static class GherkinTools {
+
+        private final Parser<GherkinDocument> parser;
+        private final TokenMatcher tokenMatcher;
+        private final Compiler compiler;
+    }
+
+    static class CucumberDocument {
 
         private GherkinDocument document;
+        private List<Pickle> pickles;
         private URL url;
 
         GherkinDocument getDocument() {
@@ -169,6 +436,14 @@ class CucumberSuiteDiscovery implements TestSuiteDiscovery {
             this.document = document;
         }
 
+        List<Pickle> getPickles() {
+            return pickles;
+        }
+
+        void setPickles(List<Pickle> pickles) {
+            this.pickles = pickles;
+        }
+
         URL getUrl() {
             return url;
         }
@@ -25,17 +25,21 @@ $Id:
 package com.griddynamics.qa.sprimber.discovery;
 
 import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
-import io.cucumber.tagexpressions.Expression;
-import io.cucumber.tagexpressions.TagExpressionParser;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.springframework.util.StringUtils;
 
 import javax.annotation.PostConstruct;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
+ * The global tag filters and the tag expressions of the hooks compiled once to the predicates
+ * over the {@link TagSet}, the lists of the tags converted to the tag set before the evaluation
+ *
  * @author fparamonov
  */
 
@@ -43,33 +47,39 @@ import java.util.stream.Collectors;
 class CucumberTagFilter implements TagFilter {
 
     private final SprimberProperties sprimberProperties;
-    private final Map<String, Expression> expressionCache = new HashMap<>();
-    private List<Expression> expressions = new ArrayList<>();
+    private final Map<String, Predicate<TagSet>> expressionCache = new ConcurrentHashMap<>();
+    private Predicate<TagSet> expressions = tags -> true;
 
     @PostConstruct
     void initExpressions() {
-        TagExpressionParser tagExpressionParser = new TagExpressionParser();
-        expressions.addAll(sprimberProperties.getTagFilters().stream().map(tagExpressionParser::parse).collect(Collectors.toList()));
+        expressions = sprimberProperties.getTagFilters().stream()
+                .map(TagExpressionCompiler::compile)
+                .reduce(Predicate::and)
+                .orElse(tags -> true);
     }
 
     @Override
     public boolean filter(List<String> tags) {
-        return expressions.stream().allMatch(expression -> expression.evaluate(tags));
+        return filter(TagSet.of(tags));
+    }
+
+    @Override
+    public boolean filter(TagSet tags) {
+        return expressions.test(tags);
     }
 
     @Override
     public boolean filterByCustomExpression(List<String> tagsToEvaluate, String expressionAsString) {
-        expressionCache.computeIfAbsent(expressionAsString, this::buildExpression);
-        return expressionCache.get(expressionAsString).evaluate(tagsToEvaluate);
+        return filterByCustomExpression(TagSet.of(tagsToEvaluate), expressionAsString);
+    }
+
+    @Override
+    public boolean filterByCustomExpression(TagSet tagsToEvaluate, String expressionAsString) {
+        return expressionCache.computeIfAbsent(expressionAsString, TagExpressionCompiler::compile).test(tagsToEvaluate);
     }
 
     boolean filter(String tagsAsCsv) {
         List<String> tags = Arrays.asList(StringUtils.tokenizeToStringArray(tagsAsCsv, ","));
         return tags.isEmpty() || filter(tags);
     }
-
-    private Expression buildExpression(String expressionAsString) {
-        TagExpressionParser tagExpressionParser = new TagExpressionParser();
-        return tagExpressionParser.parse(expressionAsString);
-    }
 }
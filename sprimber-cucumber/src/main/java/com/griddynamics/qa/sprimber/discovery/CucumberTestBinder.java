@@ -25,6 +25,7 @@ $Id:
 package com.griddynamics.qa.sprimber.discovery;
 
 import com.griddynamics.qa.sprimber.engine.Node;
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
 import com.griddynamics.qa.sprimber.stepdefinition.TestMethodRegistry;
 import gherkin.ast.ScenarioDefinition;
 import gherkin.pickles.Pickle;
@@ -32,9 +33,10 @@ import gherkin.pickles.PickleLocation;
 import gherkin.pickles.PickleTag;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.util.DigestUtils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants.*;
@@ -55,12 +57,24 @@ class CucumberTestBinder {
 
     private final PickleStepFactory pickleStepFactory;
     private final TestMethodRegistry testMethodRegistry;
+    private final HookBindingCache hookBindingCache;
+    private final Map<TestMethod, Node.Definition> hookDefinitions = new ConcurrentHashMap<>();
 
     void buildAndAddTestNode(Node parentNode, Pickle testCandidate,
                              CucumberSuiteDiscovery.CucumberDocument cucumberDocument) {
+        buildTestNode(parentNode::addChild, testCandidate, cucumberDocument);
+    }
+
+    /**
+     * @param testNodeFactory - creates the test node from the builder, either as the child of the feature
+     *                        or detached one when the feature receives its scenarios lazily
+     */
+    Node buildTestNode(Function<Builder, Node> testNodeFactory, Pickle testCandidate,
+                       CucumberSuiteDiscovery.CucumberDocument cucumberDocument) {
         String description = getScenarioDescriptionByTestName(cucumberDocument, testCandidate.getName())
                 .map(ScenarioDefinition::getDescription).orElse(testCandidate.getName());
         String testLocation = formatLocation(testCandidate);
+        List<String> scenarioTags = getTagsFromPickle(testCandidate);
         String uniqueName = cucumberDocument.getUrl().toString() + cucumberDocument.getDocument().getFeature().getLocation().getLine() + ":" +
                 cucumberDocument.getDocument().getFeature().getLocation().getColumn() +
                 cucumberDocument.getDocument().getFeature().getName() + testLocation + testCandidate.getName();
@@ -70,68 +84,70 @@ class CucumberTestBinder {
                 .withRole(CucumberAdapterConstants.CUCUMBER_SCENARIO_ROLE)
                 .withName(testCandidate.getName())
                 .withDescription(description)
-                .withHistoryId(DigestUtils.md5DigestAsHex(uniqueName.getBytes()))
-                .withAttribute(BDD_TAGS_ATTRIBUTE_NAME, getTagsFromPickle(testCandidate))
+                .withHistoryId(Node.stableIdOf(uniqueName))
+                .withAttribute(BDD_TAGS_ATTRIBUTE_NAME, scenarioTags)
                 .withAttribute(LOCATION_ATTRIBUTE_NAME, testLocation)
                 .withAttribute(META_ATTRIBUTE_NAME, getMetaFromPickle(testCandidate))
                 .withAttribute(TEST_LOCATION_ATTRIBUTE_NAME, uniqueName);
 
-        Node testNode = parentNode.addChild(builder);
-        List<String> scenarioTags = getTagsFromPickle(testCandidate);
-        fillScenarioHooks(testNode, scenarioTags);
+        Node testNode = testNodeFactory.apply(builder);
+        TagSet scenarioTagSet = TagSet.of(scenarioTags);
+        fillScenarioHooks(testNode, scenarioTagSet);
 
+        // every step of the scenario has the tags of the scenario, so the step hooks are the same for all of them
+        List<Node.Definition> beforeStepHooks = resolveHooks(BEFORE_STEP_ACTION_STYLE, scenarioTagSet);
+        List<Node.Definition> afterStepHooks = resolveHooks(AFTER_STEP_ACTION_STYLE, scenarioTagSet);
         testCandidate.getSteps().stream()
                 .map(pickleStep -> pickleStepFactory.addStepContainerNode(testNode, pickleStep))
-                .forEach(stepNode -> this.fillStepBeforeAndAfter(stepNode, scenarioTags));
+                .forEach(stepNode -> {
+                    beforeStepHooks.forEach(stepNode::addBefore);
+                    afterStepHooks.forEach(stepNode::addAfter);
+                });
+        return testNode;
     }
 
     void fillPreConditionsWithoutFiltering(String style, Node containerNode) {
         testMethodRegistry.streamByStyle(style)
-                .map(testMethod -> new Builder()
-                        .withRole(style)
-                        .withName(testMethod.getStyle())
-                        .withMethod(testMethod.getMethod()))
+                .map(this::getHookDefinition)
                 .forEach(containerNode::addBefore);
     }
 
 
     void fillPostConditionsWithoutFiltering(String style, Node containerNode) {
         testMethodRegistry.streamByStyle(style)
-                .map(testMethod -> new Builder()
-                        .withRole(style)
-                        .withName(testMethod.getStyle())
-                        .withMethod(testMethod.getMethod()))
+                .map(this::getHookDefinition)
                 .forEach(containerNode::addAfter);
     }
 
-    void fillPreConditions(String style, Node containerNode, List<String> tags) {
-        testMethodRegistry.streamByStyle(style)
-                .filter(pickleStepFactory.filterTestMethodByTagsAndCustomExpression(tags))
-                .map(testMethod -> new Builder()
-                        .withRole(style)
-                        .withName(testMethod.getStyle())
-                        .withMethod(testMethod.getMethod()))
-                .forEach(containerNode::addBefore);
+    void fillPreConditions(String style, Node containerNode, TagSet tags) {
+        resolveHooks(style, tags).forEach(containerNode::addBefore);
     }
 
-    void fillPostConditions(String style, Node containerNode, List<String> tags) {
-        testMethodRegistry.streamByStyle(style)
-                .filter(pickleStepFactory.filterTestMethodByTagsAndCustomExpression(tags))
-                .map(testMethod -> new Builder()
-                        .withRole(style)
-                        .withName(testMethod.getStyle())
-                        .withMethod(testMethod.getMethod()))
-                .forEach(containerNode::addAfter);
+    void fillPostConditions(String style, Node containerNode, TagSet tags) {
+        resolveHooks(style, tags).forEach(containerNode::addAfter);
     }
 
-    private void fillScenarioHooks(Node testNode, List<String> scenarioTags) {
+    private void fillScenarioHooks(Node testNode, TagSet scenarioTags) {
         fillPreConditions(BEFORE_TEST_ACTION_STYLE, testNode, scenarioTags);
         fillPostConditions(AFTER_TEST_ACTION_STYLE, testNode, scenarioTags);
     }
 
-    private void fillStepBeforeAndAfter(Node stepContainerNode, List<String> stepTags) {
-        fillPreConditions(BEFORE_STEP_ACTION_STYLE, stepContainerNode, stepTags);
-        fillPostConditions(AFTER_STEP_ACTION_STYLE, stepContainerNode, stepTags);
+    private List<Node.Definition> resolveHooks(String style, TagSet tags) {
+        return hookBindingCache.getOrResolve(style, tags, tagsToEvaluate -> testMethodRegistry.streamByStyle(style)
+                .filter(pickleStepFactory.filterTestMethodByTagsAndCustomExpression(tagsToEvaluate))
+                .map(this::getHookDefinition)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * The hook is the same for every scenario or step it wraps, so the single definition shared by all of them
+     */
+    private Node.Definition getHookDefinition(TestMethod testMethod) {
+        return hookDefinitions.computeIfAbsent(testMethod, hookMethod -> new Builder()
+                .withRole(hookMethod.getStyle())
+                .withName(hookMethod.getStyle())
+                .withMethod(hookMethod.getMethod())
+                .build());
     }
 
     private String formatLocation(Pickle pickle) {
@@ -142,6 +158,7 @@ class CucumberTestBinder {
     private List<String> getTagsFromPickle(Pickle pickle) {
         return pickle.getTags().stream()
                 .map(PickleTag::getName)
+                .map(Node::intern)
                 .collect(Collectors.toList());
     }
 
@@ -154,9 +171,11 @@ class CucumberTestBinder {
 
     private void convertValues(Meta meta, String s) {
         StringTokenizer stringTokenizer = new StringTokenizer(s, TAG_VALUE_SEPARATOR);
-        String key = stringTokenizer.nextToken();
+        String key = Node.intern(stringTokenizer.nextToken());
         if (stringTokenizer.hasMoreTokens()) {
-            List<String> values = Arrays.asList(StringUtils.split(stringTokenizer.nextToken(), VALUE_SEPARATOR));
+            List<String> values = Arrays.stream(StringUtils.split(stringTokenizer.nextToken(), VALUE_SEPARATOR))
+                    .map(Node::intern)
+                    .collect(Collectors.toList());
             meta.put(key, values);
         } else {
             meta.put(key, Collections.emptyList());
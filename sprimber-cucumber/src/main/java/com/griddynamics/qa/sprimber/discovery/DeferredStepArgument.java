@@ -0,0 +1,61 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import io.cucumber.datatable.DataTable;
+import io.cucumber.stepexpression.Argument;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.Type;
+
+/**
+ * The data table or doc string of the step that converted to the type of the step method parameter only when
+ * the step is about to be invoked, so the steps that filtered or bypassed never convert their data
+ * and the converted objects don't live longer than the step invocation
+ *
+ * @author fparamonov
+ */
+
+@RequiredArgsConstructor
+class DeferredStepArgument implements Node.DeferredArgument {
+
+    private final Argument argument;
+    private final Type type;
+
+    @Override
+    public Object resolve() {
+        Object value = argument.getValue();
+        if (value instanceof DataTable) {
+            value = ((DataTable) value).convert(type, false);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(argument);
+    }
+}
@@ -0,0 +1,266 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import gherkin.ast.*;
+import gherkin.pickles.Argument;
+import gherkin.pickles.*;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Binary form of the parsed feature: only the parts of the gherkin document used by the discovery,
+ * the compiled pickles and the unique id of the step definition resolved for every pickle step.
+ * The strings written as the length and UTF-8 bytes, the length -1 stands for null.
+ * Gherkin doesn't expose the location of the pickle tag, so the restored tags have no real location.
+ * The data read directly from the byte buffer, so the snapshot may be memory-mapped
+ *
+ * @author fparamonov
+ */
+
+class FeatureSnapshotCodec {
+
+    private static final byte NO_ARGUMENT = 0;
+    private static final byte DOC_STRING_ARGUMENT = 1;
+    private static final byte DATA_TABLE_ARGUMENT = 2;
+    private static final PickleLocation UNKNOWN_TAG_LOCATION = new PickleLocation(0, 0);
+
+    private FeatureSnapshotCodec() {
+    }
+
+    /**
+     * @param bindingOf - the unique id of the step definition resolved for the step if known
+     */
+    static void encode(DataOutput out, GherkinDocument document, List<Pickle> pickles,
+                       Function<PickleStep, Optional<String>> bindingOf) throws IOException {
+        Feature feature = document.getFeature();
+        writeString(out, feature.getLanguage());
+        writeString(out, feature.getKeyword());
+        writeString(out, feature.getName());
+        writeString(out, feature.getDescription());
+        writeLocation(out, feature.getLocation());
+        out.writeInt(feature.getTags().size());
+        for (Tag tag : feature.getTags()) {
+            writeLocation(out, tag.getLocation());
+            writeString(out, tag.getName());
+        }
+        out.writeInt(feature.getChildren().size());
+        for (ScenarioDefinition scenarioDefinition : feature.getChildren()) {
+            writeString(out, scenarioDefinition.getKeyword());
+            writeString(out, scenarioDefinition.getName());
+            writeString(out, scenarioDefinition.getDescription());
+            writeLocation(out, scenarioDefinition.getLocation());
+        }
+
+        out.writeInt(pickles.size());
+        for (Pickle pickle : pickles) {
+            writeString(out, pickle.getName());
+            writeString(out, pickle.getLanguage());
+            writePickleLocations(out, pickle.getLocations());
+            out.writeInt(pickle.getTags().size());
+            for (PickleTag pickleTag : pickle.getTags()) {
+                writeString(out, pickleTag.getName());
+            }
+            out.writeInt(pickle.getSteps().size());
+            for (PickleStep pickleStep : pickle.getSteps()) {
+                writeString(out, pickleStep.getText());
+                writePickleLocations(out, pickleStep.getLocations());
+                writeArgument(out, pickleStep.getArgument());
+                writeString(out, bindingOf.apply(pickleStep).orElse(null));
+            }
+        }
+    }
+
+    /**
+     * @param bindingConsumer - receives the unique id of the step definition resolved for the step
+     */
+    static CucumberSuiteDiscovery.CucumberDocument decode(ByteBuffer in, BiConsumer<PickleStep, String> bindingConsumer) {
+        String language = readString(in);
+        String keyword = readString(in);
+        String name = readString(in);
+        String description = readString(in);
+        Location location = readLocation(in);
+        List<Tag> tags = new ArrayList<>();
+        for (int tagCount = in.getInt(); tagCount > 0; tagCount--) {
+            tags.add(new Tag(readLocation(in), readString(in)));
+        }
+        List<ScenarioDefinition> children = new ArrayList<>();
+        for (int childCount = in.getInt(); childCount > 0; childCount--) {
+            String childKeyword = readString(in);
+            String childName = readString(in);
+            String childDescription = readString(in);
+            children.add(new Scenario(Collections.emptyList(), readLocation(in), childKeyword, childName, childDescription,
+                    Collections.emptyList()));
+        }
+        Feature feature = new Feature(tags, location, language, keyword, name, description, children);
+
+        List<Pickle> pickles = new ArrayList<>();
+        for (int pickleCount = in.getInt(); pickleCount > 0; pickleCount--) {
+            String pickleName = readString(in);
+            String pickleLanguage = readString(in);
+            List<PickleLocation> pickleLocations = readPickleLocations(in);
+            List<PickleTag> pickleTags = new ArrayList<>();
+            for (int tagCount = in.getInt(); tagCount > 0; tagCount--) {
+                pickleTags.add(new PickleTag(UNKNOWN_TAG_LOCATION, readString(in)));
+            }
+            List<PickleStep> pickleSteps = new ArrayList<>();
+            for (int stepCount = in.getInt(); stepCount > 0; stepCount--) {
+                String text = readString(in);
+                List<PickleLocation> stepLocations = readPickleLocations(in);
+                PickleStep pickleStep = new PickleStep(text, readArgument(in), stepLocations);
+                String binding = readString(in);
+                if (binding != null) {
+                    bindingConsumer.accept(pickleStep, binding);
+                }
+                pickleSteps.add(pickleStep);
+            }
+            pickles.add(new Pickle(pickleName, pickleLanguage, pickleSteps, pickleTags, pickleLocations));
+        }
+
+        CucumberSuiteDiscovery.CucumberDocument cucumberDocument = new CucumberSuiteDiscovery.CucumberDocument();
+        cucumberDocument.setDocument(new GherkinDocument(feature, Collections.emptyList()));
+        cucumberDocument.setPickles(pickles);
+        return cucumberDocument;
+    }
+
+    private static void writeArgument(DataOutput out, List<Argument> arguments) throws IOException {
+        if (arguments.isEmpty()) {
+            out.writeByte(NO_ARGUMENT);
+            return;
+        }
+        Argument argument = arguments.get(0);
+        if (argument instanceof PickleString) {
+            PickleString pickleString = (PickleString) argument;
+            out.writeByte(DOC_STRING_ARGUMENT);
+            writePickleLocation(out, pickleString.getLocation());
+            writeString(out, pickleString.getContent());
+            writeString(out, pickleString.getContentType());
+            return;
+        }
+        if (argument instanceof PickleTable) {
+            List<PickleRow> rows = ((PickleTable) argument).getRows();
+            out.writeByte(DATA_TABLE_ARGUMENT);
+            out.writeInt(rows.size());
+            for (PickleRow row : rows) {
+                out.writeInt(row.getCells().size());
+                for (PickleCell cell : row.getCells()) {
+                    writePickleLocation(out, cell.getLocation());
+                    writeString(out, cell.getValue());
+                }
+            }
+            return;
+        }
+        throw new IllegalStateException("Argument was neither PickleString nor PickleTable");
+    }
+
+    private static List<Argument> readArgument(ByteBuffer in) {
+        byte argumentKind = in.get();
+        if (argumentKind == NO_ARGUMENT) {
+            return Collections.emptyList();
+        }
+        if (argumentKind == DOC_STRING_ARGUMENT) {
+            PickleLocation location = readPickleLocation(in);
+            String content = readString(in);
+            return Collections.singletonList(new PickleString(location, content, readString(in)));
+        }
+        if (argumentKind == DATA_TABLE_ARGUMENT) {
+            List<PickleRow> rows = new ArrayList<>();
+            for (int rowCount = in.getInt(); rowCount > 0; rowCount--) {
+                List<PickleCell> cells = new ArrayList<>();
+                for (int cellCount = in.getInt(); cellCount > 0; cellCount--) {
+                    cells.add(new PickleCell(readPickleLocation(in), readString(in)));
+                }
+                rows.add(new PickleRow(cells));
+            }
+            return Collections.singletonList(new PickleTable(rows));
+        }
+        throw new IllegalStateException("Unknown argument kind " + argumentKind);
+    }
+
+    private static void writeLocation(DataOutput out, Location location) throws IOException {
+        out.writeInt(location.getLine());
+        out.writeInt(location.getColumn());
+    }
+
+    private static Location readLocation(ByteBuffer in) {
+        return new Location(in.getInt(), in.getInt());
+    }
+
+    private static void writePickleLocations(DataOutput out, List<PickleLocation> locations) throws IOException {
+        out.writeInt(locations.size());
+        for (PickleLocation location : locations) {
+            writePickleLocation(out, location);
+        }
+    }
+
+    private static List<PickleLocation> readPickleLocations(ByteBuffer in) {
+        List<PickleLocation> locations = new ArrayList<>();
+        for (int locationCount = in.getInt(); locationCount > 0; locationCount--) {
+            locations.add(readPickleLocation(in));
+        }
+        return locations;
+    }
+
+    private static void writePickleLocation(DataOutput out, PickleLocation location) throws IOException {
+        out.writeInt(location.getLine());
+        out.writeInt(location.getColumn());
+    }
+
+    private static PickleLocation readPickleLocation(ByteBuffer in) {
+        return new PickleLocation(in.getInt(), in.getInt());
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new IllegalStateException("The string of " + length + " bytes exceeds the snapshot");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
+import com.griddynamics.qa.sprimber.engine.Node;
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethodRegistry;
+import gherkin.pickles.PickleStep;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants.TAGS_ATTRIBUTE;
+import static com.griddynamics.qa.sprimber.discovery.TestSuiteDiscovery.Statistic;
+
+/**
+ * Keeps the snapshot of every discovered feature file in the configured directory.
+ * The snapshot is valid only for the same content of the feature file and the same fingerprint of the step definitions,
+ * the fingerprint covers the registered step definitions, the byte code of the classes that declare them
+ * and the global tag filters, since all of them affect the step binding, and the lazy outlines mode,
+ * since the outlines expanded eagerly into the pickles of the snapshot only when it's off.
+ * <p>
+ * The valid snapshot memory-mapped and decoded instead of the parsing and compiling of the feature,
+ * the step definitions resolved for the steps put to the {@link StepResolutionCache}, so the steps bound
+ * without the matching against all step definitions. The missed, stale or corrupt snapshot just reported
+ * as the cache miss and the feature discovered as usual, the snapshot rewritten after the successful discovery
+ *
+ * @author fparamonov
+ */
+
+@Slf4j
+@RequiredArgsConstructor
+class FeatureSnapshotStore {
+
+    static final String CACHE_NAME = "FeatureSnapshot";
+
+    private static final int MAGIC = 0x53505246;
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    private final SprimberProperties sprimberProperties;
+    private final TestMethodRegistry testMethodRegistry;
+    private final StepResolutionCache stepResolutionCache;
+    private final Statistic statistic = new Statistic();
+    private volatile String fingerprint;
+
+    boolean isEnabled() {
+        return sprimberProperties.getDiscovery().getSnapshot().isEnable();
+    }
+
+    /**
+     * @param url     - the location of the feature file
+     * @param content - the current content of the feature file
+     * @return the document restored from the valid snapshot or empty if there is no such snapshot
+     */
+    Optional<CucumberSuiteDiscovery.CucumberDocument> load(URL url, byte[] content) {
+        Path snapshotPath = snapshotPathOf(url);
+        if (!Files.isRegularFile(snapshotPath)) {
+            statistic.registerCacheMiss(CACHE_NAME);
+            return Optional.empty();
+        }
+        try (FileChannel fileChannel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer snapshot = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            if (!isValid(snapshot, url, content)) {
+                log.debug("The snapshot of the feature {} is stale", url);
+                statistic.registerCacheMiss(CACHE_NAME);
+                return Optional.empty();
+            }
+            CucumberSuiteDiscovery.CucumberDocument cucumberDocument = FeatureSnapshotCodec.decode(snapshot, this::putResolution);
+            cucumberDocument.setUrl(url);
+            statistic.registerCacheHit(CACHE_NAME);
+            return Optional.of(cucumberDocument);
+        } catch (IOException | RuntimeException e) {
+            log.warn("The snapshot of the feature {} can't be read, the feature will be parsed: {}", url, e.toString());
+            statistic.registerCacheMiss(CACHE_NAME);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the snapshot to the temporary file first, so the concurrent or interrupted run never sees the partial snapshot
+     *
+     * @param cucumberDocument - the document discovered without errors
+     * @param content          - the content of the feature file the document parsed from
+     */
+    void save(CucumberSuiteDiscovery.CucumberDocument cucumberDocument, byte[] content) {
+        Path snapshotPath = snapshotPathOf(cucumberDocument.getUrl());
+        try {
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(snapshot);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            FeatureSnapshotCodec.writeString(out, getFingerprint());
+            FeatureSnapshotCodec.writeString(out, cucumberDocument.getUrl().toString());
+            FeatureSnapshotCodec.writeString(out, hashOf(content));
+            FeatureSnapshotCodec.encode(out, cucumberDocument.getDocument(), cucumberDocument.getPickles(), this::bindingOf);
+            out.flush();
+
+            Files.createDirectories(snapshotPath.getParent());
+            Path temporaryPath = Files.createTempFile(snapshotPath.getParent(), snapshotPath.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporaryPath, snapshot.toByteArray());
+                Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryPath);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("The snapshot of the feature {} can't be written: {}", cucumberDocument.getUrl(), e.toString());
+        }
+    }
+
+    /**
+     * @return hits and misses of the snapshots, updated as the discovery goes
+     */
+    Statistic getStatistic() {
+        return statistic;
+    }
+
+    private boolean isValid(ByteBuffer snapshot, URL url, byte[] content) {
+        return snapshot.getInt() == MAGIC &&
+                snapshot.getInt() == FORMAT_VERSION &&
+                getFingerprint().equals(FeatureSnapshotCodec.readString(snapshot)) &&
+                url.toString().equals(FeatureSnapshotCodec.readString(snapshot)) &&
+                hashOf(content).equals(FeatureSnapshotCodec.readString(snapshot));
+    }
+
+    private void putResolution(PickleStep pickleStep, String testMethodId) {
+        testMethodRegistry.findByUniqueId(testMethodId)
+                .ifPresent(testMethod -> stepResolutionCache.putResolved(pickleStep, testMethod));
+    }
+
+    private Optional<String> bindingOf(PickleStep pickleStep) {
+        return stepResolutionCache.peek(pickleStep)
+                .map(TestMethod.IdBuilder::calculateUniqueId);
+    }
+
+    private Path snapshotPathOf(URL url) {
+        return Paths.get(sprimberProperties.getDiscovery().getSnapshot().getDirectory())
+                .resolve(Node.stableIdOf(url.toString()) + SNAPSHOT_EXTENSION);
+    }
+
+    private String getFingerprint() {
+        String result = fingerprint;
+        if (result == null) {
+            synchronized (this) {
+                result = fingerprint;
+                if (result == null) {
+                    result = calculateFingerprint();
+                    fingerprint = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private String calculateFingerprint() {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        testMethodRegistry.streamAllTestMethods()
+                .map(testMethod -> String.join("|", TestMethod.IdBuilder.calculateUniqueId(testMethod), testMethod.getStyle(),
+                        Objects.toString(testMethod.getTextPattern()), Objects.toString(testMethod.getAttribute(TAGS_ATTRIBUTE)),
+                        testMethod.getMethod().toGenericString()))
+                .sorted()
+                .forEach(testMethodSignature -> hasher.putString(testMethodSignature, StandardCharsets.UTF_8));
+        testMethodRegistry.streamAllTestMethods()
+                .map(TestMethod::getMethod)
+                .map(Method::getDeclaringClass)
+                .map(ClassUtils::getUserClass)
+                .distinct()
+                .sorted((left, right) -> left.getName().compareTo(right.getName()))
+                .forEach(stepClass -> hasher.putBytes(byteCodeOf(stepClass)));
+        hasher.putString(sprimberProperties.getTagFilters().stream().collect(Collectors.joining("|")), StandardCharsets.UTF_8);
+        hasher.putBoolean(sprimberProperties.getDiscovery().getLazyOutlines().isEnable());
+        return hasher.hash().toString();
+    }
+
+    private byte[] byteCodeOf(Class<?> stepClass) {
+        String resourcePath = ClassUtils.convertClassNameToResourcePath(stepClass.getName()) + ClassUtils.CLASS_FILE_SUFFIX;
+        ClassLoader classLoader = stepClass.getClassLoader() == null ? ClassUtils.getDefaultClassLoader() : stepClass.getClassLoader();
+        try (InputStream byteCode = classLoader.getResourceAsStream(resourcePath)) {
+            return byteCode == null ? stepClass.getName().getBytes(StandardCharsets.UTF_8) : StreamUtils.copyToByteArray(byteCode);
+        } catch (IOException e) {
+            return stepClass.getName().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String hashOf(byte[] content) {
+        return Hashing.murmur3_128().hashBytes(content).toString();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static com.griddynamics.qa.sprimber.discovery.TestSuiteDiscovery.Statistic;
+
+/**
+ * Remembers the hooks bound to the container by the hook style and the tags of the container.
+ * The tag expression of the hook evaluated only against the presence of the tags,
+ * so the key holds the {@link TagSet} and the order or duplicates of the tags doesn't produce the new entry.
+ * Usually the scenarios share a few distinct tag sets, so the registry scanned and the tag expressions
+ * evaluated only once per style and tag set
+ *
+ * @author fparamonov
+ */
+
+class HookBindingCache {
+
+    static final String CACHE_NAME = "HookBinding";
+
+    private final Map<BindingKey, List<Node.Definition>> bindings = new ConcurrentHashMap<>();
+    private final Statistic statistic = new Statistic();
+
+    /**
+     * @param style    - the style of the hooks
+     * @param tags     - the tags of the container that wrapped by the hooks
+     * @param resolver - resolves the hooks for the style and the tags when they aren't known yet
+     * @return the hooks in the order of the registry
+     */
+    List<Node.Definition> getOrResolve(String style, TagSet tags, Function<TagSet, List<Node.Definition>> resolver) {
+        BindingKey bindingKey = new BindingKey(style, tags);
+        List<Node.Definition> hooks = bindings.get(bindingKey);
+        if (hooks != null) {
+            statistic.registerCacheHit(CACHE_NAME);
+            return hooks;
+        }
+        statistic.registerCacheMiss(CACHE_NAME);
+        return bindings.computeIfAbsent(bindingKey, key -> Collections.unmodifiableList(new ArrayList<>(resolver.apply(tags))));
+    }
+
+    /**
+     * @return hits and misses of the cache, updated as the discovery goes
+     */
+    Statistic getStatistic() {
+        return statistic;
+    }
+
+    @EqualsAndHashCode
+    private static class BindingKey {
+
+        private final String style;
+        private final TagSet tags;
+
+        BindingKey(String style, TagSet tags) {
+            this.style = style;
+            this.tags = tags;
+        }
+    }
+}
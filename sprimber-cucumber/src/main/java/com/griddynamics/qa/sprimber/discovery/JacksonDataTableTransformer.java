@@ -24,17 +24,29 @@ $Id:
 
 package com.griddynamics.qa.sprimber.discovery;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import io.cucumber.datatable.TableCellByTypeTransformer;
 import io.cucumber.datatable.TableEntryByTypeTransformer;
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * This is a default implementation for any case data table transformer that currently missed in official Cucumber release
+ * <p>
+ * The conversion for every target type prepared once: the common scalar types parsed directly and fall back to
+ * Jackson only when the direct parsing fails, so the Jackson leniency (trimming, textual nulls, etc.) is kept,
+ * the rest of the types converted by the {@link ObjectReader} created once per type. The table entries are
+ * written to the token buffer as is, without the serialization of the map
  *
  * @author fparamonov
  */
@@ -43,24 +55,97 @@ import java.util.Map;
 class JacksonDataTableTransformer implements TableEntryByTypeTransformer, TableCellByTypeTransformer {
 
     private final ObjectMapper objectMapper;
+    private final Map<Type, Function<String, Object>> cellConverters = new ConcurrentHashMap<>();
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
 
     @Override
     public Object transform(String cellValue, Type toValueType) throws Throwable {
-        return objectMapper.convertValue(cellValue, new TypeReference<Object>() {
-            @Override
-            public Type getType() {
-                return toValueType;
-            }
-        });
+        if (cellValue == null) {
+            return null;
+        }
+        return cellConverters.computeIfAbsent(toValueType, this::createCellConverter).apply(cellValue);
     }
 
     @Override
     public Object transform(Map<String, String> entryValue, Type toValueType, TableCellByTypeTransformer cellTransformer) throws Throwable {
-        return objectMapper.convertValue(entryValue, new TypeReference<Object>() {
-            @Override
-            public Type getType() {
-                return toValueType;
+        if (entryValue == null) {
+            return null;
+        }
+        // the same shortcut ObjectMapper.convertValue takes for the compatible raw types
+        if (toValueType instanceof Class && toValueType != Object.class && ((Class<?>) toValueType).isInstance(entryValue)) {
+            return entryValue;
+        }
+        TokenBuffer tokenBuffer = new TokenBuffer(objectMapper, false);
+        tokenBuffer.writeStartObject();
+        for (Map.Entry<String, String> entry : entryValue.entrySet()) {
+            tokenBuffer.writeFieldName(entry.getKey());
+            tokenBuffer.writeString(entry.getValue());
+        }
+        tokenBuffer.writeEndObject();
+        return read(tokenBuffer, toValueType);
+    }
+
+    private Function<String, Object> createCellConverter(Type toValueType) {
+        Function<String, Object> jacksonConverter = cellValue -> readCell(cellValue, toValueType);
+        if (!(toValueType instanceof Class) || toValueType == Object.class) {
+            return jacksonConverter;
+        }
+        Class<?> toValueClass = (Class<?>) toValueType;
+        if (toValueClass.isAssignableFrom(String.class)) {
+            return cellValue -> cellValue;
+        }
+        if (toValueClass == Integer.class || toValueClass == int.class) {
+            return withFallback(Integer::valueOf, jacksonConverter);
+        }
+        if (toValueClass == Long.class || toValueClass == long.class) {
+            return withFallback(Long::valueOf, jacksonConverter);
+        }
+        if (toValueClass == Double.class || toValueClass == double.class) {
+            return withFallback(Double::valueOf, jacksonConverter);
+        }
+        if (toValueClass == BigDecimal.class) {
+            return withFallback(BigDecimal::new, jacksonConverter);
+        }
+        if (toValueClass == Boolean.class || toValueClass == boolean.class) {
+            return cellValue -> "true".equals(cellValue) ? Boolean.TRUE :
+                    "false".equals(cellValue) ? Boolean.FALSE : jacksonConverter.apply(cellValue);
+        }
+        return jacksonConverter;
+    }
+
+    private Function<String, Object> withFallback(Function<String, Object> parser, Function<String, Object> fallback) {
+        return cellValue -> {
+            try {
+                return parser.apply(cellValue);
+            } catch (NumberFormatException e) {
+                return fallback.apply(cellValue);
             }
-        });
+        };
+    }
+
+    private Object readCell(String cellValue, Type toValueType) {
+        TokenBuffer tokenBuffer = new TokenBuffer(objectMapper, false);
+        try {
+            tokenBuffer.writeString(cellValue);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return read(tokenBuffer, toValueType);
+    }
+
+    private Object read(TokenBuffer tokenBuffer, Type toValueType) {
+        ObjectReader reader = readers.computeIfAbsent(toValueType, this::createReader);
+        try {
+            return reader.readValue(tokenBuffer.asParser());
+        } catch (IOException e) {
+            // the same as ObjectMapper.convertValue reports the failed conversion
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private ObjectReader createReader(Type toValueType) {
+        JavaType javaType = objectMapper.getTypeFactory().constructType(toValueType);
+        // the value is converted, not read, so the root isn't unwrapped the same as by ObjectMapper.convertValue
+        return objectMapper.readerFor(javaType).without(DeserializationFeature.UNWRAP_ROOT_VALUE);
     }
 }
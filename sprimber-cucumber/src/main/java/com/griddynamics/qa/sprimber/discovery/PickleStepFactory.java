@@ -26,18 +26,22 @@ package com.griddynamics.qa.sprimber.discovery;
 
 import com.griddynamics.qa.sprimber.condition.PropertyCondition;
 import com.griddynamics.qa.sprimber.condition.SkipOnProperty;
+import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
 import com.griddynamics.qa.sprimber.engine.Node;
+import com.griddynamics.qa.sprimber.engine.StepDataArena;
 import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
-import com.griddynamics.qa.sprimber.stepdefinition.TestMethodRegistry;
 import gherkin.pickles.PickleCell;
 import gherkin.pickles.PickleRow;
 import gherkin.pickles.PickleStep;
+import gherkin.pickles.PickleString;
 import gherkin.pickles.PickleTable;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.stepexpression.Argument;
-import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
+import io.cucumber.stepexpression.DataTableArgument;
+import io.cucumber.stepexpression.DocStringArgument;
+import io.cucumber.stepexpression.TypeRegistry;
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.annotation.AnnotationUtils;
 
 import java.lang.reflect.Method;
@@ -55,12 +59,31 @@ import static com.griddynamics.qa.sprimber.engine.Node.Condition;
  * @author fparamonov
  */
 
-@RequiredArgsConstructor
 class PickleStepFactory {
 
     private final CucumberTagFilter tagFilter;
     private final StepMatcher stepMatcher;
-    private final TestMethodRegistry testMethodRegistry;
+    private final StepDefinitionIndex stepDefinitionIndex;
+    private final StepResolutionCache stepResolutionCache;
+    private final SprimberProperties sprimberProperties;
+    private final TypeRegistry typeRegistry;
+    private final StepDataArena stepDataArena;
+
+    /**
+     * The arena resolved once here, since the steps may be created by the discovery worker threads,
+     * the arena bean is present only when the arena enabled
+     */
+    PickleStepFactory(CucumberTagFilter tagFilter, StepMatcher stepMatcher, StepDefinitionIndex stepDefinitionIndex,
+                      StepResolutionCache stepResolutionCache, SprimberProperties sprimberProperties,
+                      TypeRegistry typeRegistry, ObjectProvider<StepDataArena> stepDataArena) {
+        this.tagFilter = tagFilter;
+        this.stepMatcher = stepMatcher;
+        this.stepDefinitionIndex = stepDefinitionIndex;
+        this.stepResolutionCache = stepResolutionCache;
+        this.sprimberProperties = sprimberProperties;
+        this.typeRegistry = typeRegistry;
+        this.stepDataArena = stepDataArena.getIfAvailable();
+    }
 
     Node addStepContainerNode(Node parentNode, PickleStep stepCandidate) {
         Node.Builder builder = new Node.Builder()
@@ -68,32 +91,51 @@ class PickleStepFactory {
                 .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_TARGET_WHEN_BYPASS_MODE));
         Node stepContainerNode = parentNode.addChild(builder);
 
-        List<Node> nodeList = testMethodRegistry.streamAllTestMethods()
-                .filter(testMethod -> StringUtils.isNotBlank(testMethod.getTextPattern()))
+        Optional<StepResolutionCache.StepResolution> cachedResolution = stepResolutionCache.get(stepCandidate);
+        if (cachedResolution.isPresent()) {
+            TestMethod testMethod = cachedResolution.get().getTestMethod();
+            Optional<List<Argument>> arguments = cachedResolution.get().getArguments().isPresent() ?
+                    cachedResolution.get().getArguments() : matchArguments(stepCandidate, testMethod);
+            // the resolution may come from the outdated snapshot, so the step resolved from scratch once it doesn't match
+            if (arguments.isPresent()) {
+                addStepContainerNode(stepContainerNode, stepCandidate, testMethod, arguments.get());
+                return stepContainerNode;
+            }
+        }
+
+        List<ImmutablePair<TestMethod, List<Argument>>> matches = stepDefinitionIndex.findCandidates(stepCandidate.getText()).stream()
                 .filter(filterTestMethodByTags())
-                .map(testMethod ->
-                        stepMatcher.matchAndGetArgumentsFrom(stepCandidate, testMethod, testMethod.getMethod().getParameterTypes())
-                                .map(arguments -> addStepContainerNode(stepContainerNode, stepCandidate, testMethod, arguments))
-                )
+                .map(testMethod -> matchArguments(stepCandidate, testMethod)
+                        .map(arguments -> ImmutablePair.of(testMethod, arguments)))
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .collect(Collectors.toList());
+        List<Node> nodeList = matches.stream()
+                .map(match -> addStepContainerNode(stepContainerNode, stepCandidate, match.getLeft(), match.getRight()))
+                .collect(Collectors.toList());
         if (nodeList.isEmpty()) {
             throw new StepNotFoundException(stepCandidate);
         }
         if (nodeList.size() > 1) {
             throw new ExtraMappingFoundException(nodeList, stepCandidate);
         }
+        stepResolutionCache.put(stepCandidate, matches.get(0).getLeft(), matches.get(0).getRight());
         return stepContainerNode;
     }
 
+    private Optional<List<Argument>> matchArguments(PickleStep stepCandidate, TestMethod testMethod) {
+        return stepMatcher.matchAndGetArgumentsFrom(stepCandidate, testMethod, testMethod.getMethod().getParameterTypes());
+    }
+
     private Node addStepContainerNode(Node parentNode, PickleStep stepCandidate, TestMethod testMethod, List<Argument> arguments) {
+        Optional<CharSequence> spilledTable = spillTable(stepCandidate);
         Node.Builder builder = new Node.Builder()
                 .withRole(CUCUMBER_STEP_ROLE)
                 .withName(testMethod.getStyle() + " " + stepCandidate.getText())
                 .withMethod(testMethod.getMethod())
-                .withParameters(convertStepArguments(arguments, Arrays.asList(testMethod.getMethod().getGenericParameterTypes())));
-        handleAdditionalStepData(stepCandidate)
+                .withParameters(convertStepArguments(stepCandidate, spilledTable, arguments,
+                        Arrays.asList(testMethod.getMethod().getGenericParameterTypes())));
+        handleAdditionalStepData(stepCandidate, spilledTable)
                 .ifPresent(stepData -> builder.withAttribute(STEP_DATA_ATTRIBUTE, stepData));
         buildCondition(testMethod.getMethod())
                 .ifPresent(builder::withCondition);
@@ -105,7 +147,7 @@ class PickleStepFactory {
                 tagFilter.filter((String) testMethod.getAttribute(TAGS_ATTRIBUTE));
     }
 
-    Predicate<TestMethod> filterTestMethodByTagsAndCustomExpression(List<String> tagsToEvaluate) {
+    Predicate<TestMethod> filterTestMethodByTagsAndCustomExpression(TagSet tagsToEvaluate) {
         return testMethod ->
                 tagFilter.filterByCustomExpression(tagsToEvaluate, (String) testMethod.getAttribute(TAGS_ATTRIBUTE));
     }
@@ -119,13 +161,25 @@ class PickleStepFactory {
         return Optional.ofNullable(propertyCondition);
     }
 
-    private Map<String, Object> convertStepArguments(List<Argument> arguments, List<Type> methodParameters) {
+    private Map<String, Object> convertStepArguments(PickleStep pickleStep, Optional<CharSequence> spilledTable,
+                                                     List<Argument> arguments, List<Type> methodParameters) {
         return IntStream.range(0, methodParameters.size())
-                .mapToObj(counter -> argumentToEntry(arguments.get(counter), methodParameters.get(counter), counter))
+                .mapToObj(counter -> argumentToEntry(pickleStep, spilledTable, arguments.get(counter), methodParameters.get(counter), counter))
                 .collect(LinkedHashMap::new, (linkedHashMap, entry) -> linkedHashMap.put(entry.getKey(), entry.getValue()), LinkedHashMap::putAll);
     }
 
-    private Map.Entry<String, Object> argumentToEntry(Argument argument, Type type, int counter) {
+    private Map.Entry<String, Object> argumentToEntry(PickleStep pickleStep, Optional<CharSequence> spilledTable,
+                                                      Argument argument, Type type, int counter) {
+        if (isArenaEnabled()) {
+            Optional<SpilledStepArgument> spilledArgument = spillArgument(pickleStep, spilledTable, argument, type);
+            if (spilledArgument.isPresent()) {
+                return new ImmutablePair<>(type.getTypeName() + counter, spilledArgument.get());
+            }
+        }
+        if (sprimberProperties.getDiscovery().getDeferredArguments().isEnable() &&
+                (argument instanceof DataTableArgument || argument instanceof DocStringArgument)) {
+            return new ImmutablePair<>(type.getTypeName() + counter, new DeferredStepArgument(argument, type));
+        }
         Object value = argument.getValue();
         if (value instanceof DataTable) {
             value = ((DataTable) value).convert(type, false);
@@ -133,14 +187,66 @@ class PickleStepFactory {
         return new ImmutablePair<>(type.getTypeName() + counter, value);
     }
 
+    /**
+     * The data table or doc string of the step is the only pickle argument of the step
+     */
+    private Optional<SpilledStepArgument> spillArgument(PickleStep pickleStep, Optional<CharSequence> spilledTable,
+                                                        Argument argument, Type type) {
+        int threshold = sprimberProperties.getDiscovery().getArena().getThreshold();
+        if (argument instanceof DataTableArgument) {
+            return spilledTable.map(encodedRows -> SpilledStepArgument.ofTable(encodedRows, type, typeRegistry));
+        }
+        if (argument instanceof DocStringArgument && SpilledStepArgument.isDocStringTarget(type)) {
+            return pickleStep.getArgument().stream()
+                    .filter(PickleString.class::isInstance)
+                    .map(PickleString.class::cast)
+                    .filter(docString -> docString.getContent().length() >= threshold)
+                    .findFirst()
+                    .map(docString -> SpilledStepArgument.ofDocString(stepDataArena.store(docString.getContent()), type));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The large data table stored to the arena once per step, both the step argument and the step data
+     * attribute for the reports are read from there
+     */
+    private Optional<CharSequence> spillTable(PickleStep pickleStep) {
+        if (!isArenaEnabled()) {
+            return Optional.empty();
+        }
+        int threshold = sprimberProperties.getDiscovery().getArena().getThreshold();
+        return pickleStep.getArgument().stream()
+                .filter(PickleTable.class::isInstance)
+                .map(PickleTable.class::cast)
+                .filter(table -> tableSize(table) >= threshold)
+                .findFirst()
+                .map(table -> stepDataArena.store(SpilledStepArgument.encodeRows(table.getRows())));
+    }
+
+    private boolean isArenaEnabled() {
+        return stepDataArena != null;
+    }
+
+    private int tableSize(PickleTable table) {
+        return table.getRows().stream()
+                .flatMap(row -> row.getCells().stream())
+                .mapToInt(cell -> cell.getValue().length())
+                .sum();
+    }
+
     /**
      * Will try to handle pickle table or return empty string if nothing to handle
      *
-     * @param pickleStep - original pickle step from gherkin
+     * @param pickleStep   - original pickle step from gherkin
+     * @param spilledTable - the rows of the data table when it's stored in the arena
      * @return - data table as string or empty
      */
     // TODO: 1/17/19 to add support for pickle string
-    private Optional<String> handleAdditionalStepData(PickleStep pickleStep) {
+    private Optional<Object> handleAdditionalStepData(PickleStep pickleStep, Optional<CharSequence> spilledTable) {
+        if (spilledTable.isPresent()) {
+            return spilledTable.map(SpilledStepArgument::tableText);
+        }
         return pickleStep.getArgument().stream()
                 .filter(argument -> argument instanceof PickleTable)
                 .findFirst()
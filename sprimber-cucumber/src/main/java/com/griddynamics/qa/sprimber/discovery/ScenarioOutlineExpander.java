@@ -0,0 +1,194 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import gherkin.ast.Background;
+import gherkin.ast.Examples;
+import gherkin.ast.Feature;
+import gherkin.ast.GherkinDocument;
+import gherkin.ast.Location;
+import gherkin.ast.ScenarioDefinition;
+import gherkin.ast.ScenarioOutline;
+import gherkin.ast.TableCell;
+import gherkin.ast.TableRow;
+import gherkin.ast.Tag;
+import gherkin.pickles.Compiler;
+import gherkin.pickles.Pickle;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants.DATA_SOURCE_TAG_PREFIX;
+import static com.griddynamics.qa.sprimber.engine.Node.Builder;
+
+/**
+ * Expands the scenario outline into the scenarios row by row instead of the whole outline at once.
+ * The outline itself stays in the parsed document as the template, every row compiled from the document
+ * that has only the background and this row of the outline, so the pickle of the row is the same
+ * as the compiler produces for the whole document. The gherkin compiler keeps nothing between the documents,
+ * so the single compiler shared by all the rows.
+ * <p>
+ * The examples block tagged with {@code @dataSource:<resource location>} takes the rows from the external file
+ * after its own rows, see {@link DataSource}. The header of the block picks the columns of the file by the names
+ *
+ * @author fparamonov
+ */
+
+@RequiredArgsConstructor
+class ScenarioOutlineExpander {
+
+    private final Compiler compiler;
+    private final CucumberTestBinder cucumberTestBinder;
+
+    static boolean hasOutlines(GherkinDocument document) {
+        return document.getFeature() != null && document.getFeature().getChildren().stream()
+                .anyMatch(ScenarioOutline.class::isInstance);
+    }
+
+    static boolean hasDataSources(GherkinDocument document) {
+        return document.getFeature() != null && document.getFeature().getChildren().stream()
+                .filter(ScenarioOutline.class::isInstance)
+                .flatMap(outline -> ((ScenarioOutline) outline).getExamples().stream())
+                .anyMatch(examples -> dataSourceOf(examples).isPresent());
+    }
+
+    static Optional<String> dataSourceOf(Examples examples) {
+        return examples.getTags().stream()
+                .map(Tag::getName)
+                .filter(tag -> tag.startsWith(DATA_SOURCE_TAG_PREFIX))
+                .map(tag -> tag.substring(DATA_SOURCE_TAG_PREFIX.length()))
+                .findFirst();
+    }
+
+    /**
+     * @return the pickles of the background and scenarios of the document, the outlines left aside
+     */
+    List<Pickle> compileWithoutOutlines(GherkinDocument document) {
+        List<ScenarioDefinition> children = document.getFeature().getChildren().stream()
+                .filter(scenarioDefinition -> !(scenarioDefinition instanceof ScenarioOutline))
+                .collect(Collectors.toList());
+        return compiler.compile(withChildren(document, children));
+    }
+
+    /**
+     * @return the scenarios of the examples block, every next one bound only once the executor asks for it
+     */
+    Iterator<Node> expand(Function<Builder, Node> testNodeFactory, ScenarioOutline outline,
+                          Examples examples, CucumberSuiteDiscovery.CucumberDocument cucumberDocument) {
+        return expand(testNodeFactory, outline, examples, examples.getTableBody().iterator(), cucumberDocument);
+    }
+
+    /**
+     * @param rows - the rows of the examples block to expand, either own rows of the block or the external ones
+     */
+    Iterator<Node> expand(Function<Builder, Node> testNodeFactory, ScenarioOutline outline, Examples examples,
+                          Iterator<TableRow> rows, CucumberSuiteDiscovery.CucumberDocument cucumberDocument) {
+        return new Iterator<Node>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Node next() {
+                if (!rows.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Pickle pickle = compileRow(cucumberDocument.getDocument(), outline, examples, rows.next());
+                return cucumberTestBinder.buildTestNode(testNodeFactory, pickle, cucumberDocument);
+            }
+        };
+    }
+
+    /**
+     * The row of the data source located at the header of the examples block, with the number of the row as the column,
+     * so every row keeps the own location and history id
+     *
+     * @return the rows of the data source in the shape of the examples rows
+     */
+    Iterator<TableRow> readRows(Examples examples, DataSource dataSource, long fromRow, long toRow) {
+        int[] columnIndexes = examples.getTableHeader().getCells().stream()
+                .mapToInt(cell -> columnIndex(dataSource, cell.getValue()))
+                .toArray();
+        Iterator<List<String>> rows = dataSource.rows(fromRow, toRow);
+        Location headerLocation = examples.getTableHeader().getLocation();
+        return new Iterator<TableRow>() {
+
+            private long rowIndex = fromRow;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public TableRow next() {
+                List<String> values = rows.next();
+                Location location = new Location(headerLocation.getLine(), Math.toIntExact(++rowIndex));
+                List<TableCell> cells = new ArrayList<>(columnIndexes.length);
+                for (int columnIndex : columnIndexes) {
+                    cells.add(new TableCell(location, values.get(columnIndex)));
+                }
+                return new TableRow(location, cells);
+            }
+        };
+    }
+
+    private int columnIndex(DataSource dataSource, String column) {
+        int columnIndex = dataSource.getColumns().indexOf(column);
+        if (columnIndex < 0) {
+            throw new IllegalStateException(String.format("The data source %s has no column '%s', the available columns are %s",
+                    dataSource.getPath(), column, dataSource.getColumns()));
+        }
+        return columnIndex;
+    }
+
+    Pickle compileRow(GherkinDocument document, ScenarioOutline outline, Examples examples, TableRow row) {
+        Examples rowExamples = new Examples(examples.getLocation(), examples.getTags(), examples.getKeyword(),
+                examples.getName(), examples.getDescription(), examples.getTableHeader(), Collections.singletonList(row));
+        ScenarioOutline rowOutline = new ScenarioOutline(outline.getTags(), outline.getLocation(), outline.getKeyword(),
+                outline.getName(), outline.getDescription(), outline.getSteps(), Collections.singletonList(rowExamples));
+        List<ScenarioDefinition> children = new ArrayList<>();
+        document.getFeature().getChildren().stream()
+                .filter(Background.class::isInstance)
+                .forEach(children::add);
+        children.add(rowOutline);
+        return compiler.compile(withChildren(document, children)).get(0);
+    }
+
+    private GherkinDocument withChildren(GherkinDocument document, List<ScenarioDefinition> children) {
+        Feature feature = document.getFeature();
+        return new GherkinDocument(new Feature(feature.getTags(), feature.getLocation(), feature.getLanguage(),
+                feature.getKeyword(), feature.getName(), feature.getDescription(), children), document.getComments());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import gherkin.pickles.PickleCell;
+import gherkin.pickles.PickleRow;
+import io.cucumber.datatable.DataTable;
+import io.cucumber.datatable.DataTableTypeRegistryTableConverter;
+import io.cucumber.stepexpression.TypeRegistry;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The data table or doc string of the step kept in the {@link com.griddynamics.qa.sprimber.engine.StepDataArena}.
+ * The data table restored from the arena and converted to the type of the step method parameter right before
+ * the step invocation, the doc string passed as the view over the arena to the {@link CharSequence} parameters
+ * and as the string otherwise.
+ * The reports take the same stored rows as the tab separated text via {@link #tableText(CharSequence)},
+ * so the table kept in the arena only once
+ *
+ * @author fparamonov
+ */
+
+class SpilledStepArgument implements Node.DeferredArgument {
+
+    private final CharSequence data;
+    private final Type type;
+    private final TypeRegistry typeRegistry;
+
+    private SpilledStepArgument(CharSequence data, Type type, TypeRegistry typeRegistry) {
+        this.data = data;
+        this.type = type;
+        this.typeRegistry = typeRegistry;
+    }
+
+    static SpilledStepArgument ofTable(CharSequence encodedRows, Type type, TypeRegistry typeRegistry) {
+        return new SpilledStepArgument(encodedRows, type, typeRegistry);
+    }
+
+    static SpilledStepArgument ofDocString(CharSequence content, Type type) {
+        return new SpilledStepArgument(content, type, null);
+    }
+
+    /**
+     * @return the text of the stored rows, the cells separated by tabs and every row ended by the new line,
+     * decoded from the arena each time the text requested
+     */
+    static Object tableText(CharSequence encodedRows) {
+        return new TableText(encodedRows);
+    }
+
+    static boolean isDocStringTarget(Type type) {
+        return type == String.class || type == CharSequence.class;
+    }
+
+    /**
+     * Every row written as the amount of cells followed by the cells, every cell as its length followed by its chars,
+     * the numbers written as two chars
+     */
+    static CharSequence encodeRows(List<PickleRow> rows) {
+        StringBuilder encodedRows = new StringBuilder();
+        writeNumber(encodedRows, rows.size());
+        for (PickleRow row : rows) {
+            writeNumber(encodedRows, row.getCells().size());
+            for (PickleCell cell : row.getCells()) {
+                writeNumber(encodedRows, cell.getValue().length());
+                encodedRows.append(cell.getValue());
+            }
+        }
+        return encodedRows;
+    }
+
+    static List<List<String>> decodeRows(CharSequence encodedRows) {
+        int position = 0;
+        int rowsCount = readNumber(encodedRows, position);
+        position += 2;
+        List<List<String>> rows = new ArrayList<>(rowsCount);
+        for (int row = 0; row < rowsCount; row++) {
+            int cellsCount = readNumber(encodedRows, position);
+            position += 2;
+            List<String> cells = new ArrayList<>(cellsCount);
+            for (int cell = 0; cell < cellsCount; cell++) {
+                int length = readNumber(encodedRows, position);
+                position += 2;
+                cells.add(encodedRows.subSequence(position, position + length).toString());
+                position += length;
+            }
+            rows.add(cells);
+        }
+        return rows;
+    }
+
+    @Override
+    public Object resolve() {
+        if (typeRegistry == null) {
+            return type == CharSequence.class ? data : data.toString();
+        }
+        DataTable dataTable = DataTable.create(decodeRows(data),
+                new DataTableTypeRegistryTableConverter(typeRegistry.dataTableTypeRegistry()));
+        return dataTable.convert(type, false);
+    }
+
+    @Override
+    public String toString() {
+        return typeRegistry == null ? data.toString() : String.valueOf(decodeRows(data));
+    }
+
+    private static class TableText {
+
+        private final CharSequence encodedRows;
+
+        TableText(CharSequence encodedRows) {
+            this.encodedRows = encodedRows;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder tableText = new StringBuilder();
+            decodeRows(encodedRows).forEach(row -> tableText.append(String.join("\t", row)).append('\n'));
+            return tableText.toString();
+        }
+    }
+
+    private static void writeNumber(StringBuilder target, int number) {
+        target.append((char) (number >>> 16)).append((char) number);
+    }
+
+    private static int readNumber(CharSequence source, int position) {
+        return source.charAt(position) << 16 | source.charAt(position + 1);
+    }
+}
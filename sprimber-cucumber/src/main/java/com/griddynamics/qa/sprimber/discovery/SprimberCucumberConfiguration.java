@@ -32,10 +32,12 @@ import gherkin.ast.GherkinDocument;
 import gherkin.pickles.Compiler;
 import io.cucumber.stepexpression.StepExpressionFactory;
 import io.cucumber.stepexpression.TypeRegistry;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Scope;
 
 import java.util.Locale;
 
@@ -47,23 +49,31 @@ import java.util.Locale;
 public class SprimberCucumberConfiguration {
 
     @Configuration
-    @Import({CucumberSuiteDiscovery.class, CucumberTestBinder.class, PickleStepFactory.class, CucumberTagFilter.class, StepMatcher.class})
+    @Import({CucumberSuiteDiscovery.class, CucumberTestBinder.class, PickleStepFactory.class, CucumberTagFilter.class, StepMatcher.class,
+            StepDefinitionIndex.class, StepResolutionCache.class, HookBindingCache.class, FeatureSnapshotStore.class,
+            ScenarioOutlineExpander.class})
     static class DiscoveryConfiguration {
     }
 
+    /**
+     * The gherkin parser, token matcher and compiler are stateful, so every discovery thread takes own instances
+     */
     @Configuration
     static class ThirdPartyConfiguration {
         @Bean
+        @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
         public Parser<GherkinDocument> gherkinParser() {
             return new Parser<>(new AstBuilder());
         }
 
         @Bean
+        @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
         public TokenMatcher tokenMatcher() {
             return new TokenMatcher();
         }
 
         @Bean
+        @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
         public Compiler compiler() {
             return new Compiler();
         }
@@ -0,0 +1,157 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethodRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the step definitions by the literal beginning of their text patterns.
+ * The text pattern matches the whole step text, so the definition can match the step only when
+ * the literal beginning of the pattern is the beginning of the step text as well.
+ * The literal beginnings kept in the prefix tree, so the step text walks the tree once
+ * and collects only the definitions that may match it.
+ * <p>
+ * The candidates returned in the same order as the registry streams the test methods,
+ * so the matching of the candidates gives the same result as the matching of all the definitions.
+ * The index built once on the first lookup, when all the test methods already registered
+ *
+ * @author fparamonov
+ */
+
+@RequiredArgsConstructor
+class StepDefinitionIndex {
+
+    /**
+     * The characters that have special meaning either in regular expression or in cucumber expression
+     */
+    private static final String SPECIAL_CHARACTERS = "\\^$.|?*+()[]{}/";
+    private static final String QUANTIFIERS = "?*+{";
+    private static final char BEGIN_ANCHOR = '^';
+    private static final char ALTERNATION = '|';
+    private static final char ALTERNATIVE_TEXT = '/';
+
+    private final TestMethodRegistry testMethodRegistry;
+    private volatile PrefixNode root;
+
+    List<TestMethod> findCandidates(String stepText) {
+        PrefixNode node = getRoot();
+        List<IndexedTestMethod> candidates = new ArrayList<>(node.testMethods);
+        for (int position = 0; position < stepText.length(); position++) {
+            node = node.next.get(stepText.charAt(position));
+            if (node == null) {
+                break;
+            }
+            candidates.addAll(node.testMethods);
+        }
+        return candidates.stream()
+                .sorted(Comparator.comparingInt(candidate -> candidate.order))
+                .map(candidate -> candidate.testMethod)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The beginning of the pattern that is literal whether the pattern treated as the regular expression
+     * or as the cucumber expression. The character followed by the quantifier is optional, so not a part of it,
+     * as well as the word with the alternative text. The pattern with the alternation may match
+     * without any certain beginning at all.
+     *
+     * @param textPattern - the text pattern of the step definition
+     * @return the text that any step matched by the pattern starts with, may be empty
+     */
+    static String literalPrefixOf(String textPattern) {
+        if (textPattern.indexOf(ALTERNATION) >= 0) {
+            return StringUtils.EMPTY;
+        }
+        int start = textPattern.charAt(0) == BEGIN_ANCHOR ? 1 : 0;
+        int end = start;
+        while (end < textPattern.length() && SPECIAL_CHARACTERS.indexOf(textPattern.charAt(end)) < 0) {
+            end++;
+        }
+        if (end < textPattern.length()) {
+            char stopCharacter = textPattern.charAt(end);
+            if (QUANTIFIERS.indexOf(stopCharacter) >= 0 && end > start) {
+                end--;
+            }
+            if (stopCharacter == ALTERNATIVE_TEXT) {
+                while (end > start && !Character.isWhitespace(textPattern.charAt(end - 1))) {
+                    end--;
+                }
+            }
+        }
+        return textPattern.substring(start, end);
+    }
+
+    private PrefixNode getRoot() {
+        PrefixNode result = root;
+        if (result == null) {
+            synchronized (this) {
+                result = root;
+                if (result == null) {
+                    result = buildIndex();
+                    root = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private PrefixNode buildIndex() {
+        PrefixNode indexRoot = new PrefixNode();
+        List<TestMethod> testMethods = testMethodRegistry.streamAllTestMethods().collect(Collectors.toList());
+        for (int order = 0; order < testMethods.size(); order++) {
+            TestMethod testMethod = testMethods.get(order);
+            if (StringUtils.isBlank(testMethod.getTextPattern())) {
+                continue;
+            }
+            PrefixNode node = indexRoot;
+            for (char character : literalPrefixOf(testMethod.getTextPattern()).toCharArray()) {
+                node = node.next.computeIfAbsent(character, key -> new PrefixNode());
+            }
+            node.testMethods.add(new IndexedTestMethod(order, testMethod));
+        }
+        return indexRoot;
+    }
+
+    private static class PrefixNode {
+        private final Map<Character, PrefixNode> next = new HashMap<>();
+        private final List<IndexedTestMethod> testMethods = new ArrayList<>();
+    }
+
+    private static class IndexedTestMethod {
+        private final int order;
+        private final TestMethod testMethod;
+
+        IndexedTestMethod(int order, TestMethod testMethod) {
+            this.order = order;
+            this.testMethod = testMethod;
+        }
+    }
+}
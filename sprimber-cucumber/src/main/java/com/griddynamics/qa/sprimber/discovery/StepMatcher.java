@@ -34,6 +34,7 @@ import lombok.RequiredArgsConstructor;
 
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Extended version of {@link io.cucumber.stepexpression.ArgumentMatcher} with ability
@@ -46,7 +47,7 @@ import java.util.*;
 class StepMatcher {
 
     private final StepExpressionFactory stepExpressionFactory;
-    private final Map<String, StepExpression> stepExpressionsByBindingPattern = new HashMap<>();
+    private final Map<String, StepExpression> stepExpressionsByBindingPattern = new ConcurrentHashMap<>();
 
     /**
      * The implementation follows the default Cucumber implementation - there is no distinct boolean match method
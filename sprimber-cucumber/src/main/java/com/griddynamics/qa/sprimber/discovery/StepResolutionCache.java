@@ -0,0 +1,148 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
+import gherkin.pickles.PickleStep;
+import gherkin.pickles.PickleString;
+import gherkin.pickles.PickleTable;
+import io.cucumber.stepexpression.Argument;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.griddynamics.qa.sprimber.discovery.TestSuiteDiscovery.Statistic;
+
+/**
+ * Remembers the step definition resolved for the step text, so the same step met again
+ * bound without the matching against the step definitions.
+ * The step definitions filtered only by the global tag filter, so the resolution doesn't depend
+ * on the tags of the scenario and keyed only by the step text and the kind of the step argument.
+ * <p>
+ * The arguments parsed from the step text reused as is when the step has no data table or doc string,
+ * otherwise the arguments depend on the step argument content and must be taken from the resolved
+ * step definition again. Only the unique resolutions are remembered,
+ * the missed and ambiguous steps always resolved from scratch to report the error the same way
+ *
+ * @author fparamonov
+ */
+
+class StepResolutionCache {
+
+    static final String CACHE_NAME = "StepResolution";
+
+    private final Map<ResolutionKey, StepResolution> resolutions = new ConcurrentHashMap<>();
+    private final Statistic statistic = new Statistic();
+
+    Optional<StepResolution> get(PickleStep pickleStep) {
+        StepResolution stepResolution = resolutions.get(new ResolutionKey(pickleStep));
+        if (stepResolution == null) {
+            statistic.registerCacheMiss(CACHE_NAME);
+        } else {
+            statistic.registerCacheHit(CACHE_NAME);
+        }
+        return Optional.ofNullable(stepResolution);
+    }
+
+    void put(PickleStep pickleStep, TestMethod testMethod, List<Argument> arguments) {
+        ResolutionKey resolutionKey = new ResolutionKey(pickleStep);
+        List<Argument> reusableArguments = ArgumentKind.NONE.equals(resolutionKey.argumentKind) ? arguments : null;
+        resolutions.putIfAbsent(resolutionKey, new StepResolution(testMethod, reusableArguments));
+    }
+
+    /**
+     * Remembers the step definition resolved for the step somewhere else, the arguments parsed again for every step
+     */
+    void putResolved(PickleStep pickleStep, TestMethod testMethod) {
+        resolutions.putIfAbsent(new ResolutionKey(pickleStep), new StepResolution(testMethod, null));
+    }
+
+    /**
+     * @return the step definition resolved for the step without counting the lookup as the hit or miss
+     */
+    Optional<TestMethod> peek(PickleStep pickleStep) {
+        return Optional.ofNullable(resolutions.get(new ResolutionKey(pickleStep)))
+                .map(StepResolution::getTestMethod);
+    }
+
+    /**
+     * @return hits and misses of the cache, updated as the discovery goes
+     */
+    Statistic getStatistic() {
+        return statistic;
+    }
+
+    @RequiredArgsConstructor
+    static class StepResolution {
+
+        private final TestMethod testMethod;
+        private final List<Argument> arguments;
+
+        TestMethod getTestMethod() {
+            return testMethod;
+        }
+
+        /**
+         * @return the arguments of the step or empty if they should be parsed again for the certain step
+         */
+        Optional<List<Argument>> getArguments() {
+            return Optional.ofNullable(arguments);
+        }
+    }
+
+    private enum ArgumentKind {
+        NONE, DOC_STRING, DATA_TABLE;
+
+        static ArgumentKind of(PickleStep pickleStep) {
+            if (pickleStep.getArgument().isEmpty()) {
+                return NONE;
+            }
+            gherkin.pickles.Argument argument = pickleStep.getArgument().get(0);
+            if (argument instanceof PickleString) {
+                return DOC_STRING;
+            }
+            if (argument instanceof PickleTable) {
+                return DATA_TABLE;
+            }
+            throw new IllegalStateException("Argument was neither PickleString nor PickleTable");
+        }
+    }
+
+    @EqualsAndHashCode
+    private static class ResolutionKey {
+
+        private final String text;
+        private final ArgumentKind argumentKind;
+
+        ResolutionKey(PickleStep pickleStep) {
+            this.text = pickleStep.getText();
+            this.argumentKind = ArgumentKind.of(pickleStep);
+        }
+    }
+}
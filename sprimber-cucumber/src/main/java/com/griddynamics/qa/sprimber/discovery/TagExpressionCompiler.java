@@ -0,0 +1,145 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Compiles the cucumber tag expression to the predicate over the {@link TagSet}, where every tag of the expression
+ * replaced with its id in the tag dictionary, so the evaluation doesn't compare the strings at all.
+ * The expression validated by the cucumber parser first to report the syntax errors the same way as cucumber does,
+ * the compilation mirrors the grammar of the cucumber parser: 'or' binds weaker than 'and', 'not' is unary prefix
+ * and the backslash escapes the next character of the tag.
+ * If the expression can't be compiled for any reason the cucumber expression evaluated against the list of the tags
+ *
+ * @author fparamonov
+ */
+
+class TagExpressionCompiler {
+
+    private static final String OR = "or";
+    private static final String AND = "and";
+    private static final String NOT = "not";
+    private static final String OPEN_PARENTHESIS = "(";
+    private static final String CLOSE_PARENTHESIS = ")";
+
+    private TagExpressionCompiler() {
+    }
+
+    static Predicate<TagSet> compile(String expressionAsString) {
+        Expression expression = new TagExpressionParser().parse(expressionAsString);
+        try {
+            return compileTokens(tokenize(expressionAsString));
+        } catch (RuntimeException e) {
+            return tags -> expression.evaluate(tags.toList());
+        }
+    }
+
+    private static Predicate<TagSet> compileTokens(List<String> tokens) {
+        Deque<String> operators = new ArrayDeque<>();
+        Deque<Predicate<TagSet>> operands = new ArrayDeque<>();
+        for (String token : tokens) {
+            if (isOperator(token)) {
+                while (!operators.isEmpty() && isOperator(operators.peek())
+                        && !NOT.equals(token) && precedence(token) <= precedence(operators.peek())) {
+                    applyOperator(operators.pop(), operands);
+                }
+                operators.push(token);
+            } else if (OPEN_PARENTHESIS.equals(token)) {
+                operators.push(token);
+            } else if (CLOSE_PARENTHESIS.equals(token)) {
+                while (!OPEN_PARENTHESIS.equals(operators.peek())) {
+                    applyOperator(operators.pop(), operands);
+                }
+                operators.pop();
+            } else {
+                int tagId = TagSet.idOf(token);
+                operands.push(tags -> tags.contains(tagId));
+            }
+        }
+        while (!operators.isEmpty()) {
+            applyOperator(operators.pop(), operands);
+        }
+        if (operands.size() > 1) {
+            throw new IllegalStateException("Unexpected operands left for the tag expression");
+        }
+        return operands.isEmpty() ? tags -> true : operands.pop();
+    }
+
+    private static void applyOperator(String operator, Deque<Predicate<TagSet>> operands) {
+        if (NOT.equals(operator)) {
+            operands.push(operands.pop().negate());
+            return;
+        }
+        Predicate<TagSet> right = operands.pop();
+        Predicate<TagSet> left = operands.pop();
+        operands.push(AND.equals(operator) ? left.and(right) : left.or(right));
+    }
+
+    private static boolean isOperator(String token) {
+        return OR.equals(token) || AND.equals(token) || NOT.equals(token);
+    }
+
+    private static int precedence(String operator) {
+        return OR.equals(operator) ? 0 : AND.equals(operator) ? 1 : 2;
+    }
+
+    private static List<String> tokenize(String expressionAsString) {
+        List<String> tokens = new ArrayList<>();
+        boolean isEscaped = false;
+        StringBuilder token = null;
+        for (char character : expressionAsString.toCharArray()) {
+            if (isEscaped) {
+                token = token == null ? new StringBuilder() : token;
+                token.append(character);
+                isEscaped = false;
+            } else if (character == '\\') {
+                isEscaped = true;
+            } else if (character == '(' || character == ')' || Character.isWhitespace(character)) {
+                if (token != null) {
+                    tokens.add(token.toString());
+                    token = null;
+                }
+                if (!Character.isWhitespace(character)) {
+                    tokens.add(String.valueOf(character));
+                }
+            } else {
+                token = token == null ? new StringBuilder() : token;
+                token.append(character);
+            }
+        }
+        if (token != null) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
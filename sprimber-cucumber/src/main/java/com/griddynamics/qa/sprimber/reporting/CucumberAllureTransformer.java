@@ -32,7 +32,6 @@ import io.qameta.allure.util.ResultsUtils;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.Charset;
@@ -49,7 +48,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 @Slf4j
 @RequiredArgsConstructor
-public class CucumberAllureTransformer {
+public class CucumberAllureTransformer implements NodeLifecycleListener {
 
     private static final String TEST_CONTAINER_PREFIX_NAME = "test-";
     private static final String TEST_CASE_CONTAINER_PREFIX_NAME = "test-case-";
@@ -57,83 +56,91 @@ public class CucumberAllureTransformer {
     private final AllureLifecycle lifecycle;
     private final Set<String> nonPrintableExceptions;
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void stageStarted(SprimberEventPublisher.ContainerNodeStartedEvent startedEvent) {
-        if (startedEvent.getNode().isEmptyHolder()) return;
-        storeParentInfo(startedEvent.getNode());
-        if (CUCUMBER_FEATURE_ROLE.equals(startedEvent.getNode().getRole())) {
-            doWithTestCaseStart(startedEvent.getNode());
+    @Override
+    public String getAdapterName() {
+        return ADAPTER_NAME;
+    }
+
+    @Override
+    public void stageStarted(Node node) {
+        if (node.isEmptyHolder()) return;
+        storeParentInfo(node);
+        if (CUCUMBER_FEATURE_ROLE.equals(node.getRole())) {
+            doWithTestCaseStart(node);
         }
-        if (CUCUMBER_SCENARIO_ROLE.equals(startedEvent.getNode().getRole())) {
-            doWithTestStart(startedEvent.getNode());
+        if (CUCUMBER_SCENARIO_ROLE.equals(node.getRole())) {
+            doWithTestStart(node);
         }
-        if (CUCUMBER_STEP_CONTAINER_ROLE.equals(startedEvent.getNode().getRole())) {
+        if (CUCUMBER_STEP_CONTAINER_ROLE.equals(node.getRole())) {
             StepResult stepResult = new StepResult();
-            lifecycle.startStep(startedEvent.getNode().getParentId().toString(),
-                    startedEvent.getNode().getRuntimeId().toString(), stepResult);
+            lifecycle.startStep(node.getParentExternalId(),
+                    node.getExternalId(), stepResult);
         }
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void stageFinished(SprimberEventPublisher.ContainerNodeFinishedEvent finishedEvent) {
-        if (finishedEvent.getNode().isEmptyHolder()) return;
-        if (CUCUMBER_FEATURE_ROLE.equals(finishedEvent.getNode().getRole())) {
-            doWithTestCaseFinish(finishedEvent.getNode());
+    @Override
+    public void stageFinished(Node node) {
+        if (node.isEmptyHolder()) return;
+        if (CUCUMBER_FEATURE_ROLE.equals(node.getRole())) {
+            doWithTestCaseFinish(node);
         }
-        if (CUCUMBER_SCENARIO_ROLE.equals(finishedEvent.getNode().getRole())) {
-            doWithTestFinish(finishedEvent.getNode());
+        if (CUCUMBER_SCENARIO_ROLE.equals(node.getRole())) {
+            doWithTestFinish(node);
         }
-        if (CUCUMBER_STEP_CONTAINER_ROLE.equals(finishedEvent.getNode().getRole())) {
-            lifecycle.updateStep(finishedEvent.getNode().getRuntimeId().toString(),
+        if (CUCUMBER_STEP_CONTAINER_ROLE.equals(node.getRole())) {
+            lifecycle.updateStep(node.getExternalId(),
                     stepResult -> {
-                        if (finishedEvent.getNode().isCompletedSuccessfully()) {
+                        if (node.isCompletedSuccessfully()) {
                             stepResult.setStatus(Status.PASSED);
                         }
-                        if (finishedEvent.getNode().isCompletedWithSkip()) {
+                        if (node.isCompletedWithSkip()) {
                             stepResult.setStatus(Status.SKIPPED);
                         }
-                        if (finishedEvent.getNode().isCompletedExceptionally()) {
-                            stepResult.setStatus(finishedEvent.getNode().getThrowable().map(this::mapThrowable).orElse(Status.BROKEN));
-                            Optional<StatusDetails> statusDetails = ResultsUtils.getStatusDetails(finishedEvent.getNode().getThrowable().get());
+                        if (node.isCompletedExceptionally()) {
+                            stepResult.setStatus(node.getThrowable().map(this::mapThrowable).orElse(Status.BROKEN));
+                            Optional<StatusDetails> statusDetails = ResultsUtils.getStatusDetails(node.getThrowable().get());
                             statusDetails.ifPresent(stepResult::setStatusDetails);
                         }
                     }
             );
-            lifecycle.stopStep(finishedEvent.getNode().getRuntimeId().toString());
+            lifecycle.stopStep(node.getExternalId());
         }
+        // sub nodes of the finished stage are completed as well, so nobody will ask for this parent anymore
+        testParentsById.remove(node.getExternalId());
     }
 
     private void storeParentInfo(Node node) {
         TestParentInfo testParentInfo = new TestParentInfo();
         testParentInfo.setParentName(node.getName());
         testParentInfo.setParentType(node.getRole());
-        testParentsById.put(node.getRuntimeId().toString(), testParentInfo);
+        testParentsById.put(node.getExternalId(), testParentInfo);
     }
 
     private void doWithTestCaseStart(Node node) {
         TestResultContainer testCaseResultContainer = new TestResultContainer();
         testCaseResultContainer.setName(node.getName());
         testCaseResultContainer.setDescription(node.getDescription());
-        testCaseResultContainer.setUuid(TEST_CASE_CONTAINER_PREFIX_NAME + node.getRuntimeId().toString());
+        testCaseResultContainer.setUuid(TEST_CASE_CONTAINER_PREFIX_NAME + node.getExternalId());
 
         lifecycle.startTestContainer(testCaseResultContainer);
     }
 
     private void doWithTestCaseFinish(Node node) {
-        lifecycle.stopTestContainer(TEST_CASE_CONTAINER_PREFIX_NAME + node.getRuntimeId().toString());
-        lifecycle.writeTestContainer(TEST_CASE_CONTAINER_PREFIX_NAME + node.getRuntimeId().toString());
+        String testCaseContainerId = TEST_CASE_CONTAINER_PREFIX_NAME + node.getExternalId();
+        lifecycle.stopTestContainer(testCaseContainerId);
+        lifecycle.writeTestContainer(testCaseContainerId);
     }
 
     private void doWithTestStart(Node node) {
         TestResultContainer testResultContainer = new TestResultContainer();
-        testResultContainer.setUuid(TEST_CONTAINER_PREFIX_NAME + node.getRuntimeId());
+        testResultContainer.setUuid(TEST_CONTAINER_PREFIX_NAME + node.getExternalId());
         testResultContainer.setDescription(node.getDescription());
         testResultContainer.setName(node.getName());
 
         TestResult testResult = new TestResult();
         testResult.setName(node.getName());
         testResult.setDescription(node.getDescription());
-        testResult.setUuid(node.getRuntimeId().toString());
+        testResult.setUuid(node.getExternalId());
         testResult.setHistoryId(node.getHistoryId());
         testResult.setFullName(String.valueOf(node.getAttribute(TEST_LOCATION_ATTRIBUTE_NAME).orElse("")));
 
@@ -142,13 +149,13 @@ public class CucumberAllureTransformer {
         testResult.setLabels(labels);
         testResult.setLinks(links);
 
-        lifecycle.startTestContainer(TEST_CASE_CONTAINER_PREFIX_NAME + node.getParentId().toString(), testResultContainer);
+        lifecycle.startTestContainer(TEST_CASE_CONTAINER_PREFIX_NAME + node.getParentExternalId(), testResultContainer);
         lifecycle.scheduleTestCase(testResultContainer.getUuid(), testResult);
-        lifecycle.startTestCase(node.getRuntimeId().toString());
+        lifecycle.startTestCase(node.getExternalId());
     }
 
     private void doWithTestFinish(Node node) {
-        lifecycle.updateTestCase(node.getRuntimeId().toString(), scenarioResult -> {
+        lifecycle.updateTestCase(node.getExternalId(), scenarioResult -> {
             if (node.isCompletedSuccessfully()) {
                 scenarioResult.setStatus(Status.PASSED);
             }
@@ -158,11 +165,12 @@ public class CucumberAllureTransformer {
                 statusDetails.ifPresent(scenarioResult::setStatusDetails);
             }
         });
-        lifecycle.stopTestCase(node.getRuntimeId().toString());
-        lifecycle.stopTestContainer(TEST_CONTAINER_PREFIX_NAME + node.getRuntimeId());
+        String testContainerId = TEST_CONTAINER_PREFIX_NAME + node.getExternalId();
+        lifecycle.stopTestCase(node.getExternalId());
+        lifecycle.stopTestContainer(testContainerId);
 
-        lifecycle.writeTestCase(node.getRuntimeId().toString());
-        lifecycle.writeTestContainer(TEST_CONTAINER_PREFIX_NAME + node.getRuntimeId());
+        lifecycle.writeTestCase(node.getExternalId());
+        lifecycle.writeTestContainer(testContainerId);
     }
 
     // TODO: 2019-10-17 update this method to show the links
@@ -177,7 +185,7 @@ public class CucumberAllureTransformer {
             List<Label> labels = new ArrayList<>();
 
             Label packageLabel = ResultsUtils.createPackageLabel(
-                    meta.getSingleValueOrDefault("package", testParentsById.get(node.getParentId().toString()).getParentName()));
+                    meta.getSingleValueOrDefault("package", testParentsById.get(node.getParentExternalId()).getParentName()));
             labels.add(packageLabel);
 
             Label severityLabel = ResultsUtils.createSeverityLabel(meta.getSingleValueOrDefault("severity", SeverityLevel.NORMAL.value()));
@@ -211,7 +219,7 @@ public class CucumberAllureTransformer {
             labels.add(epicLabel);
         }
         Label featureLabel = ResultsUtils.createFeatureLabel(
-                meta.getSingleValueOrDefault("feature", testParentsById.get(node.getParentId().toString()).getParentName()));
+                meta.getSingleValueOrDefault("feature", testParentsById.get(node.getParentExternalId()).getParentName()));
         labels.add(featureLabel);
         if (!meta.getSingleValueOrEmpty("story").isEmpty()) {
             Label storyLabel = ResultsUtils.createStoryLabel(meta.getSingleValueOrEmpty("story"));
@@ -227,7 +235,7 @@ public class CucumberAllureTransformer {
             labels.add(parentSuiteLabel);
         }
         Label suiteLabel = ResultsUtils.createSuiteLabel(
-                meta.getSingleValueOrDefault("suite", testParentsById.get(node.getParentId().toString()).getParentName()));
+                meta.getSingleValueOrDefault("suite", testParentsById.get(node.getParentExternalId()).getParentName()));
         labels.add(suiteLabel);
         if (!meta.getSingleValueOrEmpty("subSuite").isEmpty()) {
             Label subSuiteLabel = ResultsUtils.createSubSuiteLabel(meta.getSingleValueOrDefault("subSuite", node.getName()));
@@ -236,83 +244,83 @@ public class CucumberAllureTransformer {
         return labels;
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void targetNodeStarted(SprimberEventPublisher.TargetNodeStartedEvent startedEvent) {
-        startStep(startedEvent.getNode());
-        lifecycle.updateStep(startedEvent.getNode().getParentId().toString(),
-                stepResult -> stepResult.setName(startedEvent.getNode().getName()));
+    @Override
+    public void targetNodeStarted(Node node) {
+        startStep(node);
+        lifecycle.updateStep(node.getParentExternalId(),
+                stepResult -> stepResult.setName(node.getName()));
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void targetNodeCompleted(SprimberEventPublisher.TargetNodeCompletedEvent completedEvent) {
-        completeStep(completedEvent.getNode());
+    @Override
+    public void targetNodeCompleted(Node node) {
+        completeStep(node);
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void targetNodeError(SprimberEventPublisher.TargetNodeErrorEvent errorEvent) {
-        Optional<StatusDetails> statusDetails = ResultsUtils.getStatusDetails(errorEvent.getNode().getThrowable().get());
-        lifecycle.updateStep(errorEvent.getNode().getRuntimeId().toString(),
+    @Override
+    public void targetNodeError(Node node) {
+        Optional<StatusDetails> statusDetails = ResultsUtils.getStatusDetails(node.getThrowable().get());
+        lifecycle.updateStep(node.getExternalId(),
                 stepResult -> {
-                    stepResult.setStatus(errorEvent.getNode().getThrowable().map(this::mapThrowable).orElse(Status.BROKEN));
-                    errorEvent.getNode().getThrowable().ifPresent(this::attachExceptionMessage);
+                    stepResult.setStatus(node.getThrowable().map(this::mapThrowable).orElse(Status.BROKEN));
+                    node.getThrowable().ifPresent(this::attachExceptionMessage);
                     statusDetails.ifPresent(stepResult::setStatusDetails);
                 });
         lifecycle.updateTestCase(testResult -> statusDetails.ifPresent(testResult::setStatusDetails));
-        lifecycle.stopStep(errorEvent.getNode().getRuntimeId().toString());
+        lifecycle.stopStep(node.getExternalId());
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void beforeNodeStarted(SprimberEventPublisher.BeforeNodeStartedEvent startedEvent) {
-        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(startedEvent.getNode().getParentId().toString()).getParentType())) {
+    @Override
+    public void beforeNodeStarted(Node node) {
+        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(node.getParentExternalId()).getParentType())) {
             FixtureResult fixtureResult = new FixtureResult();
-            fixtureResult.setName(startedEvent.getNode().getName());
-            fixtureResult.setParameters(convertStepParameters(startedEvent.getNode().getMethodParameters()));
-            lifecycle.startPrepareFixture(TEST_CONTAINER_PREFIX_NAME + startedEvent.getNode().getParentId(),
-                    startedEvent.getNode().getRuntimeId().toString(), fixtureResult);
+            fixtureResult.setName(node.getName());
+            fixtureResult.setParameters(convertStepParameters(node.getMethodParameters()));
+            lifecycle.startPrepareFixture(TEST_CONTAINER_PREFIX_NAME + node.getParentExternalId(),
+                    node.getExternalId(), fixtureResult);
         } else {
-            startStep(startedEvent.getNode());
+            startStep(node);
         }
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void beforeNodeCompleted(SprimberEventPublisher.BeforeNodeCompletedEvent completedEvent) {
-        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(completedEvent.getNode().getParentId().toString()).getParentType())) {
-            updateAndStopNonExceptionFixture(completedEvent.getNode());
-            lifecycle.setCurrentTestCase(completedEvent.getNode().getParentId().toString());
+    @Override
+    public void beforeNodeCompleted(Node node) {
+        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(node.getParentExternalId()).getParentType())) {
+            updateAndStopNonExceptionFixture(node);
+            lifecycle.setCurrentTestCase(node.getParentExternalId());
         } else {
-            completeStep(completedEvent.getNode());
+            completeStep(node);
         }
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void beforeNodeError(SprimberEventPublisher.BeforeNodeErrorEvent errorEvent) {
-        stopStepWithError(errorEvent.getNode());
+    @Override
+    public void beforeNodeError(Node node) {
+        stopStepWithError(node);
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void afterNodeStarted(SprimberEventPublisher.AfterNodeStartedEvent startedEvent) {
-        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(startedEvent.getNode().getParentId().toString()).getParentType())) {
+    @Override
+    public void afterNodeStarted(Node node) {
+        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(node.getParentExternalId()).getParentType())) {
             FixtureResult fixtureResult = new FixtureResult();
-            fixtureResult.setName(startedEvent.getNode().getName());
-            fixtureResult.setParameters(convertStepParameters(startedEvent.getNode().getMethodParameters()));
-            lifecycle.startTearDownFixture(TEST_CONTAINER_PREFIX_NAME + startedEvent.getNode().getParentId(),
-                    startedEvent.getNode().getRuntimeId().toString(), fixtureResult);
+            fixtureResult.setName(node.getName());
+            fixtureResult.setParameters(convertStepParameters(node.getMethodParameters()));
+            lifecycle.startTearDownFixture(TEST_CONTAINER_PREFIX_NAME + node.getParentExternalId(),
+                    node.getExternalId(), fixtureResult);
         } else {
-            startStep(startedEvent.getNode());
+            startStep(node);
         }
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void afterNodeCompleted(SprimberEventPublisher.AfterNodeCompletedEvent completedEvent) {
-        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(completedEvent.getNode().getParentId().toString()).getParentType())) {
-            updateAndStopNonExceptionFixture(completedEvent.getNode());
+    @Override
+    public void afterNodeCompleted(Node node) {
+        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(node.getParentExternalId()).getParentType())) {
+            updateAndStopNonExceptionFixture(node);
         } else {
-            completeStep(completedEvent.getNode());
+            completeStep(node);
         }
     }
 
     private void updateAndStopNonExceptionFixture(Node node) {
-        lifecycle.updateFixture(node.getRuntimeId().toString(),
+        lifecycle.updateFixture(node.getExternalId(),
                 fixtureResult -> {
                     if (node.isCompletedSuccessfully()) {
                         fixtureResult.setStatus(Status.PASSED);
@@ -321,19 +329,19 @@ public class CucumberAllureTransformer {
                         fixtureResult.setStatus(Status.SKIPPED);
                     }
                 });
-        lifecycle.stopFixture(node.getRuntimeId().toString());
+        lifecycle.stopFixture(node.getExternalId());
     }
 
-    @EventListener(condition = "#root.event.node.adapterName == T(com.griddynamics.qa.sprimber.discovery.CucumberAdapterConstants).ADAPTER_NAME")
-    public void afterNodeError(SprimberEventPublisher.AfterNodeErrorEvent errorEvent) {
-        stopStepWithError(errorEvent.getNode());
+    @Override
+    public void afterNodeError(Node node) {
+        stopStepWithError(node);
     }
 
     private void startStep(Node node) {
         StepResult stepResult = new StepResult();
         stepResult.setName(node.getName());
         stepResult.setParameters(convertStepParameters(node.getMethodParameters()));
-        lifecycle.startStep(node.getParentId().toString(), node.getRuntimeId().toString(), stepResult);
+        lifecycle.startStep(node.getParentExternalId(), node.getExternalId(), stepResult);
         StringBuilder dataTableCsv = new StringBuilder();
         node.attributesStream()
                 .filter(entry -> !entry.getKey().equals(STEP_DATA_ATTRIBUTE))
@@ -345,7 +353,7 @@ public class CucumberAllureTransformer {
     }
 
     private void completeStep(Node node) {
-        lifecycle.updateStep(node.getRuntimeId().toString(),
+        lifecycle.updateStep(node.getExternalId(),
                 stepResult -> {
                     if (node.isCompletedSuccessfully()) {
                         stepResult.setStatus(Status.PASSED);
@@ -355,26 +363,26 @@ public class CucumberAllureTransformer {
                     }
                 }
         );
-        lifecycle.stopStep(node.getRuntimeId().toString());
+        lifecycle.stopStep(node.getExternalId());
     }
 
     private void stopStepWithError(Node node) {
-        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(node.getParentId().toString()).getParentType())) {
+        if (CUCUMBER_SCENARIO_ROLE.equals(testParentsById.get(node.getParentExternalId()).getParentType())) {
             Optional<StatusDetails> statusDetails = ResultsUtils.getStatusDetails(node.getThrowable().get());
-            lifecycle.updateFixture(node.getRuntimeId().toString(), fixtureResult -> {
+            lifecycle.updateFixture(node.getExternalId(), fixtureResult -> {
                 fixtureResult.setStatus(node.getThrowable().map(this::mapThrowable).orElse(Status.BROKEN));
                 statusDetails.ifPresent(fixtureResult::setStatusDetails);
             });
-            lifecycle.stopFixture(node.getRuntimeId().toString());
-            lifecycle.setCurrentTestCase(node.getParentId().toString());
+            lifecycle.stopFixture(node.getExternalId());
+            lifecycle.setCurrentTestCase(node.getParentExternalId());
         } else {
             Optional<StatusDetails> statusDetails = ResultsUtils.getStatusDetails(node.getThrowable().get());
-            lifecycle.updateStep(node.getRuntimeId().toString(),
+            lifecycle.updateStep(node.getExternalId(),
                     stepResult -> {
                         stepResult.setStatus(node.getThrowable().map(this::mapThrowable).orElse(Status.BROKEN));
                         statusDetails.ifPresent(stepResult::setStatusDetails);
                     });
-            lifecycle.stopStep(node.getRuntimeId().toString());
+            lifecycle.stopStep(node.getExternalId());
         }
     }
 
@@ -50,6 +50,11 @@ public class CucumberScenarioSummaryPrinter extends TestSummaryPrinter {
         testRoles.add(CUCUMBER_STEP_CONTAINER_ROLE);
     }
 
+    @Override
+    public String getAdapterName() {
+        return ADAPTER_NAME;
+    }
+
     @Override
     boolean isNodeOfRoleTest(Node node) {
         return CUCUMBER_SCENARIO_ROLE.equals(node.getRole());
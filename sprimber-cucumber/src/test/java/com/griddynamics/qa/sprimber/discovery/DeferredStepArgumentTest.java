@@ -0,0 +1,77 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import io.cucumber.datatable.DataTable;
+import io.cucumber.datatable.DataTableTypeRegistryTableConverter;
+import io.cucumber.stepexpression.Argument;
+import io.cucumber.stepexpression.TypeRegistry;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class DeferredStepArgumentTest {
+
+    private final TypeRegistry typeRegistry = new TypeRegistry(Locale.ENGLISH);
+    private final AtomicInteger conversions = new AtomicInteger();
+
+    @Test
+    public void argumentConvertedOnEveryInvocationOnly() throws Exception {
+        Type listOfLongs = DeferredStepArgumentTest.class.getDeclaredMethod("step", List.class).getGenericParameterTypes()[0];
+        Argument tableArgument = () -> {
+            conversions.incrementAndGet();
+            return DataTable.create(Arrays.asList(Collections.singletonList("1"), Collections.singletonList("2")),
+                    new DataTableTypeRegistryTableConverter(typeRegistry.dataTableTypeRegistry()));
+        };
+        Node node = Node.createRootNode("step", "cucumber", null);
+        Node step = node.addTarget(new Node.Builder()
+                .withRole("step")
+                .withParameters(Collections.singletonMap("table", new DeferredStepArgument(tableArgument, listOfLongs))));
+
+        assertThat(conversions).hasValue(0);
+        Object[] firstArguments = step.getMethodArguments();
+        Object[] secondArguments = step.getMethodArguments();
+
+        assertThat(firstArguments).containsExactly(Arrays.asList(1L, 2L));
+        assertThat(secondArguments).isNotSameAs(firstArguments).containsExactly(Arrays.asList(1L, 2L));
+        assertThat(conversions).hasValue(2);
+        assertThat(step.getMethodParameters().get("table")).isInstanceOf(DeferredStepArgument.class);
+    }
+
+    private void step(List<Long> values) {
+    }
+}
@@ -0,0 +1,152 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethodRegistry;
+import gherkin.AstBuilder;
+import gherkin.Parser;
+import gherkin.TokenMatcher;
+import gherkin.ast.GherkinDocument;
+import gherkin.pickles.Compiler;
+import gherkin.pickles.Pickle;
+import gherkin.pickles.PickleStep;
+import gherkin.pickles.PickleTable;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class FeatureSnapshotStoreTest {
+
+    private static final String FEATURE = "@smoke\n" +
+            "Feature: Login\n" +
+            "  Scenario: Login as admin\n" +
+            "    Given the user is logged in as admin\n" +
+            "    Then the user sees\n" +
+            "      | dashboard |\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final SprimberProperties sprimberProperties = new SprimberProperties();
+    private final TestMethodRegistry testMethodRegistry = new TestMethodRegistry();
+    private final TestMethod testMethod = new TestMethod("given", "Given", "the user is logged in as {word}",
+            ReflectionUtils.findMethod(FeatureSnapshotStoreTest.class, "restoreDocumentAndBindings"));
+    private StepResolutionCache stepResolutionCache;
+    private URL featureUrl;
+
+    @Before
+    public void setUp() throws IOException {
+        sprimberProperties.getDiscovery().getSnapshot().setEnable(true);
+        sprimberProperties.getDiscovery().getSnapshot().setDirectory(temporaryFolder.newFolder().getPath());
+        testMethodRegistry.registerTestMethod(testMethod, TestMethod.IdBuilder.calculateUniqueId(testMethod));
+        featureUrl = new File(temporaryFolder.getRoot(), "login.feature").toURI().toURL();
+        stepResolutionCache = new StepResolutionCache();
+    }
+
+    @Test
+    public void restoreDocumentAndBindings() {
+        CucumberSuiteDiscovery.CucumberDocument cucumberDocument = parse(FEATURE);
+        stepResolutionCache.put(cucumberDocument.getPickles().get(0).getSteps().get(0), testMethod, null);
+        newStore().save(cucumberDocument, FEATURE.getBytes(StandardCharsets.UTF_8));
+
+        StepResolutionCache freshStepResolutionCache = new StepResolutionCache();
+        FeatureSnapshotStore featureSnapshotStore = new FeatureSnapshotStore(sprimberProperties, testMethodRegistry, freshStepResolutionCache);
+        CucumberSuiteDiscovery.CucumberDocument restoredDocument =
+                featureSnapshotStore.load(featureUrl, FEATURE.getBytes(StandardCharsets.UTF_8)).get();
+
+        assertThat(restoredDocument.getUrl()).isEqualTo(featureUrl);
+        assertThat(restoredDocument.getDocument().getFeature().getName()).isEqualTo("Login");
+        assertThat(restoredDocument.getDocument().getFeature().getTags()).extracting("name").containsExactly("@smoke");
+        Pickle pickle = restoredDocument.getPickles().get(0);
+        assertThat(pickle.getName()).isEqualTo("Login as admin");
+        assertThat(pickle.getTags()).extracting("name").containsExactly("@smoke");
+        assertThat(pickle.getSteps()).extracting("text").containsExactly("the user is logged in as admin", "the user sees");
+        List<PickleStep> steps = pickle.getSteps();
+        assertThat(((PickleTable) steps.get(1).getArgument().get(0)).getRows().get(0).getCells().get(0).getValue()).isEqualTo("dashboard");
+        assertThat(freshStepResolutionCache.peek(steps.get(0))).contains(testMethod);
+        assertThat(freshStepResolutionCache.peek(steps.get(1))).isEmpty();
+        assertThat(featureSnapshotStore.getStatistic().cacheHitCount(FeatureSnapshotStore.CACHE_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    public void ignoreStaleAndCorruptSnapshots() throws IOException {
+        FeatureSnapshotStore featureSnapshotStore = newStore();
+        featureSnapshotStore.save(parse(FEATURE), FEATURE.getBytes(StandardCharsets.UTF_8));
+
+        String changedFeature = FEATURE.replace("admin", "guest");
+        assertThat(featureSnapshotStore.load(featureUrl, changedFeature.getBytes(StandardCharsets.UTF_8))).isEmpty();
+
+        try (Stream<Path> snapshots = Files.list(
+                new File(sprimberProperties.getDiscovery().getSnapshot().getDirectory()).toPath())) {
+            Path snapshot = snapshots.findFirst().get();
+            byte[] content = Files.readAllBytes(snapshot);
+            Files.write(snapshot, Arrays.copyOf(content, content.length / 2));
+        }
+        assertThat(featureSnapshotStore.load(featureUrl, FEATURE.getBytes(StandardCharsets.UTF_8))).isEmpty();
+        assertThat(featureSnapshotStore.getStatistic().cacheMissCount(FeatureSnapshotStore.CACHE_NAME)).isEqualTo(2);
+    }
+
+    @Test
+    public void eagerSnapshotIgnoredInLazyOutlinesMode() {
+        newStore().save(parse(FEATURE), FEATURE.getBytes(StandardCharsets.UTF_8));
+        sprimberProperties.getDiscovery().getLazyOutlines().setEnable(true);
+
+        assertThat(newStore().load(featureUrl, FEATURE.getBytes(StandardCharsets.UTF_8))).isEmpty();
+    }
+
+    private FeatureSnapshotStore newStore() {
+        return new FeatureSnapshotStore(sprimberProperties, testMethodRegistry, stepResolutionCache);
+    }
+
+    private CucumberSuiteDiscovery.CucumberDocument parse(String feature) {
+        GherkinDocument document = new Parser<>(new AstBuilder()).parse(new StringReader(feature), new TokenMatcher());
+        CucumberSuiteDiscovery.CucumberDocument cucumberDocument = new CucumberSuiteDiscovery.CucumberDocument();
+        cucumberDocument.setDocument(document);
+        cucumberDocument.setPickles(new Compiler().compile(document));
+        cucumberDocument.setUrl(featureUrl);
+        return cucumberDocument;
+    }
+}
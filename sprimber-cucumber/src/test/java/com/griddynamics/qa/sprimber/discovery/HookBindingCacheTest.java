@@ -0,0 +1,73 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class HookBindingCacheTest {
+
+    private final HookBindingCache hookBindingCache = new HookBindingCache();
+    private final AtomicInteger resolutions = new AtomicInteger();
+    private final Node.Definition hook = new Node.Builder().withRole("beforeStep").withName("beforeStep").build();
+    private final Function<TagSet, List<Node.Definition>> resolver = tags -> {
+        resolutions.incrementAndGet();
+        return Collections.singletonList(hook);
+    };
+
+    @Test
+    public void resolveOncePerStyleAndTagSet() {
+        List<Node.Definition> hooks = hookBindingCache.getOrResolve("beforeStep", TagSet.of(Arrays.asList("@smoke", "@login")), resolver);
+        List<Node.Definition> reorderedTagsHooks = hookBindingCache.getOrResolve("beforeStep", TagSet.of(Arrays.asList("@login", "@smoke", "@login")), resolver);
+
+        assertThat(hooks).containsExactly(hook);
+        assertThat(reorderedTagsHooks).isSameAs(hooks);
+        assertThat(resolutions.get()).isEqualTo(1);
+        assertThat(hookBindingCache.getStatistic().cacheHitCount(HookBindingCache.CACHE_NAME)).isEqualTo(1);
+        assertThat(hookBindingCache.getStatistic().cacheMissCount(HookBindingCache.CACHE_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    public void resolveAgainForAnotherStyleOrTagSet() {
+        hookBindingCache.getOrResolve("beforeStep", TagSet.of(Collections.singletonList("@smoke")), resolver);
+        hookBindingCache.getOrResolve("afterStep", TagSet.of(Collections.singletonList("@smoke")), resolver);
+        hookBindingCache.getOrResolve("beforeStep", TagSet.EMPTY, resolver);
+
+        assertThat(resolutions.get()).isEqualTo(3);
+        assertThat(hookBindingCache.getStatistic().cacheHitCount(HookBindingCache.CACHE_NAME)).isZero();
+    }
+}
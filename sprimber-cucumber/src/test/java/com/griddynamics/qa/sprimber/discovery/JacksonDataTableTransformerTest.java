@@ -0,0 +1,99 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author fparamonov
+ */
+
+public class JacksonDataTableTransformerTest {
+
+    private static final List<Type> CELL_TYPES = Arrays.asList(String.class, Object.class, CharSequence.class,
+            Integer.class, int.class, Long.class, long.class, Double.class, double.class, BigDecimal.class,
+            Boolean.class, boolean.class);
+    private static final List<String> CELL_VALUES = Arrays.asList("42", "-7", "+3", " 5 ", "1.5", "1e3", "", "null",
+            "true", "false", "TRUE", "True", "NaN", "9223372036854775807", "2147483648");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JacksonDataTableTransformer transformer = new JacksonDataTableTransformer(objectMapper);
+
+    @Test
+    public void cellsConvertedAsByObjectMapper() throws Throwable {
+        for (Type cellType : CELL_TYPES) {
+            JavaType javaType = objectMapper.getTypeFactory().constructType(cellType);
+            for (String cellValue : CELL_VALUES) {
+                Object expected;
+                try {
+                    expected = objectMapper.convertValue(cellValue, javaType);
+                } catch (IllegalArgumentException e) {
+                    assertThatThrownBy(() -> transformer.transform(cellValue, cellType))
+                            .as("'%s' to %s", cellValue, cellType)
+                            .isInstanceOf(IllegalArgumentException.class);
+                    continue;
+                }
+                assertThat(transformer.transform(cellValue, cellType)).as("'%s' to %s", cellValue, cellType).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void largeTableEntriesConvertedAsByObjectMapper() throws Throwable {
+        JavaType javaType = objectMapper.getTypeFactory().constructType(Order.class);
+        for (int row = 0; row < 10_000; row++) {
+            Map<String, String> entry = new LinkedHashMap<>();
+            entry.put("id", String.valueOf(row));
+            entry.put("customer", "customer " + row);
+            entry.put("amount", row + ".25");
+            entry.put("paid", String.valueOf(row % 2 == 0));
+            entry.put("comment", row % 3 == 0 ? null : "comment " + row);
+
+            Object actual = transformer.transform(entry, Order.class, null);
+
+            assertThat(actual).isEqualTo(objectMapper.convertValue(entry, javaType));
+        }
+    }
+
+    @Data
+    static class Order {
+
+        private long id;
+        private String customer;
+        private BigDecimal amount;
+        private boolean paid;
+        private String comment;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
+import com.griddynamics.qa.sprimber.engine.Node;
+import com.griddynamics.qa.sprimber.stepdefinition.CucumberStepDefinitionConfiguration;
+import com.griddynamics.qa.sprimber.stepdefinition.StepDefinitionSrpingConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class ParallelDiscoveryTest {
+
+    private static final int FEATURES = 12;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test(timeout = 60_000)
+    public void featuresDiscoveredInResourceOrderWhileContextStarts() throws IOException {
+        Path featuresFolder = temporaryFolder.newFolder("ordering").toPath();
+        for (int feature = 1; feature <= FEATURES; feature++) {
+            // the first feature is the largest one, so it's discovered last when the order isn't kept
+            writeFeature(featuresFolder, feature, feature == 1 ? 300 : (feature % 4) * 20);
+        }
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(SprimberCucumberConfiguration.class,
+                        StepDefinitionSrpingConfiguration.class,
+                        CucumberStepDefinitionConfiguration.class))
+                .withUserConfiguration(StartupDiscoveryConfiguration.class)
+                .withPropertyValues("sprimber.configuration.feature-path=" + featuresFolder.toUri() + "*.feature",
+                        "sprimber.configuration.discovery.parallel.enable=true",
+                        "sprimber.configuration.discovery.parallel.parallelism=4");
+
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            List<Node> testCases = context.getBean(StartupDiscovery.class).suiteNode.getChildren();
+
+            assertThat(testCases.stream().map(Node::getName).collect(Collectors.toList()))
+                    .containsExactlyElementsOf(IntStream.rangeClosed(1, FEATURES)
+                            .mapToObj(ParallelDiscoveryTest::featureName)
+                            .collect(Collectors.toList()));
+            assertThat(testCases.get(0).getChildren()).hasSize(300);
+        });
+    }
+
+    private static void writeFeature(Path featuresFolder, int feature, int scenarios) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("Feature: " + featureName(feature));
+        for (int scenario = 0; scenario < scenarios; scenario++) {
+            lines.add("");
+            lines.add(String.format("  Scenario: Scenario %d of feature %02d", scenario, feature));
+        }
+        Files.write(featuresFolder.resolve(String.format("feature-%02d.feature", feature)), lines, StandardCharsets.UTF_8);
+    }
+
+    private static String featureName(int feature) {
+        return String.format("Ordered feature %02d", feature);
+    }
+
+    static class StartupDiscovery {
+
+        private final Node suiteNode;
+
+        StartupDiscovery(Node suiteNode) {
+            this.suiteNode = suiteNode;
+        }
+    }
+
+    /**
+     * Discovers the suite from the bean factory method, so the discovery runs while the singleton lock is held
+     */
+    @TestConfiguration
+    @EnableConfigurationProperties(SprimberProperties.class)
+    static class StartupDiscoveryConfiguration {
+
+        @Bean
+        public StartupDiscovery startupDiscovery(CucumberSuiteDiscovery cucumberSuiteDiscovery) {
+            return new StartupDiscovery(cucumberSuiteDiscovery.discover());
+        }
+    }
+}
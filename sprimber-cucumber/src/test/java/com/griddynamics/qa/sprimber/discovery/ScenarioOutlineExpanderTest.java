@@ -0,0 +1,148 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import gherkin.AstBuilder;
+import gherkin.Parser;
+import gherkin.TokenMatcher;
+import gherkin.ast.Examples;
+import gherkin.ast.GherkinDocument;
+import gherkin.ast.ScenarioOutline;
+import gherkin.pickles.Compiler;
+import gherkin.pickles.Pickle;
+import gherkin.pickles.PickleStep;
+import gherkin.pickles.PickleTag;
+import gherkin.ast.TableRow;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author fparamonov
+ */
+
+public class ScenarioOutlineExpanderTest {
+
+    private static final String FEATURE = "@smoke\n" +
+            "Feature: Login\n" +
+            "  Background:\n" +
+            "    Given the application is started\n" +
+            "  Scenario: Login as admin\n" +
+            "    Given the user is logged in as admin\n" +
+            "  @outline\n" +
+            "  Scenario Outline: Login as <role>\n" +
+            "    Given the user is logged in as <role>\n" +
+            "    @first\n" +
+            "    Examples:\n" +
+            "      | role  |\n" +
+            "      | user  |\n" +
+            "      | guest |\n" +
+            "    @second\n" +
+            "    Examples:\n" +
+            "      | role    |\n" +
+            "      | auditor |\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Compiler compiler = new Compiler();
+    private final CucumberTestBinder cucumberTestBinder = mock(CucumberTestBinder.class);
+    private final ScenarioOutlineExpander expander = new ScenarioOutlineExpander(compiler, cucumberTestBinder);
+    private final GherkinDocument document = new Parser<>(new AstBuilder()).parse(new StringReader(FEATURE), new TokenMatcher());
+
+    @Test
+    public void rowsCompiledTheSameWayAsWholeDocument() {
+        List<Pickle> expected = compiler.compile(document);
+        ScenarioOutline outline = (ScenarioOutline) document.getFeature().getChildren().get(2);
+
+        List<Pickle> actual = new ArrayList<>(expander.compileWithoutOutlines(document));
+        outline.getExamples().forEach(examples -> examples.getTableBody()
+                .forEach(row -> actual.add(expander.compileRow(document, outline, examples, row))));
+
+        assertThat(ScenarioOutlineExpander.hasOutlines(document)).isTrue();
+        assertThat(actual).extracting(this::describe).containsExactlyElementsOf(expected.stream()
+                .map(this::describe)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void rowsBoundOnlyOnceRequested() {
+        ScenarioOutline outline = (ScenarioOutline) document.getFeature().getChildren().get(2);
+        Examples examples = outline.getExamples().get(0);
+        Node testNode = mock(Node.class);
+        when(cucumberTestBinder.buildTestNode(any(), any(), any())).thenReturn(testNode);
+        Function<Node.Builder, Node> testNodeFactory = builder -> testNode;
+        CucumberSuiteDiscovery.CucumberDocument cucumberDocument = new CucumberSuiteDiscovery.CucumberDocument();
+        cucumberDocument.setDocument(document);
+
+        Iterator<Node> scenarios = expander.expand(testNodeFactory, outline, examples, cucumberDocument);
+        verifyZeroInteractions(cucumberTestBinder);
+
+        assertThat(scenarios.next()).isSameAs(testNode);
+        verify(cucumberTestBinder, times(1)).buildTestNode(any(), any(), any());
+        assertThat(scenarios.next()).isSameAs(testNode);
+        assertThat(scenarios.hasNext()).isFalse();
+    }
+
+    @Test
+    public void dataSourceRowsPickedByHeader() throws IOException {
+        ScenarioOutline outline = (ScenarioOutline) document.getFeature().getChildren().get(2);
+        Examples examples = outline.getExamples().get(1);
+        Path csv = temporaryFolder.getRoot().toPath().resolve("roles.csv");
+        Files.write(csv, "id,role\n1,viewer\n2,editor\n3,owner\n".getBytes(StandardCharsets.UTF_8));
+
+        Iterator<TableRow> rows = expander.readRows(examples, DataSource.open(csv), 1, 3);
+        List<Pickle> pickles = new ArrayList<>();
+        rows.forEachRemaining(row -> pickles.add(expander.compileRow(document, outline, examples, row)));
+
+        assertThat(pickles).extracting(this::describe).containsExactly(
+                "Login as editor[17:2, 8:3][@smoke, @outline, @second][the application is started, the user is logged in as editor]",
+                "Login as owner[17:3, 8:3][@smoke, @outline, @second][the application is started, the user is logged in as owner]");
+    }
+
+    private String describe(Pickle pickle) {
+        return pickle.getName() + pickle.getLocations().stream()
+                .map(location -> location.getLine() + ":" + location.getColumn())
+                .collect(Collectors.toList()) +
+                pickle.getTags().stream().map(PickleTag::getName).collect(Collectors.toList()) +
+                pickle.getSteps().stream().map(PickleStep::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.engine.StepDataArena;
+import gherkin.pickles.PickleCell;
+import gherkin.pickles.PickleLocation;
+import gherkin.pickles.PickleRow;
+import io.cucumber.datatable.DataTable;
+import io.cucumber.stepexpression.TypeRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class SpilledStepArgumentTest {
+
+    private static final PickleLocation LOCATION = new PickleLocation(1, 1);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StepDataArena stepDataArena;
+
+    @Before
+    public void setUp() {
+        stepDataArena = new StepDataArena(temporaryFolder.getRoot().toPath(), 1024);
+    }
+
+    @After
+    public void tearDown() {
+        stepDataArena.close();
+    }
+
+    @Test
+    public void tableRestoredFromArena() {
+        List<PickleRow> rows = Arrays.asList(row("name", "comment"), row("admin", "multi\nline\tcell"), row("guest", ""));
+        CharSequence encodedRows = stepDataArena.store(SpilledStepArgument.encodeRows(rows));
+
+        Object table = SpilledStepArgument.ofTable(encodedRows, DataTable.class, new TypeRegistry(Locale.ENGLISH)).resolve();
+
+        assertThat(encodedRows).isInstanceOf(StepDataArena.Text.class);
+        assertThat(((DataTable) table).cells()).containsExactly(
+                Arrays.asList("name", "comment"), Arrays.asList("admin", "multi\nline\tcell"), Arrays.asList("guest", ""));
+    }
+
+    @Test
+    public void tableTextDerivedFromStoredRows() {
+        List<PickleRow> rows = Arrays.asList(row("name", "role"), row("admin", "owner"));
+        CharSequence encodedRows = stepDataArena.store(SpilledStepArgument.encodeRows(rows));
+
+        assertThat(String.valueOf(SpilledStepArgument.tableText(encodedRows))).isEqualTo("name\trole\nadmin\towner\n");
+    }
+
+    @Test
+    public void docStringPassedAsViewToCharSequence() {
+        CharSequence content = stepDataArena.store("{\"payload\": true}");
+
+        assertThat(SpilledStepArgument.ofDocString(content, CharSequence.class).resolve()).isSameAs(content);
+        assertThat(SpilledStepArgument.ofDocString(content, String.class).resolve()).isEqualTo("{\"payload\": true}");
+    }
+
+    private PickleRow row(String... cells) {
+        return new PickleRow(Arrays.stream(cells)
+                .map(cell -> new PickleCell(LOCATION, cell))
+                .collect(Collectors.toList()));
+    }
+}
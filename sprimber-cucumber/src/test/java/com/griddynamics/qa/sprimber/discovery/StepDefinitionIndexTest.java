@@ -0,0 +1,73 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethodRegistry;
+import org.junit.Test;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class StepDefinitionIndexTest {
+
+    private final Method method = ReflectionUtils.findMethod(StepDefinitionIndexTest.class, "literalPrefix");
+
+    @Test
+    public void literalPrefix() {
+        assertThat(StepDefinitionIndex.literalPrefixOf("I have {int} cukes")).isEqualTo("I have");
+        assertThat(StepDefinitionIndex.literalPrefixOf("I have a cuke(s)")).isEqualTo("I have a cuke");
+        assertThat(StepDefinitionIndex.literalPrefixOf("I eat cucumber/gherkin")).isEqualTo("I eat ");
+        assertThat(StepDefinitionIndex.literalPrefixOf("^I have (\\d+) cukes$")).isEqualTo("I have ");
+        assertThat(StepDefinitionIndex.literalPrefixOf("^I have cukes?$")).isEqualTo("I have cuke");
+        assertThat(StepDefinitionIndex.literalPrefixOf("^I have|You have cukes$")).isEmpty();
+        assertThat(StepDefinitionIndex.literalPrefixOf("/^I have cukes$/")).isEmpty();
+        assertThat(StepDefinitionIndex.literalPrefixOf("{string} is ready")).isEmpty();
+    }
+
+    @Test
+    public void candidatesInRegistryOrder() {
+        TestMethodRegistry testMethodRegistry = new TestMethodRegistry();
+        TestMethod havePrefix = new TestMethod("have", "Given", "I have {int} cukes", method);
+        TestMethod anyPrefix = new TestMethod("any", "Given", "{string} is ready", method);
+        TestMethod eatPrefix = new TestMethod("eat", "When", "I eat {int} cukes", method);
+        TestMethod hook = new TestMethod("hook", "Before", "", method);
+        testMethodRegistry.registerTestMethod(havePrefix, "1");
+        testMethodRegistry.registerTestMethod(anyPrefix, "2");
+        testMethodRegistry.registerTestMethod(eatPrefix, "3");
+        testMethodRegistry.registerTestMethod(hook, "4");
+        StepDefinitionIndex stepDefinitionIndex = new StepDefinitionIndex(testMethodRegistry);
+
+        assertThat(stepDefinitionIndex.findCandidates("I have 5 cukes")).containsExactly(havePrefix, anyPrefix);
+        assertThat(stepDefinitionIndex.findCandidates("I eat 5 cukes")).containsExactly(anyPrefix, eatPrefix);
+        assertThat(stepDefinitionIndex.findCandidates("\"cuke\" is ready")).containsExactly(anyPrefix);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.griddynamics.qa.sprimber.stepdefinition.TestMethod;
+import gherkin.pickles.*;
+import io.cucumber.stepexpression.Argument;
+import org.junit.Test;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class StepResolutionCacheTest {
+
+    private final StepResolutionCache stepResolutionCache = new StepResolutionCache();
+    private final TestMethod testMethod = new TestMethod("given", "Given", "the user is logged in as {word}",
+            ReflectionUtils.findMethod(StepResolutionCacheTest.class, "reuseArgumentsForPlainStep"));
+    private final List<Argument> arguments = Collections.singletonList(() -> "admin");
+
+    @Test
+    public void reuseArgumentsForPlainStep() {
+        assertThat(stepResolutionCache.get(plainStep())).isEmpty();
+        stepResolutionCache.put(plainStep(), testMethod, arguments);
+
+        StepResolutionCache.StepResolution stepResolution = stepResolutionCache.get(plainStep()).get();
+        assertThat(stepResolution.getTestMethod()).isSameAs(testMethod);
+        assertThat(stepResolution.getArguments()).contains(arguments);
+        assertThat(stepResolutionCache.getStatistic().cacheHitCount(StepResolutionCache.CACHE_NAME)).isEqualTo(1);
+        assertThat(stepResolutionCache.getStatistic().cacheMissCount(StepResolutionCache.CACHE_NAME)).isEqualTo(1);
+    }
+
+    @Test
+    public void resolveArgumentsAgainForStepWithTable() {
+        stepResolutionCache.put(plainStep(), testMethod, arguments);
+        assertThat(stepResolutionCache.get(stepWithTable())).isEmpty();
+
+        stepResolutionCache.put(stepWithTable(), testMethod, arguments);
+        StepResolutionCache.StepResolution stepResolution = stepResolutionCache.get(stepWithTable()).get();
+        assertThat(stepResolution.getTestMethod()).isSameAs(testMethod);
+        assertThat(stepResolution.getArguments()).isEmpty();
+    }
+
+    private PickleStep plainStep() {
+        return new PickleStep("the user is logged in as admin", Collections.emptyList(), Collections.emptyList());
+    }
+
+    private PickleStep stepWithTable() {
+        PickleTable pickleTable = new PickleTable(Collections.singletonList(
+                new PickleRow(Collections.singletonList(new PickleCell(new PickleLocation(1, 1), "admin")))));
+        return new PickleStep("the user is logged in as admin", Collections.singletonList(pickleTable), Collections.emptyList());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionException;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author fparamonov
+ */
+
+public class TagExpressionCompilerTest {
+
+    private static final List<String> EXPRESSIONS = Arrays.asList(
+            "",
+            "@smoke",
+            "not @wip",
+            "@smoke and @login",
+            "@smoke or @login and not @wip",
+            "(@smoke or @login) and not @wip",
+            "not (@smoke or @login) or @wip",
+            "not not @smoke and @login or @wip",
+            "@tag\\(with\\)parenthesis or @smoke");
+
+    private static final List<List<String>> TAG_SETS = Arrays.asList(
+            Collections.emptyList(),
+            Collections.singletonList("@smoke"),
+            Collections.singletonList("@wip"),
+            Arrays.asList("@smoke", "@login"),
+            Arrays.asList("@login", "@wip"),
+            Arrays.asList("@smoke", "@login", "@wip"),
+            Collections.singletonList("@tag(with)parenthesis"));
+
+    @Test
+    public void evaluateTheSameWayAsCucumber() {
+        for (String expressionAsString : EXPRESSIONS) {
+            Expression expression = new TagExpressionParser().parse(expressionAsString);
+            Predicate<TagSet> compiledExpression = TagExpressionCompiler.compile(expressionAsString);
+            for (List<String> tags : TAG_SETS) {
+                assertThat(compiledExpression.test(TagSet.of(tags)))
+                        .as("'%s' against %s", expressionAsString, tags)
+                        .isEqualTo(expression.evaluate(tags));
+            }
+        }
+    }
+
+    @Test
+    public void reportSyntaxErrorsAsCucumber() {
+        assertThatThrownBy(() -> TagExpressionCompiler.compile("(@smoke or @login"))
+                .isInstanceOf(TagExpressionException.class);
+    }
+}
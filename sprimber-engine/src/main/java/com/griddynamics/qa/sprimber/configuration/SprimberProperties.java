@@ -24,10 +24,13 @@ $Id:
 
 package com.griddynamics.qa.sprimber.configuration;
 
+import com.griddynamics.qa.sprimber.engine.TreeExecutorContext;
+import com.griddynamics.qa.sprimber.reporting.RingBufferEventsPublisher;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -40,4 +43,205 @@ public class SprimberProperties {
 
     private String featurePath;
     private List<String> tagFilters = new ArrayList<>();
+    private Execution execution = new Execution();
+    private Events events = new Events();
+    private Discovery discovery = new Discovery();
+
+    @Data
+    public static class Execution {
+
+        /**
+         * Strategy to execute the node tree: 'pool' - stages scheduled to the executors per role,
+         * 'async' - the same executors but stages chained without blocking on the children,
+         * 'fork-join' - stages forked to the single work-stealing pool
+         */
+        private String mode = "pool";
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Roles of the stages that may be executed in parallel by the 'fork-join' strategy
+         */
+        private List<String> parallelRoles = new ArrayList<>(Arrays.asList("testCase", "test"));
+        private VirtualThreads virtualThreads = new VirtualThreads();
+
+        /**
+         * What remains from the executed stages: 'full' - the whole node tree,
+         * 'compact' - only the result of each stage, that keeps the heap flat on the long runs
+         */
+        private TreeExecutorContext.Retention retention = TreeExecutorContext.Retention.FULL;
+    }
+
+    /**
+     * Applicable for the 'pool' execution strategy on the JDK with virtual threads,
+     * otherwise the regular thread pools used
+     */
+    @Data
+    public static class VirtualThreads {
+
+        /**
+         * Run each scenario on its own virtual thread
+         */
+        private boolean enable;
+
+        /**
+         * Run each feature on its own virtual thread as well
+         */
+        private boolean features;
+    }
+
+    @Data
+    public static class Events {
+
+        private Async async = new Async();
+    }
+
+    /**
+     * Delivery of the node events to the listeners that support it from the dedicated thread,
+     * the rest of the listeners still invoked from the test threads
+     */
+    @Data
+    public static class Async {
+
+        private boolean enable;
+
+        /**
+         * Amount of the events that may wait for the delivery, rounded up to the power of two
+         */
+        private int bufferSize = 8192;
+        private RingBufferEventsPublisher.WaitStrategy waitStrategy = RingBufferEventsPublisher.WaitStrategy.BLOCKING;
+        private RingBufferEventsPublisher.BackPressure backPressure = RingBufferEventsPublisher.BackPressure.BLOCK;
+    }
+
+    @Data
+    public static class Discovery {
+
+        private Streaming streaming = new Streaming();
+        private Parallel parallel = new Parallel();
+        private Snapshot snapshot = new Snapshot();
+        private StepIndex stepIndex = new StepIndex();
+        private DeferredArguments deferredArguments = new DeferredArguments();
+        private Arena arena = new Arena();
+        private LazyOutlines lazyOutlines = new LazyOutlines();
+        private DataSources dataSources = new DataSources();
+    }
+
+    /**
+     * Execute the suite while it is still being discovered instead of discovering the whole suite upfront,
+     * only the discoveries that support it stream the nodes, the rest discover the whole suite as usual
+     */
+    @Data
+    public static class Streaming {
+
+        private boolean enable;
+
+        /**
+         * Amount of the discovered test cases that may wait for the execution,
+         * the same amount of the test cases may execute at once
+         */
+        private int bufferSize = 16;
+    }
+
+    /**
+     * Parse the test sources and bind them to the step definitions on the several threads,
+     * the discovered nodes still added to the suite in the order of the sources.
+     * Only the discoveries that support it use the parallel mode
+     */
+    @Data
+    public static class Parallel {
+
+        private boolean enable;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Keep the parsed test sources and their step bindings on the disk, so the unchanged sources
+     * loaded from the snapshot on the next run instead of the parsing and binding from scratch.
+     * The snapshot of the source invalidated once the source or the step definitions changed.
+     * Only the discoveries that support it use the snapshots
+     */
+    @Data
+    public static class Snapshot {
+
+        private boolean enable;
+        private String directory = "target/sprimber/discovery-snapshots";
+    }
+
+    /**
+     * Take the step definition candidates from the index written by the sprimber-step-indexer annotation processor
+     * instead of scanning all step beans, the beans scanned anyway when there is no index on the classpath
+     */
+    @Data
+    public static class StepIndex {
+
+        private boolean enable = true;
+    }
+
+    /**
+     * Keep the data tables and doc strings of the steps in the raw form and convert them right before the step
+     * invocation instead of the discovery. The reports show the raw form of such arguments then
+     */
+    @Data
+    public static class DeferredArguments {
+
+        private boolean enable;
+    }
+
+    /**
+     * Move the large data tables and doc strings of the steps to the memory mapped files for the run.
+     * Such arguments converted right before the step invocation regardless of the deferred arguments mode
+     */
+    @Data
+    public static class Arena {
+
+        private boolean enable;
+
+        /**
+         * Size of the data table or doc string in chars starting from which it stored in the arena
+         */
+        private int threshold = 64 * 1024;
+
+        /**
+         * Size of the single memory mapped segment in chars
+         */
+        private int segmentSize = 16 * 1024 * 1024;
+
+        /**
+         * Where the segment files created, the default temporary directory when not set
+         */
+        private String directory;
+    }
+
+    /**
+     * Expand the examples rows of the scenario outlines into the scenarios while the feature executes
+     * instead of the discovery, so only the rows that execute at the moment kept in the memory.
+     * The tag filter applied to the whole examples block, the features with the outlines not kept in the snapshots.
+     * Only the discoveries that support it expand the outlines lazily
+     */
+    @Data
+    public static class LazyOutlines {
+
+        private boolean enable;
+
+        /**
+         * Amount of the expanded scenarios of the single feature that may execute or wait for the execution at once
+         */
+        private int bufferSize = 16;
+    }
+
+    /**
+     * The external CSV or JSON lines files that drive the data driven tests, see {@link com.griddynamics.qa.sprimber.discovery.DataSource}.
+     * The tests of the data source created row by row while the parent test case executes, every data source split
+     * to the shards of the contiguous row ranges and only the rows of the current shard executed
+     */
+    @Data
+    public static class DataSources {
+
+        private int shardIndex = 0;
+        private int shardCount = 1;
+
+        /**
+         * Amount of the tests created from the rows of the single test case that may execute or wait for the execution at once
+         */
+        private int bufferSize = 16;
+    }
 }
@@ -0,0 +1,328 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * The rows of the external CSV or JSON lines file that drive the data driven tests. The file read through
+ * the memory mapped windows, so neither the file nor the set of its rows is ever on the heap, only the current row.
+ * A record per line: the CSV file starts from the header line with the names of the columns and may quote the values,
+ * every line of the JSON lines file is the object and the columns are the keys of the first object.
+ * The blank lines skipped
+ *
+ * @author fparamonov
+ */
+
+public class DataSource {
+
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path path;
+    private final Format format;
+    private final List<String> columns;
+    private volatile long rowCount = -1;
+
+    private DataSource(Path path, Format format) {
+        this.path = path;
+        this.format = format;
+        LineCursor cursor = new LineCursor(path);
+        if (!cursor.readLine(true)) {
+            throw new IllegalArgumentException(String.format("The data source %s is empty", path));
+        }
+        this.columns = Collections.unmodifiableList(format == Format.CSV ? parseCsv(cursor.line()) :
+                readColumns(parseJson(cursor.line(), 0)));
+    }
+
+    public static DataSource open(Path path) {
+        return new DataSource(path, Format.of(path));
+    }
+
+    /**
+     * @param resource - the data source, must be the file on the file system to be memory mapped
+     */
+    public static DataSource open(Resource resource) {
+        try {
+            return open(resource.getFile().toPath());
+        } catch (IOException e) {
+            throw new IllegalArgumentException(String.format("The data source %s is not a file, only the files memory mapped", resource), e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return amount of the rows, the file scanned once on the first call without the parsing of the rows
+     */
+    public long getRowCount() {
+        if (rowCount < 0) {
+            LineCursor cursor = new LineCursor(path);
+            long count = 0;
+            while (cursor.readLine(false)) {
+                count++;
+            }
+            rowCount = format == Format.CSV ? count - 1 : count;
+        }
+        return rowCount;
+    }
+
+    /**
+     * @param fromRow - the index of the first row, inclusive
+     * @param toRow   - the index of the last row, exclusive
+     * @return the values of the rows in the order of the {@link #getColumns()}, every next row read only once requested
+     */
+    public Iterator<List<String>> rows(long fromRow, long toRow) {
+        return new Iterator<List<String>>() {
+
+            private LineCursor cursor;
+            private long rowIndex = fromRow;
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    if (cursor == null) {
+                        cursor = new LineCursor(path);
+                        long linesToSkip = format == Format.CSV ? fromRow + 1 : fromRow;
+                        for (long line = 0; line < linesToSkip; line++) {
+                            cursor.readLine(false);
+                        }
+                    }
+                    hasNext = rowIndex < toRow && cursor.readLine(true);
+                }
+                return hasNext;
+            }
+
+            @Override
+            public List<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                return parseRow(cursor.line(), rowIndex++);
+            }
+        };
+    }
+
+    /**
+     * Every shard takes the contiguous range of the rows, so the several runs may share the single data source
+     *
+     * @param shardIndex - the index of the shard from 0 to the shard count exclusive
+     * @param shardCount - amount of the shards the rows split to
+     * @return the rows of the shard
+     */
+    public Iterator<List<String>> shardRows(int shardIndex, int shardCount) {
+        long[] range = shardRange(shardIndex, shardCount);
+        return rows(range[0], range[1]);
+    }
+
+    /**
+     * @return the first row index inclusive and the last row index exclusive of the shard
+     */
+    public long[] shardRange(int shardIndex, int shardCount) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException(String.format("The shard %d of %d doesn't exist", shardIndex, shardCount));
+        }
+        long count = getRowCount();
+        return new long[]{count * shardIndex / shardCount, count * (shardIndex + 1) / shardCount};
+    }
+
+    private List<String> parseRow(String line, long rowIndex) {
+        if (format == Format.JSON_LINES) {
+            JsonNode row = parseJson(line, rowIndex);
+            return columns.stream()
+                    .map(row::get)
+                    .map(value -> value == null || value.isNull() ? "" : value.isValueNode() ? value.asText() : value.toString())
+                    .collect(Collectors.toList());
+        }
+        List<String> values = parseCsv(line);
+        if (values.size() != columns.size()) {
+            throw new IllegalStateException(String.format("The row %d of the data source %s has %d values, but there are %d columns",
+                    rowIndex, path, values.size(), columns.size()));
+        }
+        return values;
+    }
+
+    private JsonNode parseJson(String line, long rowIndex) {
+        try {
+            JsonNode row = OBJECT_MAPPER.readTree(line);
+            if (!row.isObject()) {
+                throw new IllegalStateException(String.format("The row %d of the data source %s is not the JSON object", rowIndex, path));
+            }
+            return row;
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("The row %d of the data source %s is not the valid JSON", rowIndex, path), e);
+        }
+    }
+
+    private static List<String> readColumns(JsonNode row) {
+        List<String> columns = new ArrayList<>();
+        row.fieldNames().forEachRemaining(columns::add);
+        return columns;
+    }
+
+    static List<String> parseCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char symbol = line.charAt(i);
+            if (quoted && symbol == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                value.append(symbol);
+                i++;
+            } else if (symbol == '"') {
+                quoted = !quoted;
+            } else if (!quoted && symbol == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(symbol);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    enum Format {
+        CSV(".csv"), JSON_LINES(".jsonl", ".ndjson");
+
+        private final List<String> extensions;
+
+        Format(String... extensions) {
+            this.extensions = Arrays.asList(extensions);
+        }
+
+        static Format of(Path path) {
+            String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            return Arrays.stream(values())
+                    .filter(format -> format.extensions.stream().anyMatch(fileName::endsWith))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("The data source %s is neither CSV nor JSON lines file", path)));
+        }
+    }
+
+    /**
+     * Reads the file line by line through the memory mapped window that moves along the file,
+     * the channel closed right after the mapping, so the abandoned cursor holds nothing but the window
+     */
+    private static class LineCursor {
+
+        private final Path path;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private byte[] line = new byte[256];
+        private int lineLength;
+
+        private LineCursor(Path path) {
+            this.path = path;
+            try {
+                this.size = Files.size(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * @param copy - whether to keep the line for the {@link #line()} or just skip it
+         * @return false once there are no more non blank lines
+         */
+        private boolean readLine(boolean copy) {
+            lineLength = 0;
+            boolean hasContent = false;
+            int symbol;
+            while ((symbol = read()) != -1) {
+                if (symbol == '\n') {
+                    if (hasContent) {
+                        return true;
+                    }
+                } else if (symbol != '\r') {
+                    hasContent = true;
+                    if (copy) {
+                        append((byte) symbol);
+                    }
+                }
+            }
+            return hasContent;
+        }
+
+        private String line() {
+            return new String(line, 0, lineLength, StandardCharsets.UTF_8);
+        }
+
+        private void append(byte symbol) {
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = symbol;
+        }
+
+        private int read() {
+            if (window == null || !window.hasRemaining()) {
+                long nextStart = window == null ? 0 : windowStart + window.limit();
+                if (nextStart >= size) {
+                    return -1;
+                }
+                map(nextStart);
+            }
+            return window.get() & 0xFF;
+        }
+
+        private void map(long start) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+                windowStart = start;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
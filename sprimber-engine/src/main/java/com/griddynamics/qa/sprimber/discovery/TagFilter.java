@@ -35,4 +35,16 @@ public interface TagFilter {
     boolean filter(List<String> tags);
 
     boolean filterByCustomExpression(List<String> tagsToEvaluate, String expressionAsString);
+
+    /**
+     * The implementations may evaluate the compiled expressions against the tag bits directly,
+     * by default the tags converted back to the list
+     */
+    default boolean filter(TagSet tags) {
+        return filter(tags.toList());
+    }
+
+    default boolean filterByCustomExpression(TagSet tagsToEvaluate, String expressionAsString) {
+        return filterByCustomExpression(tagsToEvaluate.toList(), expressionAsString);
+    }
 }
@@ -0,0 +1,122 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import lombok.EqualsAndHashCode;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable set of the tags represented as the bits of the tag ids.
+ * Every tag registered once in the run wide dictionary and gets the sequential id,
+ * so the check of the tag presence is the single bit test instead of the string comparison
+ *
+ * @author fparamonov
+ */
+
+@EqualsAndHashCode
+public final class TagSet {
+
+    public static final TagSet EMPTY = new TagSet(new long[0]);
+
+    private static final Map<String, Integer> TAG_IDS = new ConcurrentHashMap<>();
+    private static final List<String> TAGS = new ArrayList<>();
+
+    private final long[] bits;
+
+    private TagSet(long[] bits) {
+        this.bits = bits;
+    }
+
+    public static TagSet of(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return EMPTY;
+        }
+        long[] bits = new long[0];
+        for (String tag : tags) {
+            int tagId = idOf(tag);
+            int word = tagId >>> 6;
+            if (word >= bits.length) {
+                bits = Arrays.copyOf(bits, word + 1);
+            }
+            bits[word] |= 1L << tagId;
+        }
+        return new TagSet(bits);
+    }
+
+    /**
+     * @param tag - the tag with the leading '@'
+     * @return the id of the tag in the run wide dictionary, the tag registered if it is met for the first time
+     */
+    public static int idOf(String tag) {
+        Integer tagId = TAG_IDS.get(tag);
+        if (tagId != null) {
+            return tagId;
+        }
+        synchronized (TAGS) {
+            return TAG_IDS.computeIfAbsent(tag, newTag -> {
+                TAGS.add(newTag);
+                return TAGS.size() - 1;
+            });
+        }
+    }
+
+    public boolean contains(int tagId) {
+        int word = tagId >>> 6;
+        return word < bits.length && (bits[word] & (1L << tagId)) != 0;
+    }
+
+    public boolean contains(String tag) {
+        Integer tagId = TAG_IDS.get(tag);
+        return tagId != null && contains(tagId);
+    }
+
+    public boolean isEmpty() {
+        return bits.length == 0;
+    }
+
+    /**
+     * @return the tags of this set in the order of the registration in the dictionary
+     */
+    public List<String> toList() {
+        List<String> tags = new ArrayList<>();
+        synchronized (TAGS) {
+            for (int word = 0; word < bits.length; word++) {
+                long wordBits = bits[word];
+                while (wordBits != 0) {
+                    tags.add(TAGS.get((word << 6) + Long.numberOfTrailingZeros(wordBits)));
+                    wordBits &= wordBits - 1;
+                }
+            }
+        }
+        return tags;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
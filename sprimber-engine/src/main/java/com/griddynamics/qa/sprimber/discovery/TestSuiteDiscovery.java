@@ -26,8 +26,10 @@ package com.griddynamics.qa.sprimber.discovery;
 
 import com.griddynamics.qa.sprimber.engine.Node;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * @author fparamonov
@@ -38,21 +40,69 @@ public interface TestSuiteDiscovery {
 
     Node discover();
 
+    /**
+     * Discover the suite in the background. The root node returned immediately and its children
+     * become available for the execution one by one as soon as they discovered,
+     * see {@link Node.ChildStream}. By default the whole suite discovered upfront
+     *
+     * @param bufferSize amount of the discovered children that may wait for the execution
+     * @return root node of the suite
+     */
+    default Node discoverStreaming(int bufferSize) {
+        return discover();
+    }
+
     String name();
 
-    class Statistic extends HashMap<String, AtomicInteger> {
+    class Statistic extends ConcurrentHashMap<String, AtomicInteger> {
 
         private static final String FILTERED_PREFIX = "filter";
         private static final String PREPARED_PREFIX = "prepared";
+        private static final String CACHE_HIT_PREFIX = "cacheHit";
+        private static final String CACHE_MISS_PREFIX = "cacheMiss";
+
+        private final transient ReadWriteLock aggregationLock = new ReentrantReadWriteLock();
+        private transient volatile Statistic aggregate;
 
         public void registerFilteredStage(String stageRole) {
-            putIfAbsent(FILTERED_PREFIX + stageRole, new AtomicInteger(0));
-            get(FILTERED_PREFIX + stageRole).incrementAndGet();
+            increment(FILTERED_PREFIX + stageRole);
         }
 
         public void registerPreparedStage(String stageRole) {
-            putIfAbsent(PREPARED_PREFIX + stageRole, new AtomicInteger(0));
-            get(PREPARED_PREFIX + stageRole).incrementAndGet();
+            increment(PREPARED_PREFIX + stageRole);
+        }
+
+        public void registerFilteredStages(String stageRole, long count) {
+            add(FILTERED_PREFIX + stageRole, count);
+        }
+
+        public void registerPreparedStages(String stageRole, long count) {
+            add(PREPARED_PREFIX + stageRole, count);
+        }
+
+        public void registerCacheHit(String cacheName) {
+            increment(CACHE_HIT_PREFIX + cacheName);
+        }
+
+        public void registerCacheMiss(String cacheName) {
+            increment(CACHE_MISS_PREFIX + cacheName);
+        }
+
+        /**
+         * Keep the given statistic up to date with this one while the discovery still in progress.
+         * The stages registered concurrently wait until the aggregate takes the current counts,
+         * so every stage counted there exactly once
+         *
+         * @param aggregate the statistic that accumulates the stages registered so far and from now on
+         */
+        public void aggregateTo(Statistic aggregate) {
+            aggregationLock.writeLock().lock();
+            try {
+                aggregate.accumulate(this);
+                this.aggregate = aggregate;
+            } finally {
+                aggregationLock.writeLock().unlock();
+            }
         }
 
         public int filteredCountByStage(String stageRole) {
@@ -63,11 +113,36 @@ public interface TestSuiteDiscovery {
             return getOrDefault(PREPARED_PREFIX + stageRole, new AtomicInteger(0)).get();
         }
 
+        public int cacheHitCount(String cacheName) {
+            return getOrDefault(CACHE_HIT_PREFIX + cacheName, new AtomicInteger(0)).get();
+        }
+
+        public int cacheMissCount(String cacheName) {
+            return getOrDefault(CACHE_MISS_PREFIX + cacheName, new AtomicInteger(0)).get();
+        }
+
         public void accumulate(Statistic statistic) {
-            statistic.keySet().forEach(key -> {
-                int newValue = getOrDefault(key, new AtomicInteger(0)).addAndGet(statistic.get(key).get());
-                put(key, new AtomicInteger(newValue));
-            });
+            statistic.forEach((key, counter) -> computeIfAbsent(key, k -> new AtomicInteger(0)).addAndGet(counter.get()));
+        }
+
+        private void increment(String key) {
+            add(key, 1);
+        }
+
+        private void add(String key, long count) {
+            if (count == 0) {
+                return;
+            }
+            aggregationLock.readLock().lock();
+            try {
+                computeIfAbsent(key, k -> new AtomicInteger(0)).addAndGet(Math.toIntExact(count));
+                Statistic currentAggregate = this.aggregate;
+                if (currentAggregate != null) {
+                    currentAggregate.add(key, count);
+                }
+            } finally {
+                aggregationLock.readLock().unlock();
+            }
         }
     }
 }
@@ -0,0 +1,148 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.engine;
+
+import com.griddynamics.qa.sprimber.scope.ScenarioContext;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking implementation of the tree executor.
+ * The stage processing returns the {@link CompletionStage} and the stage parts
+ * (before, children, target, after and stage finish) are chained to each other instead of waiting on the join,
+ * so no thread is pinned by the container node while its children in progress.
+ * Thus the required amount of threads depends only on the count of concurrently running step methods
+ * rather on the tree depth.
+ * <p>
+ * Child stage scheduled to the executor with name 'roleExecutor' when present or continues in the current chain,
+ * the same way as {@link TreeSuiteExecutor} does.
+ * The chained parts may continue on the thread that completed the previous part,
+ * so they decorated at the moment of chaining, on the thread that runs the stage
+ *
+ * @author fparamonov
+ */
+
+class AsyncTreeExecutor extends TreeAbstractExecutor {
+
+    private static final String EXECUTOR_NAME_SUFFIX = "Executor";
+    private final Map<String, Executor> childExecutors = new HashMap<>();
+
+    public AsyncTreeExecutor(NodeInvoker nodeInvoker,
+                             Map<String, Executor> childExecutors,
+                             TreeExecutorContext context,
+                             NodeExecutionEventsPublisher eventsPublisher,
+                             TaskDecorator taskDecorator) {
+        super(nodeInvoker, context, eventsPublisher, taskDecorator);
+        this.childExecutors.putAll(childExecutors);
+    }
+
+    @Override
+    public void executeRoot(Node node) {
+        // the calling thread may leave the stages halfway, so it gets back own state once the root completed
+        try (ScenarioContext.Attachment ignored = ScenarioContext.preserve()) {
+            taskDecorator.decorate(() -> processStage(node).toCompletableFuture().join()).run();
+        }
+    }
+
+    CompletionStage<Void> processStage(Node node) {
+        return CompletableFuture.completedFuture(node)
+                .thenAccept(this::startStage)
+                .thenCompose(started -> continueWith(processChildStage(node.childSpliterator(context.hasStageException(node))),
+                        () -> {
+                            finishStage(node);
+                            return CompletableFuture.completedFuture(null);
+                        }));
+    }
+
+    private CompletionStage<Void> processChildStage(Node.NodeSpliterator subNodesSpliterator) {
+        List<CompletableFuture<Void>> scheduledStages = new ArrayList<>();
+        return advanceChildStage(subNodesSpliterator, scheduledStages)
+                .thenCompose(advanced -> CompletableFuture.allOf(scheduledStages.toArray(new CompletableFuture[0])));
+    }
+
+    /**
+     * Walks through the child nodes. The nodes with dedicated executor scheduled immediately,
+     * while the rest of nodes processed one by one - the next node emitted only once the previous stage completed
+     * to keep the order and to give the spliterator feedback about the completion status.
+     */
+    private CompletionStage<Void> advanceChildStage(Node.NodeSpliterator subNodesSpliterator,
+                                                    List<CompletableFuture<Void>> scheduledStages) {
+        while (subNodesSpliterator.hasNext()) {
+            Node subNode = subNodesSpliterator.emitNext();
+            Executor executor = childExecutors.get(subNode.getRole() + EXECUTOR_NAME_SUFFIX);
+            if (executor != null) {
+                CompletableFuture<Void> scheduledStage = new CompletableFuture<>();
+                executor.execute(taskDecorator.decorate(() -> completeWith(scheduledStage, () -> processStage(subNode))));
+                scheduledStages.add(scheduledStage);
+                subNodesSpliterator.acceptFeedback(subNode);
+                continue;
+            }
+            CompletableFuture<Void> inlineStage = processStage(subNode).toCompletableFuture();
+            if (!inlineStage.isDone() || inlineStage.isCompletedExceptionally()) {
+                return continueWith(inlineStage, () -> {
+                    subNodesSpliterator.acceptFeedback(subNode);
+                    return advanceChildStage(subNodesSpliterator, scheduledStages);
+                });
+            }
+            subNodesSpliterator.acceptFeedback(subNode);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Same as {@link CompletionStage#thenCompose} but the continuation decorated right away,
+     * while the calling thread is still in the state of the stage
+     */
+    private CompletionStage<Void> continueWith(CompletionStage<Void> stage, Supplier<CompletionStage<Void>> continuation) {
+        CompletableFuture<Void> continued = new CompletableFuture<>();
+        Runnable decoratedContinuation = taskDecorator.decorate(() -> completeWith(continued, continuation));
+        return stage.thenCompose(completed -> {
+            decoratedContinuation.run();
+            return continued;
+        });
+    }
+
+    private void completeWith(CompletableFuture<Void> future, Supplier<CompletionStage<Void>> stage) {
+        try {
+            stage.get().whenComplete((completed, throwable) -> {
+                if (throwable == null) {
+                    future.complete(completed);
+                } else {
+                    future.completeExceptionally(throwable);
+                }
+            });
+        } catch (Throwable throwable) {
+            future.completeExceptionally(throwable);
+        }
+    }
+}
@@ -24,14 +24,102 @@ $Id:
 
 package com.griddynamics.qa.sprimber.engine;
 
+import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
+import com.griddynamics.qa.sprimber.reporting.NodeLifecycleDispatcher;
+import com.griddynamics.qa.sprimber.reporting.NodeLifecycleListener;
+import com.griddynamics.qa.sprimber.reporting.RingBufferEventsPublisher;
+import com.griddynamics.qa.sprimber.scope.ScenarioContextTaskDecorator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskDecorator;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Collectors;
 
 /**
  * @author fparamonov
  */
 
 @Configuration
-@Import({SpringNodeInvoker.class, TreeSuiteExecutor.class, TreeExecutorContext.class})
+@Import(SpringNodeInvoker.class)
 public class EngineSpringConfiguration {
+
+    @Bean
+    public TreeExecutorContext treeExecutorContext(SprimberProperties sprimberProperties) {
+        return new TreeExecutorContext(sprimberProperties.getExecution().getRetention());
+    }
+
+    /**
+     * The executors carry the scenario context to every thread that continues the scenario
+     */
+    @Bean
+    public TaskDecorator scenarioContextTaskDecorator() {
+        return new ScenarioContextTaskDecorator();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(value = "sprimber.configuration.discovery.arena.enable", havingValue = "true")
+    public StepDataArena stepDataArena(SprimberProperties sprimberProperties) {
+        SprimberProperties.Arena arena = sprimberProperties.getDiscovery().getArena();
+        return new StepDataArena(arena.getDirectory() == null ? null : Paths.get(arena.getDirectory()), arena.getSegmentSize());
+    }
+
+    @Bean(destroyMethod = "close")
+    public NodeLifecycleDispatcher nodeLifecycleDispatcher(List<NodeLifecycleListener> listeners,
+                                                           SprimberProperties sprimberProperties) {
+        SprimberProperties.Async async = sprimberProperties.getEvents().getAsync();
+        if (!async.isEnable()) {
+            return new NodeLifecycleDispatcher(listeners);
+        }
+        Map<Boolean, List<NodeLifecycleListener>> listenersByAsyncSupport = listeners.stream()
+                .collect(Collectors.partitioningBy(NodeLifecycleListener::isAsyncSupported));
+        List<NodeLifecycleListener> syncListeners = new ArrayList<>(listenersByAsyncSupport.get(false));
+        syncListeners.add(new RingBufferEventsPublisher(listenersByAsyncSupport.get(true),
+                async.getBufferSize(), async.getWaitStrategy(), async.getBackPressure()));
+        return new NodeLifecycleDispatcher(syncListeners);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(value = "sprimber.configuration.execution.mode", havingValue = "pool", matchIfMissing = true)
+    @Import(TreeSuiteExecutor.class)
+    static class PoolExecution {
+    }
+
+    @Configuration
+    @ConditionalOnProperty(value = "sprimber.configuration.execution.mode", havingValue = "async")
+    @Import(AsyncTreeExecutor.class)
+    static class AsyncExecution {
+    }
+
+    @Configuration
+    @ConditionalOnProperty(value = "sprimber.configuration.execution.mode", havingValue = "fork-join")
+    static class ForkJoinExecution {
+
+        @Bean(destroyMethod = "shutdown")
+        public ForkJoinPool sprimberForkJoinPool(SprimberProperties sprimberProperties) {
+            return new ForkJoinPool(sprimberProperties.getExecution().getParallelism(), pool -> {
+                ForkJoinWorkerThread workerThread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                workerThread.setName("ForkJoinExecutor-" + workerThread.getPoolIndex());
+                return workerThread;
+            }, null, false);
+        }
+
+        @Bean
+        public TreeExecutor forkJoinTreeExecutor(TreeAbstractExecutor.NodeInvoker nodeInvoker,
+                                                 ForkJoinPool sprimberForkJoinPool,
+                                                 TreeExecutorContext context,
+                                                 NodeExecutionEventsPublisher eventsPublisher,
+                                                 SprimberProperties sprimberProperties,
+                                                 TaskDecorator scenarioContextTaskDecorator) {
+            return new ForkJoinTreeExecutor(nodeInvoker, sprimberForkJoinPool,
+                    sprimberProperties.getExecution().getParallelRoles(), context, eventsPublisher, scenarioContextTaskDecorator);
+        }
+    }
 }
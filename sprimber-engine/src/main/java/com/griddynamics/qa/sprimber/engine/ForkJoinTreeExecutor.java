@@ -0,0 +1,153 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.engine;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.StreamSupport;
+
+/**
+ * Work-stealing implementation of the tree executor.
+ * Every stage that belongs to one of the parallel roles is forked as a separate task to the shared
+ * {@link ForkJoinPool}, so idle workers steal stages from the busy ones instead of waiting on a fixed pool.
+ * The parent stage waits for the forked children with {@link RecursiveAction#join()},
+ * that lets the worker execute pending tasks instead of parking.
+ * Since the step methods usually blocking, the actual invocation wrapped to the {@link ForkJoinPool.ManagedBlocker}
+ * to allow the pool to compensate the blocked worker.
+ * <p>
+ * The stages with roles outside of the parallel roles executed sequentially in the current worker,
+ * so the order of sub nodes and bypass semantic stays the same as for {@link TreeSuiteExecutor}
+ *
+ * @author fparamonov
+ */
+
+class ForkJoinTreeExecutor extends TreeAbstractExecutor {
+
+    private final ForkJoinPool forkJoinPool;
+    private final Set<String> parallelRoles = new HashSet<>();
+
+    ForkJoinTreeExecutor(NodeInvoker nodeInvoker,
+                         ForkJoinPool forkJoinPool,
+                         Collection<String> parallelRoles,
+                         TreeExecutorContext context,
+                         NodeExecutionEventsPublisher eventsPublisher,
+                         TaskDecorator taskDecorator) {
+        super(nodeInvoker, context, eventsPublisher, taskDecorator);
+        this.forkJoinPool = forkJoinPool;
+        this.parallelRoles.addAll(parallelRoles);
+    }
+
+    @Override
+    public void executeRoot(Node node) {
+        forkJoinPool.invoke(new StageAction(node));
+    }
+
+    @Override
+    void invoke(Node subNode) throws Throwable {
+        InvocationBlocker invocationBlocker = new InvocationBlocker(subNode);
+        ForkJoinPool.managedBlock(invocationBlocker);
+        invocationBlocker.rethrowFailure();
+    }
+
+    private void processStage(Node node) {
+        startStage(node);
+        processChildStage(node.childSpliterator(context.hasStageException(node)));
+        finishStage(node);
+    }
+
+    private void processChildStage(Spliterator<Node> subNodesSpliterator) {
+        Deque<StageAction> forkedStages = new ArrayDeque<>();
+        StreamSupport.stream(subNodesSpliterator, false).forEach(subNode -> {
+            if (parallelRoles.contains(subNode.getRole())) {
+                StageAction stageAction = new StageAction(subNode);
+                stageAction.fork();
+                forkedStages.push(stageAction);
+                // don't hold the completed stages, the children may come from the endless stream
+                while (!forkedStages.isEmpty() && forkedStages.peekLast().isDone()) {
+                    forkedStages.pollLast().join();
+                }
+            } else {
+                processStage(subNode);
+            }
+        });
+        // the latest forked stage is the most likely one that still in the local queue of current worker
+        while (!forkedStages.isEmpty()) {
+            forkedStages.pop().join();
+        }
+    }
+
+    /**
+     * The stage decorated once forked, since the stealing worker may be in the middle of another stage
+     */
+    private class StageAction extends RecursiveAction {
+
+        private final Runnable stage;
+
+        StageAction(Node node) {
+            this.stage = taskDecorator.decorate(() -> processStage(node));
+        }
+
+        @Override
+        protected void compute() {
+            stage.run();
+        }
+    }
+
+    private class InvocationBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private final Node subNode;
+        private Throwable failure;
+        private boolean released;
+
+        InvocationBlocker(Node subNode) {
+            this.subNode = subNode;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                nodeInvoker.invoke(subNode);
+            } catch (Throwable throwable) {
+                failure = throwable;
+            }
+            released = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return released;
+        }
+
+        void rethrowFailure() throws Throwable {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
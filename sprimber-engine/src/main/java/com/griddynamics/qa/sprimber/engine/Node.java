@@ -24,11 +24,18 @@ $Id:
 
 package com.griddynamics.qa.sprimber.engine;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.hash.Hashing;
 import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.griddynamics.qa.sprimber.engine.Node.Bypass.*;
@@ -39,11 +46,16 @@ import static com.griddynamics.qa.sprimber.engine.Node.Bypass.*;
 
 public class Node {
 
-    private String name;
-    private String description;
-    private String historyId;
-    private final String role;
-    private final Map<String, Object> attributes = new HashMap<>();
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final String RUN_ID = UUID.randomUUID().toString();
+    private static final AtomicLong RUNTIME_IDS = new AtomicLong();
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+    private static final Map<EnumSet<Bypass>, EnumSet<Bypass>> SUB_NODE_EXECUTION_MODES = new ConcurrentHashMap<>();
+
+    /**
+     * The immutable part of the node, the same definition may be shared by the nodes across the tree
+     */
+    private Definition definition;
 
     // core related properties
     private Status status;
@@ -51,84 +63,152 @@ public class Node {
     private Type type;
     private final String adapterName;
     private boolean isBypassed;
+    private final Node parent;
+    private final long runtimeId;
+    private String externalId;
     /**
-     * The node can be in one the 3 state - SKIP, ERROR and normal execution.
-     * During the SKIP and ERROR state the source spliterators over the sub nodes of current node
-     * may produce the next node in normal or in SKIP state.
-     * The node in SKIP state allows to control the execution in dry run mode -
-     * The all required events will be emitted but the actual code execution will not happens
-     * <p>
-     * The flags below describes which type of sub node should be seeded skipped status
-     * depends on the current node node state - SKIP or ERROR
-     * <p>
-     * the result of seed flags represented as ORed values from constants below.
+     * Sub nodes by the ordinal of the {@link Relation}, allocated along with the first sub node.
+     * Every array holds the sub nodes in order of addition followed by the spare empty slots
      */
-    private final EnumSet<Bypass> subNodeExecutionModes;
-    private final Condition condition;
-    private final UUID parentId;
-    private final UUID runtimeId = UUID.randomUUID();
-    private final Map<Relation, List<Node>> children = new EnumMap<>(Relation.class);
+    private Node[][] children;
 
-    private final Method method;
     private Throwable throwable;
-    private final Map<String, Object> parameters = new LinkedHashMap<>();
-
-    private Node(UUID parentId, Type type, String role, String adapterName, Method method, EnumSet<Bypass> subNodeExecutionModes) {
-        this.type = type;
-        this.role = role;
-        this.adapterName = adapterName;
-        this.parentId = parentId;
-        this.subNodeExecutionModes = subNodeExecutionModes;
-        this.method = method;
+    private List<Throwable> throwables = Collections.emptyList();
+    private String failureSummary;
+    private long startTime;
+    private long finishTime;
+    private volatile TreeExecutorContext.StageStatus stageStatus;
+    private ChildStream childStream;
+
+    private Node(Node parent, Type type, String role, String adapterName, Method method, EnumSet<Bypass> subNodeExecutionModes) {
+        this(parent, type, adapterName, new Definition(role, method, subNodeExecutionModes));
         this.phase = Phase.CREATED;
-        this.condition = null;
     }
 
-    private Node(Builder builder, UUID parentId, Type type) {
+    private Node(Node parent, Type type, String adapterName, Definition definition) {
         this.type = type;
-        this.parentId = parentId;
-        this.role = builder.role;
-        this.adapterName = builder.adapterName;
-        this.name = builder.name;
-        this.description = builder.description;
-        this.historyId = builder.historyId;
-        this.subNodeExecutionModes = builder.subNodeExecutionModes;
-        this.condition = builder.condition;
-        this.method = builder.method;
-        this.parameters.putAll(builder.parameters);
-        this.attributes.putAll(builder.attributes);
+        this.adapterName = adapterName == null ? null : STRINGS.intern(adapterName);
+        this.parent = parent;
+        this.runtimeId = RUNTIME_IDS.incrementAndGet();
+        this.definition = definition;
+    }
+
+    /**
+     * Copy constructor for snapshot, the structure and the definition of the node shared with the source,
+     * the execution state copied
+     */
+    private Node(Node source) {
+        this.definition = source.definition;
+        this.status = source.status;
+        this.phase = source.phase;
+        this.type = source.type;
+        this.adapterName = source.adapterName;
+        this.isBypassed = source.isBypassed;
+        this.parent = source.parent;
+        this.runtimeId = source.runtimeId;
+        this.externalId = source.externalId;
+        this.children = source.children;
+        this.throwable = source.throwable;
+        this.throwables = source.throwables;
+        this.failureSummary = source.failureSummary;
+        this.startTime = source.startTime;
+        this.finishTime = source.finishTime;
+        this.childStream = source.childStream;
     }
 
     public static Node createRootNode(String role, String adapterName, EnumSet<Bypass> subNodesSkippingFlags) {
-        return new Node(UUID.randomUUID(), Type.HOLDER, role, adapterName, null, subNodesSkippingFlags);
+        return new Node(null, Type.HOLDER, role, adapterName, null, subNodesSkippingFlags);
+    }
+
+    /**
+     * The strings that repeat across the tree like the tags or the step texts may be shared
+     * instead of the copy per node
+     *
+     * @return the canonical instance of the given string
+     */
+    public static String intern(String value) {
+        return value == null ? null : STRINGS.intern(value);
+    }
+
+    /**
+     * Stable id derived from the unique name of the node, the same for the node between the runs
+     *
+     * @param uniqueName the name that identifies the node in the suite
+     * @return the hash of the unique name in hex form
+     */
+    public static String stableIdOf(String uniqueName) {
+        return Hashing.murmur3_128().hashString(uniqueName, StandardCharsets.UTF_8).toString();
     }
 
-    public UUID getRuntimeId() {
+    /**
+     * @return the id of the node, unique only in scope of the current run
+     */
+    public long getRuntimeId() {
         return this.runtimeId;
     }
 
-    public UUID getParentId() {
-        return this.parentId;
+    /**
+     * @return the runtime id of the holder of this node or 0 for the root node
+     */
+    public long getParentId() {
+        return this.parent == null ? 0 : this.parent.runtimeId;
+    }
+
+    /**
+     * The id of the node for the outer systems like the reports, unique across the runs.
+     * Built on the first request only
+     *
+     * @return the runtime id qualified with the id of the current run
+     */
+    public String getExternalId() {
+        String id = this.externalId;
+        if (id == null) {
+            id = RUN_ID + "-" + this.runtimeId;
+            this.externalId = id;
+        }
+        return id;
+    }
+
+    /**
+     * @return the external id of the holder of this node, see {@link #getExternalId()}
+     */
+    public String getParentExternalId() {
+        return this.parent == null ? RUN_ID + "-0" : this.parent.getExternalId();
+    }
+
+    /**
+     * @return the holder of this node or empty for the root node
+     */
+    public Optional<Node> getParent() {
+        return Optional.ofNullable(this.parent);
+    }
+
+    /**
+     * @return the children added to this node upfront in the order of the execution,
+     * the children published to the {@link ChildStream} or created from the child source not included
+     */
+    public List<Node> getChildren() {
+        return Collections.unmodifiableList(subNodes(Relation.CHILD));
     }
 
     public String getHistoryId() {
-        return this.historyId;
+        return this.definition.historyId;
     }
 
     public String getDescription() {
-        return this.description;
+        return this.definition.description;
     }
 
     public Optional<Object> getAttribute(String name) {
-        return Optional.ofNullable(this.attributes.get(name));
+        return Optional.ofNullable(this.definition.attributes.get(name));
     }
 
     public Stream<Map.Entry<String, Object>> attributesStream() {
-        return this.attributes.entrySet().stream();
+        return this.definition.attributes.entrySet().stream();
     }
 
     public String getRole() {
-        return this.role;
+        return this.definition.role;
     }
 
     /**
@@ -145,23 +225,82 @@ public class Node {
     }
 
     public String getName() {
-        return name;
+        return definition.name;
     }
 
     public Method getMethod() {
-        return method;
+        return definition.method;
     }
 
     public Map<String, Object> getMethodParameters() {
-        return new LinkedHashMap<>(parameters);
+        return new LinkedHashMap<>(definition.parameters);
+    }
+
+    /**
+     * Ready to use method arguments in order of method parameters, prepared once during the node creation.
+     * The returned array shared between invocations and must not be modified.
+     * <p>
+     * When some of the parameters are {@link DeferredArgument}s they resolved on every call to the new array,
+     * so the node doesn't retain the resolved values and they released once the invocation completes
+     *
+     * @return arguments for the node method invocation
+     */
+    public Object[] getMethodArguments() {
+        if (!definition.hasDeferredArguments) {
+            return definition.methodArguments;
+        }
+        Object[] methodArguments = definition.methodArguments.clone();
+        for (int i = 0; i < methodArguments.length; i++) {
+            if (methodArguments[i] instanceof DeferredArgument) {
+                methodArguments[i] = ((DeferredArgument) methodArguments[i]).resolve();
+            }
+        }
+        return methodArguments;
     }
 
     public Optional<Throwable> getThrowable() {
         return Optional.ofNullable(throwable);
     }
 
+    /**
+     * The holder node may collect several errors from the sub nodes during the stage execution,
+     * the first one is available via {@link #getThrowable()} as well
+     *
+     * @return all errors that node was completed with, in order of appearance
+     */
+    public List<Throwable> getThrowables() {
+        return throwables;
+    }
+
+    /**
+     * Short description of the error the node was completed with.
+     * Unlike the {@link #getThrowable()} it remains available after the node compacted
+     *
+     * @return the class and the message of the first error or empty if node completed without errors
+     */
+    public Optional<String> getFailureSummary() {
+        if (throwable != null) {
+            return Optional.of(throwable.getClass().getName() + ": " + StringUtils.defaultString(throwable.getMessage()));
+        }
+        return Optional.ofNullable(failureSummary);
+    }
+
+    /**
+     * @return the time in millis when the execution of the node started or 0 if it not started yet
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return the time in millis when the node completed or 0 if it not completed yet
+     */
+    public long getFinishTime() {
+        return finishTime;
+    }
+
     public Optional<Condition> getCondition() {
-        return Optional.ofNullable(this.condition);
+        return Optional.ofNullable(this.definition.condition);
     }
 
     public boolean isReadyForInvoke() {
@@ -174,6 +313,7 @@ public class Node {
 
     public void scheduleExecution() {
         this.phase = Phase.SCHEDULED;
+        this.startTime = System.currentTimeMillis();
     }
 
     public void bypassExecution() {
@@ -185,28 +325,37 @@ public class Node {
     }
 
     public boolean isEmptyHolder() {
-        return Type.HOLDER.equals(this.type) && this.children.isEmpty();
+        return Type.HOLDER.equals(this.type) && this.children == null && this.childStream == null;
     }
 
     public void prepareExecution() {
         this.status = Status.STARTED;
         this.phase = Phase.EXECUTING;
+        this.startTime = System.currentTimeMillis();
     }
 
     public void completeExceptionally(Throwable throwable) {
-        this.throwable = throwable;
+        completeExceptionally(Collections.singletonList(throwable));
+    }
+
+    public void completeExceptionally(List<Throwable> throwables) {
+        this.throwables = Collections.unmodifiableList(new ArrayList<>(throwables));
+        this.throwable = throwables.get(0);
         this.status = Status.ERROR;
         this.phase = Phase.COMPLETED;
+        this.finishTime = System.currentTimeMillis();
     }
 
     public void completeWithSkip() {
         this.status = Status.SKIP;
         this.phase = Phase.COMPLETED;
+        this.finishTime = System.currentTimeMillis();
     }
 
     public void completeSuccessfully() {
         this.status = Status.SUCCESS;
         this.phase = Phase.COMPLETED;
+        this.finishTime = System.currentTimeMillis();
     }
 
     public boolean isCompletedExceptionally() {
@@ -221,89 +370,222 @@ public class Node {
         return Phase.COMPLETED.equals(phase) && Status.SKIP.equals(status);
     }
 
+    /**
+     * Capture the current execution state of the node, so it can be safely observed later from another thread
+     * while the node itself proceeds with the execution.
+     * The snapshot must be used only for reading, it cannot be executed
+     *
+     * @return detached copy of the node with the same identity and the state as of now
+     */
+    public Node snapshot() {
+        return new Node(this);
+    }
+
+    /**
+     * Switch the node to receive the children from the stream instead of the upfront built list.
+     * The children created and published by the discovery while the node may already be executing,
+     * see {@link ChildStream} for details
+     *
+     * @param capacity amount of the children that may wait for the execution and the same amount
+     *                 of the children that may execute at once
+     * @return the stream to publish the children to
+     */
+    public ChildStream openChildStream(int capacity) {
+        this.childStream = new ChildStream(this, capacity);
+        return this.childStream;
+    }
+
+    /**
+     * Switch the node to create the children on demand, while the executor iterates them, instead of
+     * the upfront built list. The executor pulls the next child only once the allowed amount of the children
+     * still executing, so only the limited part of the children exists at any moment, see {@link ChildStream}.
+     * The source iterated once and never concurrently, the failure of the source propagated to the executor
+     *
+     * @param childSource - creates the children of this node, e.g. via {@link #newDetachedChild(Builder)}
+     * @param capacity    - amount of the children that may execute at once
+     */
+    public void openChildSource(Iterator<Node> childSource, int capacity) {
+        this.childStream = new ChildStream(this, capacity, childSource);
+    }
+
+    /**
+     * @return stage that completes once all the children of this node discovered,
+     * completed immediately for the node without the child stream
+     */
+    public CompletableFuture<Void> getDiscoveryCompletion() {
+        return childStream == null ? CompletableFuture.completedFuture(null) : childStream.completion;
+    }
+
+    /**
+     * Executed stage no longer holds a place in the stream of the parent
+     */
+    void releaseStreamedStage() {
+        if (parent != null && parent.childStream != null) {
+            parent.childStream.inFlight.release();
+        }
+    }
+
+    /**
+     * Turn the completed node to the result record: the identity, the status, the timings and the failure summary
+     * remain, while the sub nodes, the attributes, the parameters and the errors released.
+     * The released structure still visible to the snapshots taken before, since it replaced but not cleared
+     */
+    void compact() {
+        this.failureSummary = getFailureSummary().orElse(null);
+        this.throwable = null;
+        this.throwables = Collections.emptyList();
+        this.children = null;
+        this.definition = this.definition.compact();
+    }
+
+    TreeExecutorContext.StageStatus getStageStatus() {
+        return stageStatus;
+    }
+
+    void setStageStatus(TreeExecutorContext.StageStatus stageStatus) {
+        this.stageStatus = stageStatus;
+    }
+
     public Node addChild(Builder builder) {
-        builder.withAdapterName(this.adapterName);
-        Node node = new Node(builder, this.runtimeId, Type.HOLDER);
-        this.children.computeIfAbsent(Relation.CHILD, k -> new ArrayList<>()).add(node);
-        return node;
+        return addSubNode(Relation.CHILD, new Node(this, Type.HOLDER, this.adapterName, builder.build()));
+    }
+
+    /**
+     * Creates the child that is not a sub node of this node yet, so it can be filled on another thread
+     * and then {@link #attachChild(Node) attached} in the desired order
+     *
+     * @return the child node detached from this node
+     */
+    public Node newDetachedChild(Builder builder) {
+        return new Node(this, Type.HOLDER, this.adapterName, builder.build());
+    }
+
+    /**
+     * @param child - the node created by {@link #newDetachedChild(Builder)} of this node
+     * @return the attached child
+     */
+    public Node attachChild(Node child) {
+        if (child.parent != this) {
+            throw new IllegalArgumentException("The node " + child.getExternalId() + " is not a child of " + getExternalId());
+        }
+        return addSubNode(Relation.CHILD, child);
     }
 
     public Node addChild(String role, EnumSet<Bypass> subNodesSkippingFlags) {
-        Node node = new Node(this.runtimeId, Type.HOLDER, role, this.adapterName, null, subNodesSkippingFlags);
-        this.children.computeIfAbsent(Relation.CHILD, k -> new ArrayList<>()).add(node);
-        return node;
+        return addSubNode(Relation.CHILD, new Node(this, Type.HOLDER, role, this.adapterName, null, subNodesSkippingFlags));
     }
 
     public Node addTarget(Builder builder) {
-        builder.withAdapterName(this.adapterName);
-        Node node = new Node(builder, this.runtimeId, Type.INVOKABLE);
-        this.children.computeIfAbsent(Relation.TARGET, k -> new ArrayList<>()).add(node);
-        return node;
+        return addTarget(builder.build());
+    }
+
+    public Node addTarget(Definition definition) {
+        return addSubNode(Relation.TARGET, new Node(this, Type.INVOKABLE, this.adapterName, definition));
     }
 
     public Node addTarget(String role, Method method) {
-        Node node = new Node(this.runtimeId, Type.INVOKABLE, role, this.adapterName, method, EnumSet.noneOf(Bypass.class));
-        this.children.computeIfAbsent(Relation.TARGET, k -> new ArrayList<>()).add(node);
-        return node;
+        return addSubNode(Relation.TARGET, new Node(this, Type.INVOKABLE, role, this.adapterName, method, EnumSet.noneOf(Bypass.class)));
     }
 
     public Node addBefore(Builder builder) {
-        builder.withAdapterName(this.adapterName);
-        Node node = new Node(builder, this.runtimeId, Type.INVOKABLE);
-        this.children.computeIfAbsent(Relation.BEFORE, k -> new ArrayList<>()).add(node);
-        return node;
+        return addBefore(builder.build());
+    }
+
+    public Node addBefore(Definition definition) {
+        return addSubNode(Relation.BEFORE, new Node(this, Type.INVOKABLE, this.adapterName, definition));
     }
 
     public Node addBefore(String role, Method method) {
-        Node node = new Node(this.runtimeId, Type.INVOKABLE, role, this.adapterName, method, EnumSet.noneOf(Bypass.class));
-        this.children.computeIfAbsent(Relation.BEFORE, k -> new ArrayList<>()).add(node);
-        return node;
+        return addSubNode(Relation.BEFORE, new Node(this, Type.INVOKABLE, role, this.adapterName, method, EnumSet.noneOf(Bypass.class)));
     }
 
     public Node addAfter(Builder builder) {
-        builder.withAdapterName(this.adapterName);
-        Node node = new Node(builder, this.runtimeId, Type.INVOKABLE);
-        this.children.computeIfAbsent(Relation.AFTER, k -> new ArrayList<>()).add(node);
-        return node;
+        return addAfter(builder.build());
+    }
+
+    public Node addAfter(Definition definition) {
+        return addSubNode(Relation.AFTER, new Node(this, Type.INVOKABLE, this.adapterName, definition));
     }
 
     public Node addAfter(String role, Method method) {
-        Node node = new Node(this.runtimeId, Type.INVOKABLE, role, this.adapterName, method, EnumSet.noneOf(Bypass.class));
-        this.children.computeIfAbsent(Relation.AFTER, k -> new ArrayList<>()).add(node);
+        return addSubNode(Relation.AFTER, new Node(this, Type.INVOKABLE, role, this.adapterName, method, EnumSet.noneOf(Bypass.class)));
+    }
+
+    private Node addSubNode(Relation relation, Node node) {
+        if (children == null) {
+            children = new Node[Relation.values().length][];
+        }
+        Node[] subNodes = children[relation.ordinal()];
+        if (subNodes == null) {
+            children[relation.ordinal()] = new Node[]{node};
+            return node;
+        }
+        int size = sizeOf(subNodes);
+        if (size == subNodes.length) {
+            subNodes = Arrays.copyOf(subNodes, size + (size >> 1) + 1);
+            children[relation.ordinal()] = subNodes;
+        }
+        subNodes[size] = node;
         return node;
     }
 
-    Spliterator<Node> childSpliterator(boolean hasErrorOnPreviousStage) {
+    private List<Node> subNodes(Relation relation) {
+        Node[] subNodes = children == null ? null : children[relation.ordinal()];
+        return subNodes == null ? Collections.emptyList() : Arrays.asList(subNodes).subList(0, sizeOf(subNodes));
+    }
+
+    /**
+     * The sub nodes occupy the beginning of the array, so the first empty slot found by the binary search
+     */
+    private static int sizeOf(Node[] subNodes) {
+        int low = 0;
+        int high = subNodes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (subNodes[middle] == null) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    NodeSpliterator childSpliterator(boolean hasErrorOnPreviousStage) {
         boolean bypassNextNodesAfterError = hasFlag(BYPASS_CHILDREN_AFTER_ITERATION_ERROR);
         boolean bypassMode = (isBypassed() && hasFlag(BYPASS_CHILDREN_WHEN_BYPASS_MODE)) || (hasErrorOnPreviousStage && hasFlag(BYPASS_CHILDREN_AFTER_STAGE_ERROR));
-        return new NodeSpliterator(children.getOrDefault(Relation.CHILD, new ArrayList<>()), bypassMode, bypassNextNodesAfterError);
+        if (childStream != null) {
+            return new NodeSpliterator(childStream.iterator(), Long.MAX_VALUE, bypassMode, bypassNextNodesAfterError);
+        }
+        return new NodeSpliterator(subNodes(Relation.CHILD), bypassMode, bypassNextNodesAfterError);
     }
 
-    Spliterator<Node> targetSpliterator(boolean hasErrorOnPreviousStage) {
+    NodeSpliterator targetSpliterator(boolean hasErrorOnPreviousStage) {
         boolean bypassNextNodesAfterError = hasFlag(BYPASS_TARGET_AFTER_ITERATION_ERROR);
         boolean bypassMode = (isBypassed() && hasFlag(BYPASS_TARGET_WHEN_BYPASS_MODE)) || (hasErrorOnPreviousStage && hasFlag(BYPASS_TARGET_AFTER_STAGE_ERROR));
-        return new NodeSpliterator(children.getOrDefault(Relation.TARGET, new ArrayList<>()), bypassMode, bypassNextNodesAfterError);
+        return new NodeSpliterator(subNodes(Relation.TARGET), bypassMode, bypassNextNodesAfterError);
     }
 
-    Spliterator<Node> beforeSpliterator(boolean hasErrorOnPreviousStage) {
+    NodeSpliterator beforeSpliterator(boolean hasErrorOnPreviousStage) {
         boolean bypassNextNodesAfterError = hasFlag(BYPASS_BEFORE_AFTER_ITERATION_ERROR);
         boolean bypassMode = (isBypassed() && hasFlag(BYPASS_BEFORE_WHEN_BYPASS_MODE)) || (hasErrorOnPreviousStage && hasFlag(BYPASS_BEFORE_AFTER_STAGE_ERROR));
-        return new NodeSpliterator(children.getOrDefault(Relation.BEFORE, new ArrayList<>()), bypassMode, bypassNextNodesAfterError);
+        return new NodeSpliterator(subNodes(Relation.BEFORE), bypassMode, bypassNextNodesAfterError);
     }
 
-    Spliterator<Node> afterSpliterator(boolean hasErrorOnPreviousStage) {
+    NodeSpliterator afterSpliterator(boolean hasErrorOnPreviousStage) {
         boolean bypassNextNodesAfterError = hasFlag(BYPASS_AFTER_AFTER_ITERATION_ERROR);
         boolean bypassMode = (isBypassed() && hasFlag(BYPASS_AFTER_WHEN_BYPASS_MODE)) || (hasErrorOnPreviousStage && hasFlag(BYPASS_AFTER_AFTER_STAGE_ERROR));
-        return new NodeSpliterator(children.getOrDefault(Relation.AFTER, new ArrayList<>()), bypassMode, bypassNextNodesAfterError);
+        return new NodeSpliterator(subNodes(Relation.AFTER), bypassMode, bypassNextNodesAfterError);
     }
 
+    private static final Node END_OF_STREAM = new Node(null, Type.HOLDER, "endOfStream", null, null, EnumSet.noneOf(Bypass.class));
     static final String BEFORE_SUB_NODE_NAME = "before";
     static final String TARGET_SUB_NODE_NAME = "target";
     static final String AFTER_SUB_NODE_NAME = "after";
     static final String CHILD_SUB_NODE_NAME = "child";
 
     /**
-     * Returns {@code true} if this behaviours flags {@link #subNodeExecutionModes} contain all of the given flags
+     * Returns {@code true} if this behaviours flags {@link Definition#subNodeExecutionModes} contain all of the given flags
      * The default implementation returns true if the corresponding bits
      * of the given characteristics are set.
      *
@@ -312,7 +594,7 @@ public class Node {
      * else {@code false}
      */
     private boolean hasFlag(Bypass flag) {
-        return this.subNodeExecutionModes.contains(flag);
+        return this.definition.subNodeExecutionModes.contains(flag);
     }
 
     /**
@@ -407,13 +689,20 @@ public class Node {
          */
         private boolean bypassMode;
         private final boolean bypassNextNodesAfterError;
-        private final List<Node> source;
+        private final long size;
         private final Iterator<Node> iterator;
 
         NodeSpliterator(List<Node> source, boolean bypassMode, boolean bypassNextNodesAfterError) {
-            this.source = source;
+            this(source.iterator(), source.size(), bypassMode, bypassNextNodesAfterError);
+        }
+
+        /**
+         * @param size exact amount of the nodes in the source or {@link Long#MAX_VALUE} if unknown
+         */
+        NodeSpliterator(Iterator<Node> iterator, long size, boolean bypassMode, boolean bypassNextNodesAfterError) {
+            this.iterator = iterator;
+            this.size = size;
             this.bypassMode = bypassMode;
-            this.iterator = source.iterator();
             this.bypassNextNodesAfterError = bypassNextNodesAfterError;
         }
 
@@ -434,12 +723,33 @@ public class Node {
         }
 
         private void applyToNode(Consumer<? super Node> action) {
+            Node node = emitNext();
+            action.accept(node);
+            acceptFeedback(node);
+        }
+
+        boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        /**
+         * Emits the next node without waiting for the feedback.
+         * Useful when the node execution completes asynchronously,
+         * in such case the caller responsible to pass the node back via {@link #acceptFeedback(Node)}
+         * once the node completed and before the next emit
+         *
+         * @return next node in ready or bypass mode
+         */
+        Node emitNext() {
             Node node = iterator.next();
             node.scheduleExecution();
             if (bypassMode) {
                 node.bypassExecution();
             }
-            action.accept(node);
+            return node;
+        }
+
+        void acceptFeedback(Node node) {
             if (node.isCompletedExceptionally() && bypassNextNodesAfterError) {
                 bypassMode = true;
             }
@@ -452,12 +762,144 @@ public class Node {
 
         @Override
         public long estimateSize() {
-            return source.size();
+            return size;
         }
 
         @Override
         public int characteristics() {
-            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+            return size == Long.MAX_VALUE ? Spliterator.ORDERED : Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * Bounded stream of the child nodes between the discovery that produces them and the executor.
+     * The discovery creates the child via {@link #newChild(Builder)}, fills it completely and then
+     * {@link #publish(Node) publishes} it, waiting while the stream is full.
+     * The executor takes the children one by one in the order of publishing, waiting for the next one
+     * while the discovery is in progress and while the allowed amount of the children are still executing.
+     * So only the limited part of the tree is in memory at any moment, no matter how big the whole suite is.
+     * Once all the children published the discovery must {@link #complete()} the stream.
+     * <p>
+     * The stream opened over the source of the children pulls them from the source instead,
+     * the discovery is completed for such stream from the beginning
+     */
+    public static class ChildStream {
+
+        private final Node holder;
+        private final BlockingQueue<Node> queue;
+        private final Iterator<Node> source;
+        private final Semaphore inFlight;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        private ChildStream(Node holder, int capacity) {
+            this.holder = holder;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.source = null;
+            this.inFlight = new Semaphore(capacity);
+        }
+
+        private ChildStream(Node holder, int capacity, Iterator<Node> source) {
+            this.holder = holder;
+            this.queue = null;
+            this.source = source;
+            this.inFlight = new Semaphore(capacity);
+            this.completion.complete(null);
+        }
+
+        /**
+         * @return the child that is not visible for the executor until published
+         */
+        public Node newChild(Builder builder) {
+            return holder.newDetachedChild(builder);
+        }
+
+        public void publish(Node child) {
+            block(() -> queue.put(child));
+        }
+
+        public void complete() {
+            completion.complete(null);
+            block(() -> queue.put(END_OF_STREAM));
+        }
+
+        public void completeExceptionally(Throwable throwable) {
+            completion.completeExceptionally(throwable);
+            block(() -> queue.put(END_OF_STREAM));
+        }
+
+        private Iterator<Node> iterator() {
+            return new Iterator<Node>() {
+
+                private Node next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null) {
+                        block(inFlight::acquire);
+                        if (source == null) {
+                            block(() -> next = queue.take());
+                        } else {
+                            next = pull();
+                        }
+                        if (next == END_OF_STREAM) {
+                            inFlight.release();
+                        }
+                    }
+                    return next != END_OF_STREAM;
+                }
+
+                @Override
+                public Node next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Node node = next;
+                    next = null;
+                    return node;
+                }
+            };
+        }
+
+        private Node pull() {
+            try {
+                synchronized (source) {
+                    return source.hasNext() ? source.next() : END_OF_STREAM;
+                }
+            } catch (RuntimeException | Error e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Wait in the way that allows the fork-join pool to compensate the blocked worker
+         */
+        private static void block(InterruptibleAction action) {
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+                    private boolean released;
+
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        action.run();
+                        released = true;
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        return released;
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the child stream", e);
+            }
+        }
+
+        private interface InterruptibleAction {
+            void run() throws InterruptedException;
         }
     }
 
@@ -485,6 +927,102 @@ public class Node {
         boolean match(Object actualValue);
     }
 
+    /**
+     * The parameter of the node that keeps the raw form of the argument and converts it to the method argument
+     * only right before the invocation. The {@link #toString()} should describe the raw form for the reports,
+     * since the parameters reported without the resolution
+     */
+    public interface DeferredArgument {
+
+        Object resolve();
+    }
+
+    /**
+     * Everything that describes the node, but not its place in the tree and the execution state.
+     * The strings that repeat from node to node interned, the empty attributes and parameters not allocated,
+     * so the definition stays cheap even when built per node
+     */
+    public static final class Definition {
+
+        private final String role;
+        private final String name;
+        private final String description;
+        private final String historyId;
+        /**
+         * The node can be in one the 3 state - SKIP, ERROR and normal execution.
+         * During the SKIP and ERROR state the source spliterators over the sub nodes of current node
+         * may produce the next node in normal or in SKIP state.
+         * The node in SKIP state allows to control the execution in dry run mode -
+         * The all required events will be emitted but the actual code execution will not happens
+         * <p>
+         * The flags below describes which type of sub node should be seeded skipped status
+         * depends on the current node node state - SKIP or ERROR
+         * <p>
+         * the result of seed flags represented as ORed values from constants below.
+         */
+        private final EnumSet<Bypass> subNodeExecutionModes;
+        private final Condition condition;
+        private final Method method;
+        private final Map<String, Object> attributes;
+        private final Map<String, Object> parameters;
+        private final Object[] methodArguments;
+        private final boolean hasDeferredArguments;
+
+        private Definition(String role, Method method, EnumSet<Bypass> subNodeExecutionModes) {
+            this.role = intern(role);
+            this.name = null;
+            this.description = null;
+            this.historyId = null;
+            this.subNodeExecutionModes = canonicalModes(subNodeExecutionModes);
+            this.condition = null;
+            this.method = method;
+            this.attributes = Collections.emptyMap();
+            this.parameters = Collections.emptyMap();
+            this.methodArguments = NO_ARGUMENTS;
+            this.hasDeferredArguments = false;
+        }
+
+        private Definition(Builder builder) {
+            this.role = intern(builder.role);
+            this.name = intern(builder.name);
+            this.description = builder.description;
+            this.historyId = builder.historyId;
+            this.subNodeExecutionModes = canonicalModes(builder.subNodeExecutionModes);
+            this.condition = builder.condition;
+            this.method = builder.method;
+            this.attributes = builder.attributes.isEmpty() ? Collections.emptyMap() : new HashMap<>(builder.attributes);
+            this.parameters = builder.parameters.isEmpty() ? Collections.emptyMap() : new LinkedHashMap<>(builder.parameters);
+            this.methodArguments = parameters.isEmpty() ? NO_ARGUMENTS : parameters.values().toArray();
+            this.hasDeferredArguments = Arrays.stream(methodArguments).anyMatch(DeferredArgument.class::isInstance);
+        }
+
+        private Definition(Definition source) {
+            this.role = source.role;
+            this.name = source.name;
+            this.description = source.description;
+            this.historyId = source.historyId;
+            this.subNodeExecutionModes = source.subNodeExecutionModes;
+            this.condition = source.condition;
+            this.method = source.method;
+            this.attributes = Collections.emptyMap();
+            this.parameters = Collections.emptyMap();
+            this.methodArguments = NO_ARGUMENTS;
+            this.hasDeferredArguments = false;
+        }
+
+        /**
+         * @return the definition without the attributes and the parameters
+         */
+        private Definition compact() {
+            return attributes.isEmpty() && parameters.isEmpty() ? this : new Definition(this);
+        }
+
+        private static EnumSet<Bypass> canonicalModes(EnumSet<Bypass> subNodeExecutionModes) {
+            EnumSet<Bypass> modes = subNodeExecutionModes == null ? EnumSet.noneOf(Bypass.class) : EnumSet.copyOf(subNodeExecutionModes);
+            return SUB_NODE_EXECUTION_MODES.computeIfAbsent(modes, Function.identity());
+        }
+    }
+
     public static final class Builder {
 
         private EnumSet<Bypass> subNodeExecutionModes;
@@ -492,7 +1030,6 @@ public class Node {
         private String description;
         private String historyId;
         private String role;
-        private String adapterName;
         private Condition condition;
         private Method method;
         private final Map<String, Object> attributes = new HashMap<>();
@@ -521,11 +1058,6 @@ public class Node {
             return this;
         }
 
-        public Builder withAdapterName(String adapterName) {
-            this.adapterName = adapterName;
-            return this;
-        }
-
         public Builder withSubNodeModes(EnumSet<Bypass> subNodeExecutionModes) {
             this.subNodeExecutionModes = subNodeExecutionModes;
             return this;
@@ -550,5 +1082,15 @@ public class Node {
             this.method = method;
             return this;
         }
+
+        /**
+         * The definition may be built once and then added to the several holders,
+         * for instance the hook that wraps every step
+         *
+         * @return immutable definition of the node with the current builder values
+         */
+        public Definition build() {
+            return new Definition(this);
+        }
     }
 }
@@ -50,4 +50,11 @@ public interface NodeExecutionEventsPublisher {
     void afterNodeCompleted(Node node);
 
     void afterNodeError(Node node);
+
+    /**
+     * Wait until all the events published so far are delivered.
+     * Publishers that deliver the events in the caller thread have nothing to wait for
+     */
+    default void flush() {
+    }
 }
@@ -25,21 +25,37 @@ $Id:
 package com.griddynamics.qa.sprimber.engine;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.aop.scope.ScopedProxyUtils;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.env.Environment;
 import org.springframework.util.ReflectionUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
+ * Invokes the step methods of Spring beans.
+ * Every method bound once, at first invocation, to the {@link MethodHandle} of shape (target, args[]),
+ * and the target bean is resolved once as well when it is a singleton or a scoped proxy.
+ * The beans of other scopes are requested from the context per invocation, so the scope still controls the instance.
+ *
  * @author fparamonov
  */
 
 @RequiredArgsConstructor
-class SpringNodeInvoker implements TreeSuiteExecutor.NodeInvoker {
+class SpringNodeInvoker implements TreeAbstractExecutor.NodeInvoker {
 
+    private static final MethodType GENERIC_INVOCATION_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
     private final ApplicationContext applicationContext;
     private final Environment environment;
+    private final Map<Method, StepInvocation> stepInvocations = new ConcurrentHashMap<>();
 
     @Override
     public boolean shouldSkip(Node.Condition condition) {
@@ -49,10 +65,57 @@ class SpringNodeInvoker implements TreeSuiteExecutor.NodeInvoker {
 
     @Override
     public void invoke(Node node) {
-        Method testMethod = node.getMethod();
-        Object target = applicationContext.getBean(testMethod.getDeclaringClass());
-        Object[] args = node.getMethodParameters().isEmpty() ?
-                new Object[0] : node.getMethodParameters().values().toArray();
-        ReflectionUtils.invokeMethod(testMethod, target, args);
+        stepInvocations.computeIfAbsent(node.getMethod(), this::bindStepInvocation)
+                .invoke(node.getMethodArguments());
+    }
+
+    private StepInvocation bindStepInvocation(Method method) {
+        ReflectionUtils.makeAccessible(method);
+        try {
+            MethodHandle methodHandle = MethodHandles.lookup().unreflect(method);
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            if (isStatic) {
+                methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+            }
+            MethodHandle genericHandle = methodHandle
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(GENERIC_INVOCATION_TYPE);
+            return new StepInvocation(genericHandle, isStatic ? () -> null : resolveTarget(method.getDeclaringClass()));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to bind the step method " + method, e);
+        }
+    }
+
+    private Supplier<Object> resolveTarget(Class<?> beanClass) {
+        String[] beanNames = Arrays.stream(applicationContext.getBeanNamesForType(beanClass))
+                .filter(beanName -> !ScopedProxyUtils.isScopedTarget(beanName))
+                .toArray(String[]::new);
+        if (beanNames.length == 1 && applicationContext.isSingleton(beanNames[0])) {
+            Object target = applicationContext.getBean(beanClass);
+            return () -> target;
+        }
+        return () -> applicationContext.getBean(beanClass);
+    }
+
+    private static class StepInvocation {
+
+        private final MethodHandle methodHandle;
+        private final Supplier<Object> targetSupplier;
+
+        StepInvocation(MethodHandle methodHandle, Supplier<Object> targetSupplier) {
+            this.methodHandle = methodHandle;
+            this.targetSupplier = targetSupplier;
+        }
+
+        Object invoke(Object[] arguments) {
+            try {
+                // invokeExact links only when the call site type equals the handle type (Object, Object[])Object,
+                // and the call site return type is taken from the cast, without it the call site would be void
+                return (Object) methodHandle.invokeExact(targetSupplier.get(), arguments);
+            } catch (Throwable throwable) {
+                ReflectionUtils.rethrowRuntimeException(throwable);
+                return null;
+            }
+        }
     }
 }
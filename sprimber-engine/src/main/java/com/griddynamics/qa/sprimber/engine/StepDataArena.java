@@ -0,0 +1,178 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.engine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Run scoped off heap storage for the large step data, e.g. the payload fixtures in the doc strings or the data dumps
+ * in the data tables. The texts stored once into the memory mapped segment files and the nodes keep only
+ * the {@link Text} that refers to the offset and length of the text in the segment, the text is read through
+ * the view over the segment without the copy until someone asks for the string.
+ * <p>
+ * The segments are mapped on demand and removed once the arena closed, the texts that can't be stored
+ * (the arena is closed or the segment can't be mapped) returned as is and stay on heap
+ *
+ * @author fparamonov
+ */
+
+@Slf4j
+public class StepDataArena implements Closeable {
+
+    private static final int MAX_SEGMENT_CHARS = Integer.MAX_VALUE / Character.BYTES;
+    private final Path directory;
+    private final int segmentChars;
+    private final List<Path> segmentFiles = new ArrayList<>();
+    private CharBuffer segment;
+    private CharBuffer readOnlySegment;
+    private boolean closed;
+
+    /**
+     * @param directory    - where the segment files created, the default temporary directory when null
+     * @param segmentChars - size of the single segment in chars, the texts larger than this get the own segment
+     */
+    public StepDataArena(Path directory, int segmentChars) {
+        this.directory = directory;
+        this.segmentChars = Math.min(segmentChars, MAX_SEGMENT_CHARS);
+    }
+
+    /**
+     * @param text - the text to move off heap
+     * @return the text stored in the arena or the same text when it can't be stored
+     */
+    public synchronized CharSequence store(CharSequence text) {
+        if (closed || text.length() > MAX_SEGMENT_CHARS) {
+            return text;
+        }
+        if (segment == null || segment.remaining() < text.length()) {
+            try {
+                mapSegment(Math.max(segmentChars, text.length()));
+            } catch (IOException e) {
+                log.warn("Unable to map the step data segment, the step data stays on heap: {}", e.toString());
+                return text;
+            }
+        }
+        int offset = segment.position();
+        if (text instanceof String) {
+            segment.put((String) text);
+        } else {
+            segment.put(CharBuffer.wrap(text));
+        }
+        return new Text(readOnlySegment, offset, text.length());
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        segment = null;
+        readOnlySegment = null;
+        // the stored texts still readable once the files removed, the mappings released with the texts
+        for (Path segmentFile : segmentFiles) {
+            try {
+                Files.deleteIfExists(segmentFile);
+            } catch (IOException e) {
+                log.debug("Unable to remove the step data segment '{}': {}", segmentFile, e.toString());
+            }
+        }
+        segmentFiles.clear();
+    }
+
+    private void mapSegment(int chars) throws IOException {
+        Path segmentFile;
+        if (directory == null) {
+            segmentFile = Files.createTempFile("sprimber-step-data", ".arena");
+        } else {
+            Files.createDirectories(directory);
+            segmentFile = Files.createTempFile(directory, "sprimber-step-data", ".arena");
+        }
+        segmentFiles.add(segmentFile);
+        segmentFile.toFile().deleteOnExit();
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) chars * Character.BYTES).asCharBuffer();
+        }
+        readOnlySegment = segment.asReadOnlyBuffer();
+        log.debug("Mapped the step data segment '{}' of '{}' chars", segmentFile, chars);
+    }
+
+    /**
+     * The text stored in the arena. The chars read directly from the segment, only {@link #toString()}
+     * copies the text to the heap
+     */
+    public static final class Text implements CharSequence {
+
+        private final CharBuffer segment;
+        private final int offset;
+        private final int length;
+
+        private Text(CharBuffer segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+            }
+            return segment.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return asCharBuffer().subSequence(start, end);
+        }
+
+        /**
+         * @return the read only view over the text without the copy
+         */
+        public CharBuffer asCharBuffer() {
+            CharBuffer view = segment.duplicate();
+            view.position(offset);
+            view.limit(offset + length);
+            return view.slice();
+        }
+
+        @Override
+        public String toString() {
+            return asCharBuffer().toString();
+        }
+    }
+}
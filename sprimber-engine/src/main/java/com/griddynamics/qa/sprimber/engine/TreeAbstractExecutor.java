@@ -0,0 +1,173 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.engine;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
+
+import static com.griddynamics.qa.sprimber.engine.Node.*;
+
+/**
+ * Common part of the tree executors.
+ * Holds the stage flow (before, children, target, after) and the sub stage invocation,
+ * while particular implementation decides how the child stages should be scheduled.
+ * Whatever the implementation passes to another thread decorated by the {@link TaskDecorator},
+ * so the thread-bound state of the stage, e.g. the scenario context, follows the stage
+ *
+ * @author fparamonov
+ */
+
+abstract class TreeAbstractExecutor implements TreeExecutor {
+
+    private static final String STARTED_EVENT_POSTFIX = "Started";
+    private static final String COMPLETED_EVENT_POSTFIX = "Completed";
+    private static final String ERROR_EVENT_POSTFIX = "Error";
+    protected final TreeExecutorContext context;
+    protected final NodeInvoker nodeInvoker;
+    protected final NodeExecutionEventsPublisher eventsPublisher;
+    protected final TaskDecorator taskDecorator;
+    private final Map<String, Consumer<Node>> eventsPublisherByName = new HashMap<>();
+
+    TreeAbstractExecutor(NodeInvoker nodeInvoker,
+                         TreeExecutorContext context,
+                         NodeExecutionEventsPublisher eventsPublisher,
+                         TaskDecorator taskDecorator) {
+        this.nodeInvoker = nodeInvoker;
+        this.context = context;
+        this.eventsPublisher = eventsPublisher;
+        this.taskDecorator = taskDecorator;
+        initEventPublisherMap(eventsPublisher);
+    }
+
+    private void initEventPublisherMap(NodeExecutionEventsPublisher eventsPublisher) {
+        eventsPublisherByName.put(BEFORE_SUB_NODE_NAME + STARTED_EVENT_POSTFIX, eventsPublisher::beforeNodeStarted);
+        eventsPublisherByName.put(BEFORE_SUB_NODE_NAME + COMPLETED_EVENT_POSTFIX, eventsPublisher::beforeNodeCompleted);
+        eventsPublisherByName.put(BEFORE_SUB_NODE_NAME + ERROR_EVENT_POSTFIX, eventsPublisher::beforeNodeError);
+        eventsPublisherByName.put(TARGET_SUB_NODE_NAME + STARTED_EVENT_POSTFIX, eventsPublisher::targetNodeStarted);
+        eventsPublisherByName.put(TARGET_SUB_NODE_NAME + COMPLETED_EVENT_POSTFIX, eventsPublisher::targetNodeCompleted);
+        eventsPublisherByName.put(TARGET_SUB_NODE_NAME + ERROR_EVENT_POSTFIX, eventsPublisher::targetNodeError);
+        eventsPublisherByName.put(AFTER_SUB_NODE_NAME + STARTED_EVENT_POSTFIX, eventsPublisher::afterNodeStarted);
+        eventsPublisherByName.put(AFTER_SUB_NODE_NAME + COMPLETED_EVENT_POSTFIX, eventsPublisher::afterNodeCompleted);
+        eventsPublisherByName.put(AFTER_SUB_NODE_NAME + ERROR_EVENT_POSTFIX, eventsPublisher::afterNodeError);
+    }
+
+    /**
+     * Opens the stage for the given node and invokes all before sub nodes.
+     * The child stages should be processed by implementation right after this call.
+     *
+     * @param node - holder node of the stage
+     */
+    void startStage(Node node) {
+        node.scheduleExecution();
+        context.startStage(node);
+        eventsPublisher.stageStarted(node);
+        invokeSubStage(node.beforeSpliterator(context.hasStageException(node)), BEFORE_SUB_NODE_NAME);
+    }
+
+    /**
+     * Invokes target and after sub nodes once all child stages completed and closes the stage.
+     *
+     * @param node - holder node of the stage
+     */
+    void finishStage(Node node) {
+        invokeSubStage(node.targetSpliterator(context.hasStageException(node)), TARGET_SUB_NODE_NAME);
+        invokeSubStage(node.afterSpliterator(context.hasStageException(node)), AFTER_SUB_NODE_NAME);
+        if (context.hasStageException(node)) {
+            node.completeExceptionally(context.getStageExceptions(node));
+            context.reportStageException(node);
+        } else if (node.isBypassed()) {
+            node.completeWithSkip();
+        } else {
+            node.completeSuccessfully();
+        }
+        eventsPublisher.stageFinished(node);
+        context.completeStage(node);
+    }
+
+    /**
+     * Actual invocation of the invokable sub node.
+     * Executors may override it to wrap the potentially blocking call
+     *
+     * @param subNode - node to invoke
+     * @throws Throwable - any error that happens during the invocation
+     */
+    void invoke(Node subNode) throws Throwable {
+        nodeInvoker.invoke(subNode);
+    }
+
+    private void invokeSubStage(Spliterator<Node> subNodesSpliterator, String stageName) {
+        StreamSupport.stream(subNodesSpliterator, false)
+                .forEach(subNode -> {
+                    subNode.prepareExecution();
+                    eventsPublisherByName.get(stageName + STARTED_EVENT_POSTFIX).accept(subNode);
+                    boolean skippedByCondition = subNode.getCondition().map(nodeInvoker::shouldSkip).orElse(false);
+                    if (subNode.isReadyForInvoke() && !skippedByCondition) {
+                        try {
+                            invoke(subNode);
+                            subNode.completeSuccessfully();
+                            eventsPublisherByName.get(stageName + COMPLETED_EVENT_POSTFIX).accept(subNode);
+                        } catch (Throwable throwable) {
+                            subNode.completeExceptionally(throwable);
+                            context.reportStageException(subNode);
+                            eventsPublisherByName.get(stageName + ERROR_EVENT_POSTFIX).accept(subNode);
+                        }
+                    }
+                    if (subNode.isBypassed() || skippedByCondition) {
+                        //// TODO: 2020-01-09 add callback for option to execute something extra for BYPASS mode
+                        subNode.completeWithSkip();
+                        eventsPublisherByName.get(stageName + COMPLETED_EVENT_POSTFIX).accept(subNode);
+                    }
+                });
+    }
+
+    /**
+     * Sort of a callback interface.
+     * Particular implementation will decide how to invoke the actual method
+     * depends on applicable fixture framework.
+     */
+    public interface NodeInvoker {
+
+        boolean shouldSkip(Node.Condition condition);
+
+        /**
+         * The implementation should care about the node invocation rather about the exception handling.
+         * Usually implementation can throw the status COMPLETED.
+         * The exception handling will be handled by executor in the next step.
+         *
+         * @param executableNode - target node for invocation
+         * @return - status of invocation, usually COMPLETED.
+         */
+        void invoke(Node executableNode);
+
+        default Status dryInvoke(Node executableNode) {
+            return Status.SKIP;
+        }
+    }
+}
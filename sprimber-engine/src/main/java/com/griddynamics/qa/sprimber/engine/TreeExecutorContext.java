@@ -24,82 +24,86 @@ $Id:
 
 package com.griddynamics.qa.sprimber.engine;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
+ * Tracks the state of the stages in progress.
+ * The state attached to the stage node itself, so the child reports the failure directly to the parent stage
+ * and the stage checks own state without any shared lock or lookup.
+ *
  * @author fparamonov
  */
 public class TreeExecutorContext {
 
-    private final Map<UUID, StageStatus> storage = new ConcurrentHashMap<>();
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Retention retention;
+
+    public TreeExecutorContext() {
+        this(Retention.FULL);
+    }
+
+    public TreeExecutorContext(Retention retention) {
+        this.retention = retention;
+    }
 
     void startStage(Node node) {
-        StageStatus stageStatus = new StageStatus();
-        lock.writeLock().lock();
-        try {
-            storage.put(node.getRuntimeId(), stageStatus);
-        } finally {
-            lock.writeLock().unlock();
-        }
+        node.setStageStatus(new StageStatus());
     }
 
     void completeStage(Node node) {
-        lock.writeLock().lock();
-        try {
-            storage.remove(node.getRuntimeId());
-        } finally {
-            lock.writeLock().unlock();
+        node.setStageStatus(null);
+        node.releaseStreamedStage();
+        if (Retention.COMPACT.equals(retention)) {
+            node.compact();
         }
     }
 
     void reportStageException(Node node) {
-        lock.writeLock().lock();
-        try {
-            Optional.ofNullable(storage.get(node.getParentId()))
-                    .ifPresent(stageStatus -> stageStatus.registerException(node.getThrowable().get()));
-        } finally {
-            lock.writeLock().unlock();
-        }
+        node.getParent()
+                .map(Node::getStageStatus)
+                .ifPresent(stageStatus -> stageStatus.registerException(node.getThrowable().get()));
     }
 
     boolean hasStageException(Node node) {
-        lock.readLock().lock();
-        try {
-            return storage.get(node.getRuntimeId()).hasExceptions();
-        } finally {
-            lock.readLock().unlock();
-        }
+        return node.getStageStatus().hasExceptions();
     }
 
-    // TODO: 2020-01-16 add support for multiply exceptions at node level
-    Throwable getStageException(Node node) {
-        lock.readLock().lock();
-        try {
-            return storage.get(node.getRuntimeId()).getFirstException();
-        } finally {
-            lock.readLock().unlock();
-        }
+    List<Throwable> getStageExceptions(Node node) {
+        return node.getStageStatus().getExceptions();
+    }
+
+    /**
+     * Defines what remains from the stage once it completed and all the events about it published
+     */
+    public enum Retention {
+        /**
+         * The whole subtree of the stage remains available as it was during the execution
+         */
+        FULL,
+        /**
+         * The stage turned to the compact result record and its subtree released,
+         * so the heap usage doesn't grow with the amount of executed stages
+         */
+        COMPACT
     }
 
     static class StageStatus {
-        private boolean hasExceptions;
-        private List<Throwable> exceptionList = new ArrayList<>();
+        private volatile boolean hasExceptions;
+        private final Queue<Throwable> exceptions = new ConcurrentLinkedQueue<>();
 
         boolean hasExceptions() {
             return hasExceptions;
         }
 
         void registerException(Throwable throwable) {
+            exceptions.add(throwable);
             this.hasExceptions = true;
-            exceptionList.add(throwable);
         }
 
-        Throwable getFirstException() {
-            return exceptionList.get(0);
+        List<Throwable> getExceptions() {
+            return new ArrayList<>(exceptions);
         }
     }
 }
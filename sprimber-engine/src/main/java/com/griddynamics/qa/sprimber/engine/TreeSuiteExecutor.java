@@ -25,6 +25,7 @@ $Id:
 package com.griddynamics.qa.sprimber.engine;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -32,49 +33,25 @@ import java.util.Optional;
 import java.util.Spliterator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.function.Consumer;
 import java.util.stream.StreamSupport;
 
-import static com.griddynamics.qa.sprimber.engine.Node.*;
-
 /**
  * @author fparamonov
  */
 
 @Slf4j
-class TreeSuiteExecutor implements TreeExecutor {
+class TreeSuiteExecutor extends TreeAbstractExecutor {
 
-    private static final String STARTED_EVENT_POSTFIX = "Started";
-    private static final String COMPLETED_EVENT_POSTFIX = "Completed";
-    private static final String ERROR_EVENT_POSTFIX = "Error";
     private static final String EXECUTOR_NAME_SUFFIX = "Executor";
-    private final TreeExecutorContext context;
-    private final NodeInvoker nodeInvoker;
-    private final NodeExecutionEventsPublisher eventsPublisher;
     private final Map<String, Executor> childExecutors = new HashMap<>();
-    private final Map<String, Consumer<Node>> eventsPublisherByName = new HashMap<>();
 
     public TreeSuiteExecutor(NodeInvoker nodeInvoker,
                              Map<String, Executor> childExecutors,
                              TreeExecutorContext context,
-                             NodeExecutionEventsPublisher eventsPublisher) {
-        this.nodeInvoker = nodeInvoker;
-        this.context = context;
-        this.eventsPublisher = eventsPublisher;
+                             NodeExecutionEventsPublisher eventsPublisher,
+                             TaskDecorator taskDecorator) {
+        super(nodeInvoker, context, eventsPublisher, taskDecorator);
         this.childExecutors.putAll(childExecutors);
-        initEventPublisherMap(eventsPublisher);
-    }
-
-    private void initEventPublisherMap(NodeExecutionEventsPublisher eventsPublisher) {
-        eventsPublisherByName.put(BEFORE_SUB_NODE_NAME + STARTED_EVENT_POSTFIX, eventsPublisher::beforeNodeStarted);
-        eventsPublisherByName.put(BEFORE_SUB_NODE_NAME + COMPLETED_EVENT_POSTFIX, eventsPublisher::beforeNodeCompleted);
-        eventsPublisherByName.put(BEFORE_SUB_NODE_NAME + ERROR_EVENT_POSTFIX, eventsPublisher::beforeNodeError);
-        eventsPublisherByName.put(TARGET_SUB_NODE_NAME + STARTED_EVENT_POSTFIX, eventsPublisher::targetNodeStarted);
-        eventsPublisherByName.put(TARGET_SUB_NODE_NAME + COMPLETED_EVENT_POSTFIX, eventsPublisher::targetNodeCompleted);
-        eventsPublisherByName.put(TARGET_SUB_NODE_NAME + ERROR_EVENT_POSTFIX, eventsPublisher::targetNodeError);
-        eventsPublisherByName.put(AFTER_SUB_NODE_NAME + STARTED_EVENT_POSTFIX, eventsPublisher::afterNodeStarted);
-        eventsPublisherByName.put(AFTER_SUB_NODE_NAME + COMPLETED_EVENT_POSTFIX, eventsPublisher::afterNodeCompleted);
-        eventsPublisherByName.put(AFTER_SUB_NODE_NAME + ERROR_EVENT_POSTFIX, eventsPublisher::afterNodeError);
     }
 
     @Override
@@ -83,49 +60,10 @@ class TreeSuiteExecutor implements TreeExecutor {
     }
 
     public void processStage(Node node) {
-        node.scheduleExecution();
-        context.startStage(node);
-        eventsPublisher.stageStarted(node);
-        invokeSubStage(node.beforeSpliterator(context.hasStageException(node)), BEFORE_SUB_NODE_NAME);
+        startStage(node);
         CompletableFuture subStageFuture = scheduleSubStage(node.childSpliterator(context.hasStageException(node)));
         subStageFuture.join();
-        invokeSubStage(node.targetSpliterator(context.hasStageException(node)), TARGET_SUB_NODE_NAME);
-        invokeSubStage(node.afterSpliterator(context.hasStageException(node)), AFTER_SUB_NODE_NAME);
-        if (context.hasStageException(node)) {
-            node.completeExceptionally(context.getStageException(node));
-            context.reportStageException(node);
-        } else if (node.isBypassed()) {
-            node.completeWithSkip();
-        } else {
-            node.completeSuccessfully();
-        }
-        eventsPublisher.stageFinished(node);
-        context.completeStage(node);
-    }
-
-    private void invokeSubStage(Spliterator<Node> subNodesSpliterator, String stageName) {
-        StreamSupport.stream(subNodesSpliterator, false)
-                .forEach(subNode -> {
-                    subNode.prepareExecution();
-                    eventsPublisherByName.get(stageName + STARTED_EVENT_POSTFIX).accept(subNode);
-                    boolean skippedByCondition = subNode.getCondition().map(nodeInvoker::shouldSkip).orElse(false);
-                    if (subNode.isReadyForInvoke() && !skippedByCondition) {
-                        try {
-                            nodeInvoker.invoke(subNode);
-                            subNode.completeSuccessfully();
-                            eventsPublisherByName.get(stageName + COMPLETED_EVENT_POSTFIX).accept(subNode);
-                        } catch (Throwable throwable) {
-                            subNode.completeExceptionally(throwable);
-                            context.reportStageException(subNode);
-                            eventsPublisherByName.get(stageName + ERROR_EVENT_POSTFIX).accept(subNode);
-                        }
-                    }
-                    if (subNode.isBypassed() || skippedByCondition) {
-                        //// TODO: 2020-01-09 add callback for option to execute something extra for BYPASS mode
-                        subNode.completeWithSkip();
-                        eventsPublisherByName.get(stageName + COMPLETED_EVENT_POSTFIX).accept(subNode);
-                    }
-                });
+        finishStage(node);
     }
 
     private CompletableFuture<Void> scheduleSubStage(Spliterator<Node> subNodesSpliterator) {
@@ -135,32 +73,7 @@ class TreeSuiteExecutor implements TreeExecutor {
 
     private CompletableFuture<Void> scheduleSubNode(Node node) {
         return Optional.ofNullable(childExecutors.get(node.getRole() + EXECUTOR_NAME_SUFFIX))
-                .map(executor -> CompletableFuture.runAsync(() -> processStage(node), executor))
+                .map(executor -> CompletableFuture.runAsync(taskDecorator.decorate(() -> processStage(node)), executor))
                 .orElseGet(() -> CompletableFuture.allOf().thenRun(() -> processStage(node)));
     }
-
-    /**
-     * Sort of a callback interface.
-     * Particular implementation will decide how to invoke the actual method
-     * depends on applicable fixture framework.
-     */
-    public interface NodeInvoker {
-
-        boolean shouldSkip(Node.Condition condition);
-
-        /**
-         * The implementation should care about the node invocation rather about the exception handling.
-         * Usually implementation can throw the status COMPLETED.
-         * The exception handling will be handled by executor in the next step.
-         *
-         * @param executableNode - target node for invocation
-         * @return - status of invocation, usually COMPLETED.
-         */
-        void invoke(Node executableNode);
-
-        default Status dryInvoke(Node executableNode) {
-            return Status.SKIP;
-        }
-    }
-
 }
@@ -24,9 +24,10 @@ $Id:
 
 package com.griddynamics.qa.sprimber.reporting;
 
+import com.griddynamics.qa.sprimber.engine.Node;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.event.EventListener;
 
+import java.util.EnumSet;
 import java.util.Set;
 
 /**
@@ -34,13 +35,23 @@ import java.util.Set;
  */
 
 @RequiredArgsConstructor
-public class ConditionalErrorPrinter {
+public class ConditionalErrorPrinter implements NodeLifecycleListener {
 
     private final Set<String> nonPrintableExceptions;
 
-    @EventListener
-    public void targetNodeError(SprimberEventPublisher.TargetNodeErrorEvent errorEvent) {
-        errorEvent.getNode().getThrowable()
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public Set<Event> getSubscribedEvents() {
+        return EnumSet.of(Event.TARGET_NODE_ERROR);
+    }
+
+    @Override
+    public void targetNodeError(Node node) {
+        node.getThrowable()
                 .filter(throwable -> !nonPrintableExceptions.contains(throwable.getClass().getName()))
                 .ifPresent(Throwable::printStackTrace);
     }
@@ -0,0 +1,176 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.reporting;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import com.griddynamics.qa.sprimber.engine.NodeExecutionEventsPublisher;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+
+import java.util.*;
+
+import static com.griddynamics.qa.sprimber.reporting.NodeLifecycleListener.Event.*;
+
+/**
+ * Publisher that delivers the node events directly to the {@link NodeLifecycleListener} beans.
+ * Listeners are resolved per adapter name and event kind once in the constructor,
+ * so the dispatch itself is a lookup of the prepared array and a loop over it.
+ * Closing the dispatcher closes the {@link RingBufferEventsPublisher} listeners it was created with.
+ *
+ * @author fparamonov
+ */
+public class NodeLifecycleDispatcher implements NodeExecutionEventsPublisher, AutoCloseable {
+
+    private static final int EVENTS_COUNT = NodeLifecycleListener.Event.values().length;
+
+    private final List<NodeLifecycleListener> listeners;
+    private final NodeLifecycleListener[][] commonListeners;
+    private final Map<String, NodeLifecycleListener[][]> listenersByAdapter = new HashMap<>();
+
+    public NodeLifecycleDispatcher(List<NodeLifecycleListener> listeners) {
+        List<NodeLifecycleListener> orderedListeners = new ArrayList<>(listeners);
+        AnnotationAwareOrderComparator.sort(orderedListeners);
+        this.listeners = orderedListeners;
+        this.commonListeners = groupByEvent(orderedListeners, null);
+        orderedListeners.stream()
+                .map(NodeLifecycleListener::getAdapterName)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(adapterName -> listenersByAdapter.put(adapterName, groupByEvent(orderedListeners, adapterName)));
+    }
+
+    @Override
+    public void stageStarted(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, STAGE_STARTED)) {
+            listener.stageStarted(node);
+        }
+    }
+
+    @Override
+    public void stageFinished(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, STAGE_FINISHED)) {
+            listener.stageFinished(node);
+        }
+    }
+
+    @Override
+    public void beforeNodeStarted(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, BEFORE_NODE_STARTED)) {
+            listener.beforeNodeStarted(node);
+        }
+    }
+
+    @Override
+    public void beforeNodeCompleted(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, BEFORE_NODE_COMPLETED)) {
+            listener.beforeNodeCompleted(node);
+        }
+    }
+
+    @Override
+    public void beforeNodeError(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, BEFORE_NODE_ERROR)) {
+            listener.beforeNodeError(node);
+        }
+    }
+
+    @Override
+    public void targetNodeStarted(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, TARGET_NODE_STARTED)) {
+            listener.targetNodeStarted(node);
+        }
+    }
+
+    @Override
+    public void targetNodeCompleted(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, TARGET_NODE_COMPLETED)) {
+            listener.targetNodeCompleted(node);
+        }
+    }
+
+    @Override
+    public void targetNodeError(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, TARGET_NODE_ERROR)) {
+            listener.targetNodeError(node);
+        }
+    }
+
+    @Override
+    public void afterNodeStarted(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, AFTER_NODE_STARTED)) {
+            listener.afterNodeStarted(node);
+        }
+    }
+
+    @Override
+    public void afterNodeCompleted(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, AFTER_NODE_COMPLETED)) {
+            listener.afterNodeCompleted(node);
+        }
+    }
+
+    @Override
+    public void afterNodeError(Node node) {
+        for (NodeLifecycleListener listener : listenersFor(node, AFTER_NODE_ERROR)) {
+            listener.afterNodeError(node);
+        }
+    }
+
+    @Override
+    public void flush() {
+        listeners.stream()
+                .filter(NodeExecutionEventsPublisher.class::isInstance)
+                .map(NodeExecutionEventsPublisher.class::cast)
+                .forEach(NodeExecutionEventsPublisher::flush);
+    }
+
+    @Override
+    public void close() {
+        listeners.stream()
+                .filter(RingBufferEventsPublisher.class::isInstance)
+                .map(RingBufferEventsPublisher.class::cast)
+                .forEach(RingBufferEventsPublisher::close);
+    }
+
+    private NodeLifecycleListener[] listenersFor(Node node, NodeLifecycleListener.Event event) {
+        String adapterName = node.getAdapterName();
+        NodeLifecycleListener[][] listeners = adapterName == null ? null : listenersByAdapter.get(adapterName);
+        return (listeners == null ? commonListeners : listeners)[event.ordinal()];
+    }
+
+    /**
+     * Build the listener arrays per event for the nodes of the given adapter,
+     * preserving the overall order of the listeners
+     */
+    private static NodeLifecycleListener[][] groupByEvent(List<NodeLifecycleListener> listeners, String adapterName) {
+        NodeLifecycleListener[][] listenersByEvent = new NodeLifecycleListener[EVENTS_COUNT][];
+        for (NodeLifecycleListener.Event event : NodeLifecycleListener.Event.values()) {
+            listenersByEvent[event.ordinal()] = listeners.stream()
+                    .filter(listener -> listener.getAdapterName() == null || listener.getAdapterName().equals(adapterName))
+                    .filter(listener -> listener.getSubscribedEvents().contains(event))
+                    .toArray(NodeLifecycleListener[]::new);
+        }
+        return listenersByEvent;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.reporting;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Direct listener of the node lifecycle. Implementations registered as beans are grouped
+ * by the adapter name and subscribed events once on startup by {@link NodeLifecycleDispatcher}
+ * and then invoked as plain method calls, without the Spring event infrastructure.
+ * Use {@link org.springframework.core.annotation.Order} to control the invocation order.
+ *
+ * @author fparamonov
+ */
+public interface NodeLifecycleListener {
+
+    /**
+     * @return name of the adapter which nodes are of interest for this listener
+     * or {@code null} to receive the events for the nodes of all adapters
+     */
+    default String getAdapterName() {
+        return null;
+    }
+
+    /**
+     * @return events this listener should be invoked for, evaluated once on startup
+     */
+    default Set<Event> getSubscribedEvents() {
+        return EnumSet.allOf(Event.class);
+    }
+
+    /**
+     * Listener that doesn't depend on the thread it is invoked from may be invoked asynchronously,
+     * when enabled by property {@code sprimber.configuration.events.async.enable}.
+     * In such case it receives the {@link Node#snapshot()} of the node instead of the node itself
+     *
+     * @return true if the events may be delivered to this listener from the dedicated thread
+     */
+    default boolean isAsyncSupported() {
+        return false;
+    }
+
+    default void stageStarted(Node node) {
+    }
+
+    default void stageFinished(Node node) {
+    }
+
+    default void beforeNodeStarted(Node node) {
+    }
+
+    default void beforeNodeCompleted(Node node) {
+    }
+
+    default void beforeNodeError(Node node) {
+    }
+
+    default void targetNodeStarted(Node node) {
+    }
+
+    default void targetNodeCompleted(Node node) {
+    }
+
+    default void targetNodeError(Node node) {
+    }
+
+    default void afterNodeStarted(Node node) {
+    }
+
+    default void afterNodeCompleted(Node node) {
+    }
+
+    default void afterNodeError(Node node) {
+    }
+
+    enum Event {
+        STAGE_STARTED,
+        STAGE_FINISHED,
+        BEFORE_NODE_STARTED,
+        BEFORE_NODE_COMPLETED,
+        BEFORE_NODE_ERROR,
+        TARGET_NODE_STARTED,
+        TARGET_NODE_COMPLETED,
+        TARGET_NODE_ERROR,
+        AFTER_NODE_STARTED,
+        AFTER_NODE_COMPLETED,
+        AFTER_NODE_ERROR
+    }
+}
@@ -0,0 +1,358 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.reporting;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import com.griddynamics.qa.sprimber.engine.NodeExecutionEventsPublisher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publisher that delivers the node events to the listeners from the single dedicated thread.
+ * The caller only captures the {@link Node#snapshot()} and puts it to the pre-allocated ring buffer,
+ * so the slow listeners like the ones writing the reports don't hold the test threads.
+ * <p>
+ * Any amount of threads may publish the events, each event claims the next sequence number
+ * and the consumer delivers the events strictly in the sequence order.
+ * Since the events of the same stage always published one after another,
+ * listeners observe them in the same order as they happened.
+ * <p>
+ * When the buffer is full the publisher either waits for the free slot ({@link BackPressure#BLOCK})
+ * or drops the event ({@link BackPressure#DISCARD}).
+ * The consumer waits for the new events according to the {@link WaitStrategy}.
+ * Call {@link #flush()} to wait until all the published events are delivered
+ * and {@link #close()} to deliver the rest of the events and stop the consumer thread.
+ *
+ * @author fparamonov
+ */
+
+@Slf4j
+public class RingBufferEventsPublisher implements NodeExecutionEventsPublisher, NodeLifecycleListener, AutoCloseable {
+
+    private static final int SPIN_TRIES = 100;
+    private static final long SLEEP_NANOS = 100_000L;
+    private static final long PRODUCER_PARK_NANOS = 1_000L;
+
+    private final NodeLifecycleDispatcher dispatcher;
+    private final Set<Event> subscribedEvents = EnumSet.noneOf(Event.class);
+    private final WaitStrategy waitStrategy;
+    private final BackPressure backPressure;
+    private final Slot[] slots;
+    private final int mask;
+    private final int indexShift;
+    /**
+     * Per slot number of the buffer round the slot was last published at, the slot is available
+     * for the consumer when the round matches the round of the sequence being consumed
+     */
+    private final AtomicIntegerArray publishedRounds;
+    private final AtomicLong claimedSequence = new AtomicLong(-1);
+    private final AtomicLong consumedSequence = new AtomicLong(-1);
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final Thread consumerThread;
+    private volatile boolean consumerWaiting;
+    private volatile boolean running = true;
+
+    public RingBufferEventsPublisher(List<NodeLifecycleListener> listeners, int bufferSize,
+                                     WaitStrategy waitStrategy, BackPressure backPressure) {
+        this.dispatcher = new NodeLifecycleDispatcher(listeners);
+        listeners.forEach(listener -> subscribedEvents.addAll(listener.getSubscribedEvents()));
+        this.waitStrategy = waitStrategy;
+        this.backPressure = backPressure;
+        int capacity = capacityFor(bufferSize);
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(capacity);
+        this.publishedRounds = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            publishedRounds.set(i, -1);
+        }
+        this.consumerThread = new Thread(this::consume, "SprimberEventsConsumer");
+        this.consumerThread.setDaemon(true);
+        this.consumerThread.start();
+    }
+
+    @Override
+    public Set<Event> getSubscribedEvents() {
+        return subscribedEvents;
+    }
+
+    @Override
+    public void stageStarted(Node node) {
+        publish(Event.STAGE_STARTED, node);
+    }
+
+    @Override
+    public void stageFinished(Node node) {
+        publish(Event.STAGE_FINISHED, node);
+    }
+
+    @Override
+    public void beforeNodeStarted(Node node) {
+        publish(Event.BEFORE_NODE_STARTED, node);
+    }
+
+    @Override
+    public void beforeNodeCompleted(Node node) {
+        publish(Event.BEFORE_NODE_COMPLETED, node);
+    }
+
+    @Override
+    public void beforeNodeError(Node node) {
+        publish(Event.BEFORE_NODE_ERROR, node);
+    }
+
+    @Override
+    public void targetNodeStarted(Node node) {
+        publish(Event.TARGET_NODE_STARTED, node);
+    }
+
+    @Override
+    public void targetNodeCompleted(Node node) {
+        publish(Event.TARGET_NODE_COMPLETED, node);
+    }
+
+    @Override
+    public void targetNodeError(Node node) {
+        publish(Event.TARGET_NODE_ERROR, node);
+    }
+
+    @Override
+    public void afterNodeStarted(Node node) {
+        publish(Event.AFTER_NODE_STARTED, node);
+    }
+
+    @Override
+    public void afterNodeCompleted(Node node) {
+        publish(Event.AFTER_NODE_COMPLETED, node);
+    }
+
+    @Override
+    public void afterNodeError(Node node) {
+        publish(Event.AFTER_NODE_ERROR, node);
+    }
+
+    @Override
+    public void flush() {
+        long lastClaimedSequence = claimedSequence.get();
+        while (consumedSequence.get() < lastClaimedSequence) {
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Deliver all the events published so far and stop the consumer thread.
+     * The publisher must not receive new events after close
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        flush();
+        running = false;
+        LockSupport.unpark(consumerThread);
+        try {
+            consumerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return amount of events dropped because of the full buffer with {@link BackPressure#DISCARD} policy
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    private void publish(Event event, Node node) {
+        Node snapshot = node.snapshot();
+        long sequence = BackPressure.DISCARD.equals(backPressure) ? tryClaim() : claim();
+        if (sequence < 0) {
+            discardedCount.incrementAndGet();
+            return;
+        }
+        int index = (int) sequence & mask;
+        Slot slot = slots[index];
+        slot.event = event;
+        slot.node = snapshot;
+        publishedRounds.set(index, (int) (sequence >>> indexShift));
+        if (consumerWaiting) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+
+    private long claim() {
+        long sequence = claimedSequence.incrementAndGet();
+        while (sequence - slots.length > consumedSequence.get()) {
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+        return sequence;
+    }
+
+    private long tryClaim() {
+        long current;
+        do {
+            current = claimedSequence.get();
+            if (current + 1 - slots.length > consumedSequence.get()) {
+                return -1;
+            }
+        } while (!claimedSequence.compareAndSet(current, current + 1));
+        return current + 1;
+    }
+
+    private boolean isPublished(long sequence) {
+        return publishedRounds.get((int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    private void consume() {
+        long nextSequence = 0;
+        int idleCounter = 0;
+        while (running) {
+            if (isPublished(nextSequence)) {
+                Slot slot = slots[(int) nextSequence & mask];
+                deliver(slot.event, slot.node);
+                slot.node = null;
+                consumedSequence.lazySet(nextSequence);
+                nextSequence++;
+                idleCounter = 0;
+            } else {
+                idleCounter = idle(nextSequence, idleCounter);
+            }
+        }
+    }
+
+    private int idle(long nextSequence, int idleCounter) {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                return idleCounter;
+            case YIELDING:
+                if (idleCounter < SPIN_TRIES) {
+                    return idleCounter + 1;
+                }
+                Thread.yield();
+                return idleCounter;
+            case SLEEPING:
+                if (idleCounter < SPIN_TRIES) {
+                    return idleCounter + 1;
+                }
+                LockSupport.parkNanos(SLEEP_NANOS);
+                return idleCounter;
+            default:
+                consumerWaiting = true;
+                if (running && !isPublished(nextSequence)) {
+                    LockSupport.park(this);
+                }
+                consumerWaiting = false;
+                return idleCounter;
+        }
+    }
+
+    private void deliver(Event event, Node node) {
+        try {
+            switch (event) {
+                case STAGE_STARTED:
+                    dispatcher.stageStarted(node);
+                    break;
+                case STAGE_FINISHED:
+                    dispatcher.stageFinished(node);
+                    break;
+                case BEFORE_NODE_STARTED:
+                    dispatcher.beforeNodeStarted(node);
+                    break;
+                case BEFORE_NODE_COMPLETED:
+                    dispatcher.beforeNodeCompleted(node);
+                    break;
+                case BEFORE_NODE_ERROR:
+                    dispatcher.beforeNodeError(node);
+                    break;
+                case TARGET_NODE_STARTED:
+                    dispatcher.targetNodeStarted(node);
+                    break;
+                case TARGET_NODE_COMPLETED:
+                    dispatcher.targetNodeCompleted(node);
+                    break;
+                case TARGET_NODE_ERROR:
+                    dispatcher.targetNodeError(node);
+                    break;
+                case AFTER_NODE_STARTED:
+                    dispatcher.afterNodeStarted(node);
+                    break;
+                case AFTER_NODE_COMPLETED:
+                    dispatcher.afterNodeCompleted(node);
+                    break;
+                case AFTER_NODE_ERROR:
+                    dispatcher.afterNodeError(node);
+                    break;
+            }
+        } catch (Throwable throwable) {
+            log.error("Listener failed on '{}' event for node '{}'", event, node.getName(), throwable);
+        }
+    }
+
+    private static int capacityFor(int bufferSize) {
+        if (bufferSize < 1 || bufferSize > 1 << 30) {
+            throw new IllegalArgumentException("Buffer size must be in range [1, 2^30], but was " + bufferSize);
+        }
+        return bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+    }
+
+    /**
+     * Pre-allocated holder of the event, reused for each round of the buffer
+     */
+    private static class Slot {
+        private Event event;
+        private Node node;
+    }
+
+    /**
+     * How the consumer waits for the new events:
+     * * BLOCKING - parks until the publisher wakes it up, lowest CPU usage
+     * * SLEEPING - spins for a while and then checks periodically with short pauses
+     * * YIELDING - spins for a while and then yields to other threads
+     * * BUSY_SPIN - spins constantly, lowest latency for the price of the whole CPU core
+     */
+    public enum WaitStrategy {
+        BLOCKING, SLEEPING, YIELDING, BUSY_SPIN
+    }
+
+    /**
+     * What to do with the new event when the buffer is full:
+     * * BLOCK - the publisher waits until the consumer frees the slot
+     * * DISCARD - the event is dropped and counted, the publisher proceeds immediately
+     */
+    public enum BackPressure {
+        BLOCK, DISCARD
+    }
+}
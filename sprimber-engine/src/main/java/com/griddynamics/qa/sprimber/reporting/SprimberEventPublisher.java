@@ -25,16 +25,19 @@ $Id:
 package com.griddynamics.qa.sprimber.reporting;
 
 import com.griddynamics.qa.sprimber.engine.Node;
-import com.griddynamics.qa.sprimber.engine.NodeExecutionEventsPublisher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 
 /**
+ * Bridge that republishes the node lifecycle as Spring application events,
+ * so the {@link org.springframework.context.event.EventListener} methods still can be used.
+ * Disabled by default, use property {@code sprimber.configuration.events.bridge.enable} to enable it
+ *
  * @author fparamonov
  */
 
 @RequiredArgsConstructor
-public class SprimberEventPublisher implements NodeExecutionEventsPublisher {
+public class SprimberEventPublisher implements NodeLifecycleListener {
 
     private final ApplicationEventPublisher eventPublisher;
 
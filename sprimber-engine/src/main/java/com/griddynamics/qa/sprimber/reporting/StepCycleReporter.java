@@ -24,29 +24,41 @@ $Id:
 
 package com.griddynamics.qa.sprimber.reporting;
 
+import com.griddynamics.qa.sprimber.engine.Node;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * @author fparamonov
  */
 
 @Slf4j
-public class StepCycleReporter {
+public class StepCycleReporter implements NodeLifecycleListener {
+
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public Set<Event> getSubscribedEvents() {
+        return EnumSet.of(Event.TARGET_NODE_STARTED, Event.TARGET_NODE_COMPLETED, Event.TARGET_NODE_ERROR);
+    }
 
-    @EventListener
-    public void targetNodeStarted(SprimberEventPublisher.TargetNodeStartedEvent startedEvent) {
-        log.info("Starting step '{}'", startedEvent.getNode().getName());
+    @Override
+    public void targetNodeStarted(Node node) {
+        log.info("Starting step '{}'", node.getName());
     }
 
-    @EventListener
-    public void targetNodeCompleted(SprimberEventPublisher.TargetNodeCompletedEvent completedEvent) {
-        log.info("Completed step '{}' with state '{}'",
-                completedEvent.getNode().getName(), completedEvent.getNode().getCurrentState());
+    @Override
+    public void targetNodeCompleted(Node node) {
+        log.info("Completed step '{}' with state '{}'", node.getName(), node.getCurrentState());
     }
 
-    @EventListener
-    public void targetNodeError(SprimberEventPublisher.TargetNodeErrorEvent errorEvent) {
-        log.info("Step '{}' completed with error", errorEvent.getNode().getName());
+    @Override
+    public void targetNodeError(Node node) {
+        log.info("Step '{}' completed with error", node.getName());
     }
 }
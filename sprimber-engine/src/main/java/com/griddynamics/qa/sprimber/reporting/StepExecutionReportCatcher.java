@@ -24,13 +24,13 @@ $Id:
 
 package com.griddynamics.qa.sprimber.reporting;
 
+import com.griddynamics.qa.sprimber.engine.Node;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.util.DigestUtils;
 
 import java.lang.reflect.Method;
 
@@ -45,7 +45,7 @@ public class StepExecutionReportCatcher {
     private static SprimberEventPublisher eventPublisher;
 //    private static SpringTestMethodsLoader stepDefinitionsFactory;
 
-    @Autowired
+    @Autowired(required = false)
     public void setEventPublisher(SprimberEventPublisher eventPublisher) {
         StepExecutionReportCatcher.eventPublisher = eventPublisher;
     }
@@ -130,6 +130,6 @@ public class StepExecutionReportCatcher {
         String uniqueName = method.getDeclaringClass().getCanonicalName() + "#" +
                 method.getName() + "#" +
                 method.getParameterCount();
-        return DigestUtils.md5DigestAsHex(uniqueName.getBytes());
+        return Node.stableIdOf(uniqueName);
     }
 }
@@ -28,11 +28,12 @@ import com.griddynamics.qa.sprimber.engine.Node;
 import com.griddynamics.qa.sprimber.runtime.ExecutionContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.core.NamedThreadLocal;
 
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -47,12 +48,16 @@ import java.util.stream.IntStream;
 
 @Slf4j
 @RequiredArgsConstructor
-public abstract class TestSummaryPrinter {
+public abstract class TestSummaryPrinter implements NodeLifecycleListener {
+
+    /**
+     * Indentation of the test report rows starts from this level regardless of the test position in the tree
+     */
+    private static final int TEST_DEPTH_LEVEL = 2;
 
     private final ExecutionContext executionContext;
 
-    private final ThreadLocal<StringBuilder> reportBuilder = new NamedThreadLocal<>("Testcase report builder");
-    private final ThreadLocal<Integer> depthLevelThreadLocal = new ThreadLocal<>();
+    private final Map<Long, TestReport> reportsByTestId = new ConcurrentHashMap<>();
     private final AtomicInteger executedCount = new AtomicInteger(0);
     private final AtomicInteger exceptionsCount = new AtomicInteger(0);
 
@@ -65,82 +70,100 @@ public abstract class TestSummaryPrinter {
      */
     abstract boolean isNodeBelongsToTest(Node node);
 
-    @EventListener
-    public void containerNodeStarted(SprimberEventPublisher.ContainerNodeStartedEvent startedEvent) {
-        increaseDepthLevel();
-        if (isNodeOfRoleTest(startedEvent.getNode())) {
-            doWithTestStart(startedEvent.getNode());
+    /**
+     * The report kept per test instead of the thread, so the events may come from any thread
+     */
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public Set<Event> getSubscribedEvents() {
+        return EnumSet.complementOf(EnumSet.of(Event.BEFORE_NODE_STARTED, Event.AFTER_NODE_STARTED));
+    }
+
+    @Override
+    public void stageStarted(Node node) {
+        if (isNodeOfRoleTest(node)) {
+            doWithTestStart(node);
+        } else {
+            findReport(node).ifPresent(TestReport::increaseDepthLevel);
         }
     }
 
-    @EventListener
-    public void containerNodeFinished(SprimberEventPublisher.ContainerNodeFinishedEvent finishedEvent) {
-        decreaseDepthLevel();
-        if (isNodeOfRoleTest(finishedEvent.getNode())) {
-            doWithTestFinish(finishedEvent.getNode());
+    @Override
+    public void stageFinished(Node node) {
+        if (isNodeOfRoleTest(node)) {
+            doWithTestFinish(node);
+        } else {
+            findReport(node).ifPresent(TestReport::decreaseDepthLevel);
         }
     }
 
-    @EventListener
-    public void targetNodeStarted(SprimberEventPublisher.TargetNodeStartedEvent startedEvent) {
-        increaseDepthLevel();
+    @Override
+    public void targetNodeStarted(Node node) {
+        findReport(node).ifPresent(TestReport::increaseDepthLevel);
     }
 
-    @EventListener
-    public void targetNodeCompleted(SprimberEventPublisher.TargetNodeCompletedEvent completedEvent) {
-        addSuccessNodeRow(completedEvent.getNode());
-        decreaseDepthLevel();
+    @Override
+    public void targetNodeCompleted(Node node) {
+        addSuccessNodeRow(node);
+        findReport(node).ifPresent(TestReport::decreaseDepthLevel);
     }
 
-    @EventListener
-    public void targetNodeError(SprimberEventPublisher.TargetNodeErrorEvent errorEvent) {
-        addErrorNodeRow(errorEvent.getNode());
-        decreaseDepthLevel();
+    @Override
+    public void targetNodeError(Node node) {
+        addErrorNodeRow(node);
+        findReport(node).ifPresent(TestReport::decreaseDepthLevel);
     }
 
-    @EventListener
-    public void beforeNodeCompleted(SprimberEventPublisher.BeforeNodeCompletedEvent completedEvent) {
-        addSuccessNodeRow(completedEvent.getNode());
+    @Override
+    public void beforeNodeCompleted(Node node) {
+        addSuccessNodeRow(node);
     }
 
-    @EventListener
-    public void beforeNodeError(SprimberEventPublisher.BeforeNodeErrorEvent errorEvent) {
-        addErrorNodeRow(errorEvent.getNode());
+    @Override
+    public void beforeNodeError(Node node) {
+        addErrorNodeRow(node);
     }
 
-    @EventListener
-    public void afterNodeCompleted(SprimberEventPublisher.AfterNodeCompletedEvent completedEvent) {
-        addSuccessNodeRow(completedEvent.getNode());
+    @Override
+    public void afterNodeCompleted(Node node) {
+        addSuccessNodeRow(node);
     }
 
-    @EventListener
-    public void afterNodeError(SprimberEventPublisher.AfterNodeErrorEvent errorEvent) {
-        addErrorNodeRow(errorEvent.getNode());
+    @Override
+    public void afterNodeError(Node node) {
+        addErrorNodeRow(node);
     }
 
     private void addSuccessNodeRow(Node node) {
         if (!isNodeBelongsToTest(node)) return;
-        StringBuilder stringBuilder = reportBuilder.get();
-        stringBuilder.append("\n")
-                .append(getIndents())
-                .append(String.format(" %s", node.getName()))
-                .append(String.format(" (%s) ", node.getCurrentState()));
-        printMethodParameters(node.getMethodParameters());
+        findReport(node).ifPresent(testReport -> {
+            testReport.builder.append("\n")
+                    .append(testReport.getIndents())
+                    .append(String.format(" %s", node.getName()))
+                    .append(String.format(" (%s) ", node.getCurrentState()));
+            printMethodParameters(testReport.builder, node.getMethodParameters());
+        });
     }
 
     private void addErrorNodeRow(Node node) {
         if (!isNodeBelongsToTest(node)) return;
         exceptionsCount.incrementAndGet();
-        StringBuilder stringBuilder = reportBuilder.get();
-        stringBuilder.append("\n")
-                .append(getIndents())
-                .append(String.format(" %s", node.getName()))
-                .append(String.format(" (%s) \n", node.getCurrentState()));
-        node.getThrowable().ifPresent(throwable -> stringBuilder.append(String.format("Description: %s ", throwable.getLocalizedMessage())));
-    }
-
-    private void printMethodParameters(Map<String, Object> parameters) {
-        parameters.forEach((k, v) -> reportBuilder.get()
+        findReport(node).ifPresent(testReport -> {
+            StringBuilder stringBuilder = testReport.builder;
+            stringBuilder.append("\n")
+                    .append(testReport.getIndents())
+                    .append(String.format(" %s", node.getName()))
+                    .append(String.format(" (%s) \n", node.getCurrentState()));
+            node.getThrowable().ifPresent(throwable -> stringBuilder.append(String.format("Description: %s ", throwable.getLocalizedMessage())));
+        });
+    }
+
+    private void printMethodParameters(StringBuilder stringBuilder, Map<String, Object> parameters) {
+        parameters.forEach((k, v) -> stringBuilder
                 .append("\nValue:\n")
                 .append(v));
     }
@@ -150,12 +173,14 @@ public abstract class TestSummaryPrinter {
         stringBuilder.append("\n\n")
                 .append(String.format("Completed: '%s'", containerNode.getName()))
                 .append(" with status {STATUS}");
-        reportBuilder.set(stringBuilder);
+        reportsByTestId.put(containerNode.getRuntimeId(), new TestReport(stringBuilder, TEST_DEPTH_LEVEL));
     }
 
     private void doWithTestFinish(Node containerNode) {
         executedCount.incrementAndGet();
-        StringBuilder stringBuilder = reportBuilder.get();
+        TestReport testReport = reportsByTestId.remove(containerNode.getRuntimeId());
+        if (testReport == null) return;
+        StringBuilder stringBuilder = testReport.builder;
         stringBuilder.append("\n")
                 .append(String.format("Executed '%d' out of '%d'", executedCount.get(), executionContext.getStatistic().preparedCountByStage("test")))
                 .append(String.format("\nCurrent pass rate %.2f%%", getPassedRate()))
@@ -163,30 +188,49 @@ public abstract class TestSummaryPrinter {
         String summaryRaw = stringBuilder.toString();
         String summary = summaryRaw.replaceFirst("\\{STATUS}", String.valueOf(containerNode.getCurrentState()));
         log.info(summary);
-        reportBuilder.remove();
     }
 
     private double getPassedRate() {
         return (1.0 - (double) exceptionsCount.get() / (double) executionContext.getStatistic().preparedCountByStage("test")) * 100;
     }
 
-    private String getIndents() {
-        return IntStream.rangeClosed(0, depthLevelThreadLocal.get()).mapToObj(i -> "\t").collect(Collectors.joining());
+    /**
+     * Look for the report of the test this node belongs to, the node itself may be the test
+     */
+    private Optional<TestReport> findReport(Node node) {
+        for (Node current = node; current != null; current = current.getParent().orElse(null)) {
+            TestReport testReport = reportsByTestId.get(current.getRuntimeId());
+            if (testReport != null) {
+                return Optional.of(testReport);
+            }
+        }
+        return Optional.empty();
     }
 
-    private void increaseDepthLevel() {
-        int currentLevel = Optional.ofNullable(depthLevelThreadLocal.get()).orElse(1);
-        currentLevel++;
-        depthLevelThreadLocal.set(currentLevel);
+    private String buildExceptionMessage(Throwable throwable) {
+        return Optional.ofNullable(throwable.getMessage()).orElse(throwable.getClass().getName());
     }
 
-    private void decreaseDepthLevel() {
-        int currentLevel = Optional.ofNullable(depthLevelThreadLocal.get()).orElse(1);
-        currentLevel--;
-        depthLevelThreadLocal.set(currentLevel);
-    }
+    private static class TestReport {
 
-    private String buildExceptionMessage(Throwable throwable) {
-        return Optional.ofNullable(throwable.getMessage()).orElse(throwable.getClass().getName());
+        private final StringBuilder builder;
+        private int depthLevel;
+
+        private TestReport(StringBuilder builder, int depthLevel) {
+            this.builder = builder;
+            this.depthLevel = depthLevel;
+        }
+
+        private String getIndents() {
+            return IntStream.rangeClosed(0, depthLevel).mapToObj(i -> "\t").collect(Collectors.joining());
+        }
+
+        private void increaseDepthLevel() {
+            depthLevel++;
+        }
+
+        private void decreaseDepthLevel() {
+            depthLevel--;
+        }
     }
 }
@@ -24,6 +24,7 @@ $Id:
 
 package com.griddynamics.qa.sprimber.runtime;
 
+import com.griddynamics.qa.sprimber.engine.NodeExecutionEventsPublisher;
 import com.griddynamics.qa.sprimber.engine.TreeExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -40,9 +41,18 @@ class CliExecutor implements ApplicationRunner {
 
     private final ExecutionContext executionContext;
     private final TreeExecutor treeSuiteExecutor;
+    private final NodeExecutionEventsPublisher eventsPublisher;
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
-        executionContext.getNodes().forEach(treeSuiteExecutor::executeRoot);
+        try {
+            executionContext.getNodes().forEach(node -> {
+                treeSuiteExecutor.executeRoot(node);
+                // surface the failure of the discovery that was streaming the nodes during the execution
+                node.getDiscoveryCompletion().join();
+            });
+        } finally {
+            eventsPublisher.flush();
+        }
     }
 }
@@ -24,14 +24,17 @@ $Id:
 
 package com.griddynamics.qa.sprimber.runtime;
 
+import com.griddynamics.qa.sprimber.configuration.SprimberProperties;
 import com.griddynamics.qa.sprimber.discovery.TestSuiteDiscovery;
 import com.griddynamics.qa.sprimber.engine.Node;
 import com.griddynamics.qa.sprimber.stepdefinition.StepClassAnnotationsProvider;
+import com.griddynamics.qa.sprimber.stepdefinition.StepMethodIndex;
 import com.griddynamics.qa.sprimber.stepdefinition.TestMethodsBulkLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.config.AbstractFactoryBean;
 import org.springframework.context.ApplicationContext;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StopWatch;
 
 import java.lang.annotation.Annotation;
@@ -54,6 +57,8 @@ public class ExecutionContextFactory extends AbstractFactoryBean<ExecutionContex
     private final TestMethodsBulkLoader bulkLoader;
     private final List<StepClassAnnotationsProvider> stepClassAnnotationsProviders;
     private final List<TestSuiteDiscovery> testSuiteDiscoveries;
+    private final SprimberProperties sprimberProperties;
+    private final StepMethodIndex stepMethodIndex;
 
     @Override
     public Class<?> getObjectType() {
@@ -66,24 +71,49 @@ public class ExecutionContextFactory extends AbstractFactoryBean<ExecutionContex
         stopWatch.start();
         ExecutionContext executionContext = new ExecutionContext();
         bulkLoader.load(getMethodCandidates());
-        executionContext.getNodes().addAll(exploreNodes());
-        TestSuiteDiscovery.Statistic discoveryInfo = joinStatistic();
-        executionContext.getStatistic().putAll(discoveryInfo);
-        logTotalDiscoveryResults(discoveryInfo);
+        SprimberProperties.Streaming streaming = sprimberProperties.getDiscovery().getStreaming();
+        if (streaming.isEnable()) {
+            testSuiteDiscoveries.forEach(discovery -> discovery.getDiscoveredInfo().aggregateTo(executionContext.getStatistic()));
+            executionContext.getNodes().addAll(streamNodes(streaming.getBufferSize()));
+            log.info("Test discovery continues in the background");
+        } else {
+            executionContext.getNodes().addAll(exploreNodes());
+            TestSuiteDiscovery.Statistic discoveryInfo = joinStatistic();
+            executionContext.getStatistic().putAll(discoveryInfo);
+            logTotalDiscoveryResults(discoveryInfo);
+        }
         stopWatch.stop();
         log.debug("Initial setup took: '{}' seconds", stopWatch.getTotalTimeSeconds());
         return executionContext;
     }
 
     private Stream<Method> getMethodCandidates() {
-        Map<String, Object> targetBeans = new HashMap<>();
         List<Class<? extends Annotation>> allMarkerAnnotations = stepClassAnnotationsProviders.stream()
                 .map(StepClassAnnotationsProvider::provide)
                 .flatMap(Collection::stream)
                 .collect(Collectors.toList());
-        allMarkerAnnotations.forEach(aClass -> targetBeans.putAll(applicationContext.getBeansWithAnnotation(aClass)));
-        return targetBeans.values().stream()
-                .flatMap(bean -> Arrays.stream(bean.getClass().getDeclaredMethods()));
+        Set<Class<?>> stepBeanTypes = getStepBeanTypes(allMarkerAnnotations);
+        if (sprimberProperties.getDiscovery().getStepIndex().isEnable()) {
+            Optional<List<Method>> indexedMethods = stepMethodIndex.loadMethods(stepBeanTypes);
+            if (indexedMethods.isPresent()) {
+                return indexedMethods.get().stream();
+            }
+        }
+        return stepBeanTypes.stream()
+                .flatMap(stepBeanType -> Arrays.stream(stepBeanType.getDeclaredMethods()));
+    }
+
+    /**
+     * Resolves the types of the step beans from the bean definitions, so the beans aren't created just to find
+     * the step definitions
+     */
+    private Set<Class<?>> getStepBeanTypes(List<Class<? extends Annotation>> markerAnnotations) {
+        return markerAnnotations.stream()
+                .flatMap(markerAnnotation -> Arrays.stream(applicationContext.getBeanNamesForAnnotation(markerAnnotation)))
+                .map(applicationContext::getType)
+                .filter(Objects::nonNull)
+                .map(ClassUtils::getUserClass)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     private List<Node> exploreNodes() {
@@ -92,6 +122,13 @@ public class ExecutionContextFactory extends AbstractFactoryBean<ExecutionContex
                 .collect(Collectors.toList());
     }
 
+    private List<Node> streamNodes(int bufferSize) {
+        return testSuiteDiscoveries.stream()
+                .peek(discovery -> log.debug("Started streaming test discovery from '{}'", discovery.name()))
+                .map(discovery -> discovery.discoverStreaming(bufferSize))
+                .collect(Collectors.toList());
+    }
+
     private Node discoverRootNodeAndLog(TestSuiteDiscovery discovery) {
         log.debug("Started test discovery from '{}'", discovery.name());
         Node rootNode = discovery.discover();
@@ -103,7 +140,7 @@ public class ExecutionContextFactory extends AbstractFactoryBean<ExecutionContex
     private TestSuiteDiscovery.Statistic joinStatistic() {
         return testSuiteDiscoveries.stream()
                 .map(TestSuiteDiscovery::getDiscoveredInfo)
-                .collect(TestSuiteDiscovery.Statistic::new, TestSuiteDiscovery.Statistic::accumulate, HashMap::putAll);
+                .collect(TestSuiteDiscovery.Statistic::new, TestSuiteDiscovery.Statistic::accumulate, TestSuiteDiscovery.Statistic::accumulate);
     }
 
     private void logTotalDiscoveryResults(TestSuiteDiscovery.Statistic statistic) {
@@ -24,11 +24,16 @@ $Id:
 
 package com.griddynamics.qa.sprimber.scope;
 
-import com.griddynamics.qa.sprimber.reporting.SprimberEventPublisher;
+import com.griddynamics.qa.sprimber.engine.Node;
+import com.griddynamics.qa.sprimber.reporting.NodeLifecycleListener;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.support.AbstractBeanFactory;
-import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Kind of event listener that monitor test case start and finish events.
@@ -37,21 +42,27 @@ import org.springframework.context.event.EventListener;
  * @author fparamonov
  */
 
+@Order(Ordered.HIGHEST_PRECEDENCE)
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
-public class FlowOrchestrator {
+public class FlowOrchestrator implements NodeLifecycleListener {
 
     private final AbstractBeanFactory beanFactory;
 
-    @EventListener
-    public void containerNodeStarted(SprimberEventPublisher.ContainerNodeStartedEvent startedEvent) {
-        if ("test".equals(startedEvent.getNode().getRole())) {
-            TestCaseContextHolder.setupNewContext(startedEvent.getNode().getRuntimeId().toString());
+    @Override
+    public Set<Event> getSubscribedEvents() {
+        return EnumSet.of(Event.STAGE_STARTED, Event.STAGE_FINISHED);
+    }
+
+    @Override
+    public void stageStarted(Node node) {
+        if ("test".equals(node.getRole())) {
+            TestCaseContextHolder.setupNewContext(node.getExternalId());
         }
     }
 
-    @EventListener
-    public void containerNodeFinished(SprimberEventPublisher.ContainerNodeFinishedEvent finishedEvent) {
-        if ("test".equals(finishedEvent.getNode().getRole())) {
+    @Override
+    public void stageFinished(Node node) {
+        if ("test".equals(node.getRole())) {
             TestCaseContextHolder.cleanContext(beanFactory);
         }
     }
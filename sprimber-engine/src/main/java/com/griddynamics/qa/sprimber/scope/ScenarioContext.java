@@ -0,0 +1,124 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.scope;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Handle of the scenario context, so the scenario scoped beans follow the scenario work to the other threads.
+ * The handle captured on the thread that runs the scenario and attached to the thread that continues the work,
+ * e.g. the child stage scheduled to another executor or the asynchronous part of the step.
+ * The attachment restores the context the thread had before once closed, so nothing leaks to the next pooled task.
+ * <pre>{@code
+ * ScenarioContext scenarioContext = ScenarioContext.capture();
+ * CompletableFuture.runAsync(() -> checkout.submit(), scenarioContext.wrap(executor));
+ * }</pre>
+ *
+ * @author fparamonov
+ */
+
+public final class ScenarioContext {
+
+    private static final ScenarioContext EMPTY = new ScenarioContext(null);
+    private static final Attachment NOTHING_ATTACHED = () -> {
+    };
+
+    private final TestCaseContext testCaseContext;
+
+    private ScenarioContext(TestCaseContext testCaseContext) {
+        this.testCaseContext = testCaseContext;
+    }
+
+    /**
+     * @return the context of the scenario that runs on the current thread or the empty one outside of the scenario
+     */
+    public static ScenarioContext capture() {
+        TestCaseContext currentContext = TestCaseContextHolder.getCurrentContext();
+        return currentContext == null ? EMPTY : new ScenarioContext(currentContext);
+    }
+
+    public boolean isEmpty() {
+        return testCaseContext == null;
+    }
+
+    /**
+     * Remembers the context of the calling thread. Unlike {@link #attach()} the context restored on close
+     * even when the work in between finished the scenario or started the new one
+     *
+     * @return the attachment to close once the work completed
+     */
+    public static Attachment preserve() {
+        TestCaseContext previousContext = TestCaseContextHolder.getCurrentContext();
+        return () -> TestCaseContextHolder.setContext(previousContext);
+    }
+
+    /**
+     * Makes this context current for the calling thread, the empty context detaches the thread from any scenario.
+     * The thread that already in this scenario left as is, so the scenario that finishes within the attachment
+     * stays finished. Otherwise the previous context restored on close, including the empty one,
+     * so the scenario that starts within the attachment doesn't stay on the thread
+     *
+     * @return the attachment to close once the work completed
+     */
+    public Attachment attach() {
+        TestCaseContext previousContext = TestCaseContextHolder.getCurrentContext();
+        if (testCaseContext != null && previousContext == testCaseContext) {
+            return NOTHING_ATTACHED;
+        }
+        TestCaseContextHolder.setContext(testCaseContext);
+        return () -> TestCaseContextHolder.setContext(previousContext);
+    }
+
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            try (Attachment ignored = attach()) {
+                task.run();
+            }
+        };
+    }
+
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> {
+            try (Attachment ignored = attach()) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * @return the executor that runs every task in this context
+     */
+    public Executor wrap(Executor executor) {
+        return command -> executor.execute(wrap(command));
+    }
+
+    @FunctionalInterface
+    public interface Attachment extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -31,7 +31,8 @@ import org.springframework.core.NamedThreadLocal;
 
 /**
  * Holder for test case context. Provided basic management functions to clean up the state for test case
- * for current scenario, set new state for scenario and retrieve back current test case context
+ * for current scenario, set new state for scenario and retrieve back current test case context.
+ * The context bound to the thread, use {@link ScenarioContext} to carry it to the other threads
  *
  * @author fparamonov
  */
@@ -54,7 +55,11 @@ final class TestCaseContextHolder {
     }
 
     static void setContext(TestCaseContext context) {
-        TEST_CASE_OBJECTS_HOLDER.set(context);
+        if (context == null) {
+            TEST_CASE_OBJECTS_HOLDER.remove();
+        } else {
+            TEST_CASE_OBJECTS_HOLDER.set(context);
+        }
     }
 
     static TestCaseContext getCurrentContext() {
@@ -0,0 +1,115 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.stepdefinition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Marks the singleton step beans as lazy, so the step classes and their dependencies created only when
+ * the selected test case invokes the step for the first time instead of the context startup.
+ * The step beans are recognized by the markers of {@link StepClassAnnotationsProvider}s from the bean definitions,
+ * the beans declared with the factory methods are left as is since their type isn't known without the factory.
+ * The provider beans themselves aren't created that early, the markers are taken from the detached instances
+ * of the provider classes, so the providers are expected to be stateless and have the default constructor
+ *
+ * @author fparamonov
+ */
+
+@Slf4j
+public class LazyStepBeansPostProcessor implements BeanFactoryPostProcessor {
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        List<Class<? extends Annotation>> markerAnnotations = Arrays.stream(beanFactory.getBeanNamesForType(StepClassAnnotationsProvider.class, false, false))
+                .map(beanName -> getMarkersProvider(beanFactory, beanName))
+                .filter(Objects::nonNull)
+                .map(StepClassAnnotationsProvider::provide)
+                .flatMap(Collection::stream)
+                .distinct()
+                .collect(Collectors.toList());
+        long lazyStepBeans = Arrays.stream(beanFactory.getBeanDefinitionNames())
+                .map(beanFactory::getBeanDefinition)
+                .filter(beanDefinition -> beanDefinition.isSingleton() && !beanDefinition.isLazyInit())
+                .filter(beanDefinition -> isStepBean(beanDefinition, markerAnnotations, beanFactory.getBeanClassLoader()))
+                .peek(beanDefinition -> beanDefinition.setLazyInit(true))
+                .count();
+        log.debug("'{}' step beans will be created on demand", lazyStepBeans);
+    }
+
+    private StepClassAnnotationsProvider getMarkersProvider(ConfigurableListableBeanFactory beanFactory, String beanName) {
+        if (beanFactory.containsSingleton(beanName)) {
+            return beanFactory.getBean(beanName, StepClassAnnotationsProvider.class);
+        }
+        Class<?> providerClass = beanFactory.getType(beanName);
+        try {
+            return providerClass == null ? null : (StepClassAnnotationsProvider) BeanUtils.instantiateClass(providerClass);
+        } catch (BeanInstantiationException e) {
+            log.warn("Markers of '{}' provider unavailable without the bean creation, the step beans of these markers " +
+                    "will be created at startup", beanName);
+            log.debug("Markers provider instantiation failed", e);
+            return null;
+        }
+    }
+
+    private boolean isStepBean(BeanDefinition beanDefinition, List<Class<? extends Annotation>> markerAnnotations,
+                               ClassLoader classLoader) {
+        if (beanDefinition.getFactoryMethodName() != null) {
+            return false;
+        }
+        if (beanDefinition instanceof AnnotatedBeanDefinition) {
+            AnnotationMetadata metadata = ((AnnotatedBeanDefinition) beanDefinition).getMetadata();
+            return markerAnnotations.stream()
+                    .map(Class::getName)
+                    .anyMatch(markerName -> metadata.hasAnnotation(markerName) || metadata.hasMetaAnnotation(markerName));
+        }
+        String beanClassName = beanDefinition.getBeanClassName();
+        if (beanClassName == null) {
+            return false;
+        }
+        try {
+            Class<?> beanClass = ClassUtils.forName(beanClassName, classLoader);
+            return markerAnnotations.stream().anyMatch(markerAnnotation -> AnnotatedElementUtils.hasAnnotation(beanClass, markerAnnotation));
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
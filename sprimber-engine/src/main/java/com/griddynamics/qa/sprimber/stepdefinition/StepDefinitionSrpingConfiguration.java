@@ -32,6 +32,6 @@ import org.springframework.context.annotation.Import;
  */
 
 @Configuration
-@Import({TestMethodRegistry.class, TestMethodsBulkLoader.class})
+@Import({TestMethodRegistry.class, TestMethodsBulkLoader.class, StepMethodIndex.class})
 public class StepDefinitionSrpingConfiguration {
 }
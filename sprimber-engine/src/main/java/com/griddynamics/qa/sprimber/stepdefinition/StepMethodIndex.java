@@ -0,0 +1,134 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.stepdefinition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the step definition candidates indexed at compile time by the sprimber-step-indexer annotation processor.
+ * Every line of the index is either the step class name or the method in form
+ * {@code className#methodName(parameterType,...)}, the indexes of all modules on the classpath are merged.
+ * <p>
+ * The index considered unusable if any of the requested step classes isn't indexed (e.g. compiled without
+ * the processor) or the indexed method can't be resolved, the caller falls back to the reflective scanning then
+ *
+ * @author fparamonov
+ */
+
+@Slf4j
+@RequiredArgsConstructor
+public class StepMethodIndex {
+
+    public static final String INDEX_LOCATION = "META-INF/sprimber/step-index";
+
+    private final ClassLoader classLoader;
+
+    public StepMethodIndex() {
+        this(ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * @param stepClasses - the classes which methods can be used as the step definitions,
+     *                    the index may contain more classes than the beans of the current context
+     * @return the indexed methods of the given classes or empty if some of the classes aren't indexed
+     */
+    public Optional<List<Method>> loadMethods(Collection<Class<?>> stepClasses) {
+        try {
+            Map<String, List<String>> indexedMethodsByClass = readIndex().stream()
+                    .collect(Collectors.groupingBy(this::classNameOf));
+            List<Method> methods = new ArrayList<>();
+            for (Class<?> stepClass : stepClasses) {
+                List<String> indexedLines = indexedMethodsByClass.get(stepClass.getName());
+                if (indexedLines == null) {
+                    log.debug("The step class '{}' isn't indexed, the step definitions will be scanned", stepClass.getName());
+                    return Optional.empty();
+                }
+                indexedLines.stream()
+                        .filter(indexedLine -> indexedLine.indexOf('#') > 0)
+                        .map(indexedMethod -> resolveMethod(stepClass, indexedMethod))
+                        .forEach(methods::add);
+            }
+            log.debug("Loaded '{}' step definition candidates from the step index", methods.size());
+            return Optional.of(methods);
+        } catch (IOException | RuntimeException e) {
+            log.warn("The step index can't be used, the step definitions will be scanned: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private String classNameOf(String indexedLine) {
+        int methodStart = indexedLine.indexOf('#');
+        return methodStart > 0 ? indexedLine.substring(0, methodStart) : indexedLine;
+    }
+
+    private List<String> readIndex() throws IOException {
+        List<String> indexedMethods = new ArrayList<>();
+        Enumeration<URL> indexes = classLoader.getResources(INDEX_LOCATION);
+        while (indexes.hasMoreElements()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                reader.lines()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty())
+                        .forEach(indexedMethods::add);
+            }
+        }
+        return indexedMethods;
+    }
+
+    private Class<?> loadClass(String className) {
+        try {
+            return ClassUtils.forName(className, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException("Indexed class " + className + " not found", e);
+        }
+    }
+
+    private Method resolveMethod(Class<?> stepClass, String indexedMethod) {
+        int parametersStart = indexedMethod.indexOf('(');
+        String methodName = indexedMethod.substring(indexedMethod.indexOf('#') + 1, parametersStart);
+        String[] parameterTypeNames = StringUtils.commaDelimitedListToStringArray(
+                indexedMethod.substring(parametersStart + 1, indexedMethod.length() - 1));
+        Class<?>[] parameterTypes = Arrays.stream(parameterTypeNames)
+                .map(this::loadClass)
+                .toArray(Class<?>[]::new);
+        try {
+            return stepClass.getDeclaredMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Indexed method " + indexedMethod + " not found", e);
+        }
+    }
+}
@@ -24,7 +24,7 @@ $Id:
 
 package com.griddynamics.qa.sprimber.stepdefinition;
 
-import org.springframework.util.DigestUtils;
+import com.griddynamics.qa.sprimber.engine.Node;
 
 import java.lang.reflect.Method;
 import java.util.HashMap;
@@ -82,7 +82,7 @@ public class TestMethod {
             String uniqueName = testMethod.getMethod().getDeclaringClass().getCanonicalName() + "#" +
                     testMethod.getMethod().getName() + "#" +
                     testMethod.getMethod().getParameterCount();
-            return DigestUtils.md5DigestAsHex(uniqueName.getBytes());
+            return Node.stableIdOf(uniqueName);
         }
     }
 
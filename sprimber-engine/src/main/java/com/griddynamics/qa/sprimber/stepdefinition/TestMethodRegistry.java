@@ -25,6 +25,7 @@ $Id:
 package com.griddynamics.qa.sprimber.stepdefinition;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
@@ -43,6 +44,14 @@ public class TestMethodRegistry {
         testMethodMap.put(uniqueId, testMethod);
     }
 
+    /**
+     * @param uniqueId - the id calculated by {@link TestMethod.IdBuilder#calculateUniqueId(TestMethod)}
+     * @return the test method registered with this id
+     */
+    public Optional<TestMethod> findByUniqueId(String uniqueId) {
+        return Optional.ofNullable(testMethodMap.get(uniqueId));
+    }
+
     public Stream<TestMethod> streamAllTestMethods() {
         return testMethodMap.values().stream();
     }
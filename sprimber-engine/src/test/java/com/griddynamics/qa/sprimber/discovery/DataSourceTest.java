@@ -0,0 +1,114 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author fparamonov
+ */
+
+public class DataSourceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void csvRowsRead() throws IOException {
+        DataSource dataSource = DataSource.open(write("users.csv", "name,role\r\n" +
+                "admin,\"full, access\"\r\n" +
+                "\r\n" +
+                "\"the \"\"guest\"\"\",none"));
+
+        assertThat(dataSource.getColumns()).containsExactly("name", "role");
+        assertThat(dataSource.getRowCount()).isEqualTo(2);
+        assertThat(collect(dataSource.rows(0, Long.MAX_VALUE))).containsExactly(
+                Arrays.asList("admin", "full, access"),
+                Arrays.asList("the \"guest\"", "none"));
+    }
+
+    @Test
+    public void jsonLinesRowsRead() throws IOException {
+        DataSource dataSource = DataSource.open(write("users.jsonl", "{\"name\":\"admin\",\"age\":42}\n" +
+                "{\"age\":7,\"name\":\"guest\",\"extra\":true}\n" +
+                "{\"name\":\"nobody\"}\n"));
+
+        assertThat(dataSource.getColumns()).containsExactly("name", "age");
+        assertThat(collect(dataSource.rows(1, 3))).containsExactly(
+                Arrays.asList("guest", "7"),
+                Arrays.asList("nobody", ""));
+    }
+
+    @Test
+    public void shardsCoverAllRowsOnce() throws IOException {
+        StringBuilder content = new StringBuilder("id\n");
+        for (int row = 0; row < 10; row++) {
+            content.append(row).append('\n');
+        }
+        DataSource dataSource = DataSource.open(write("ids.csv", content.toString()));
+
+        List<List<String>> rows = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            rows.addAll(collect(dataSource.shardRows(shard, 3)));
+        }
+
+        assertThat(dataSource.shardRange(1, 3)).containsExactly(3, 6);
+        assertThat(rows).extracting(row -> row.get(0))
+                .containsExactly("0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+    }
+
+    @Test
+    public void malformedRowReported() throws IOException {
+        DataSource dataSource = DataSource.open(write("broken.csv", "name,role\nadmin\n"));
+
+        assertThatThrownBy(() -> collect(dataSource.rows(0, 1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("row 0");
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.write(temporaryFolder.getRoot().toPath().resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<List<String>> collect(Iterator<List<String>> rows) {
+        List<List<String>> collected = new ArrayList<>();
+        rows.forEachRemaining(collected::add);
+        return collected;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.discovery;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class StatisticTest {
+
+    private static final String ROLE = "scenario";
+    private static final int THREADS = 4;
+    private static final int STAGES_PER_THREAD = 20_000;
+    private static final int FINISHED_DISCOVERIES = 1_000;
+
+    private final ExecutorService discoveryThreads = Executors.newFixedThreadPool(THREADS);
+
+    @After
+    public void tearDown() {
+        discoveryThreads.shutdownNow();
+    }
+
+    @Test
+    public void bulkRegistrationCounted() {
+        TestSuiteDiscovery.Statistic statistic = new TestSuiteDiscovery.Statistic();
+
+        statistic.registerPreparedStages(ROLE, 3);
+        statistic.registerPreparedStage(ROLE);
+        statistic.registerFilteredStages(ROLE, 0);
+
+        assertThat(statistic.preparedCountByStage(ROLE)).isEqualTo(4);
+        assertThat(statistic.filteredCountByStage(ROLE)).isZero();
+        assertThat(statistic).doesNotContainKey("filter" + ROLE);
+    }
+
+    @Test
+    public void aggregateCountsEveryStageRegisteredDuringDiscovery() throws Exception {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            TestSuiteDiscovery.Statistic aggregate = new TestSuiteDiscovery.Statistic();
+            TestSuiteDiscovery.Statistic earlyStatistic = new TestSuiteDiscovery.Statistic();
+            TestSuiteDiscovery.Statistic lateStatistic = new TestSuiteDiscovery.Statistic();
+            earlyStatistic.aggregateTo(aggregate);
+            CountDownLatch started = new CountDownLatch(THREADS);
+            List<Future<?>> registrations = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                registrations.add(discoveryThreads.submit(() -> {
+                    started.countDown();
+                    for (int stage = 0; stage < STAGES_PER_THREAD; stage++) {
+                        earlyStatistic.registerPreparedStage(ROLE);
+                        lateStatistic.registerPreparedStage(ROLE);
+                    }
+                }));
+            }
+
+            started.await();
+            for (int discovery = 0; discovery < FINISHED_DISCOVERIES; discovery++) {
+                TestSuiteDiscovery.Statistic finishedStatistic = new TestSuiteDiscovery.Statistic();
+                finishedStatistic.registerPreparedStage(ROLE);
+                finishedStatistic.aggregateTo(aggregate);
+            }
+            lateStatistic.aggregateTo(aggregate);
+            for (Future<?> registration : registrations) {
+                registration.get();
+            }
+
+            assertThat(lateStatistic.preparedCountByStage(ROLE)).isEqualTo(THREADS * STAGES_PER_THREAD);
+            assertThat(aggregate.preparedCountByStage(ROLE))
+                    .isEqualTo(2 * THREADS * STAGES_PER_THREAD + FINISHED_DISCOVERIES);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.function.Function;
+
+import static com.griddynamics.qa.sprimber.engine.Node.Bypass.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the retained size of the generated suite that looks like the typical cucumber one,
+ * built with the {@link BaselineNode} layout the Node had before the split into the shared definition
+ * and per-node state, and with the current {@link Node}.
+ * The walk over the whole graph takes a while, so the test runs only with the 'footprint' profile
+ * of this module, e.g. 'mvn test -Pfootprint -pl sprimber-engine'.
+ * The suite size can be changed with the 'sprimber.footprint.scenarios' system property,
+ * the heap of the test JVM should be big enough to walk the whole graph
+ *
+ * @author fparamonov
+ */
+
+@Slf4j
+public class NodeFootprintTest {
+
+    private static final int SCENARIOS_COUNT = Integer.getInteger("sprimber.footprint.scenarios", 100_000);
+    private static final int STEPS_PER_SCENARIO = 5;
+
+    private final Method beforeMethod = ReflectionUtils.findMethod(StubbedNodeInvoker.class, "before");
+    private final Method stepMethod = ReflectionUtils.findMethod(StubbedNodeInvoker.class, "step");
+    private final Method afterMethod = ReflectionUtils.findMethod(StubbedNodeInvoker.class, "after");
+
+    @Test
+    public void flyweightRepresentationAgainstBaseline() {
+        Node.Definition beforeStep = new Node.Builder().withRole("beforeStep").withName("beforeStep").withMethod(beforeMethod).build();
+        Node.Definition afterStep = new Node.Builder().withRole("afterStep").withName("afterStep").withMethod(afterMethod).build();
+
+        long baselineFootprint = bytesPerScenario(buildBaselineSuite());
+        long perNodeHooksFootprint = bytesPerScenario(buildSuite(role -> hookBuilder(role).build()));
+        long sharedHooksFootprint = bytesPerScenario(buildSuite(role -> "beforeStep".equals(role) ? beforeStep : afterStep));
+
+        log.info("Bytes per scenario of {} scenarios suite: {} before, {} after with hook definition per node, " +
+                "{} after with shared hook definitions", SCENARIOS_COUNT, baselineFootprint, perNodeHooksFootprint,
+                sharedHooksFootprint);
+        assertThat(perNodeHooksFootprint).isLessThan(baselineFootprint);
+        assertThat(sharedHooksFootprint).isLessThan(perNodeHooksFootprint);
+    }
+
+    private Node buildSuite(Function<String, Node.Definition> hooks) {
+        Node suiteNode = Node.createRootNode("suite", "testAdapter", EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE));
+        Node featureNode = suiteNode.addChild(new Node.Builder()
+                .withRole("feature")
+                .withName("Generated feature")
+                .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE)));
+        for (int scenario = 0; scenario < SCENARIOS_COUNT; scenario++) {
+            Node scenarioNode = featureNode.addChild(new Node.Builder()
+                    .withRole("scenario")
+                    .withName("Scenario " + scenario)
+                    .withHistoryId(String.format("%032x", scenario))
+                    .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE,
+                            BYPASS_CHILDREN_AFTER_ITERATION_ERROR))
+                    .withAttribute("bddTags", Arrays.asList(Node.intern(new String("@smoke")), Node.intern(new String("@generated"))))
+                    .withAttribute("location", scenario + ":3"));
+            for (int step = 0; step < STEPS_PER_SCENARIO; step++) {
+                Node stepContainerNode = scenarioNode.addChild(new Node.Builder()
+                        .withRole("stepContainer")
+                        .withName(new String("Given the generated step " + step))
+                        .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE,
+                                BYPASS_TARGET_WHEN_BYPASS_MODE)));
+                stepContainerNode.addBefore(hooks.apply("beforeStep"));
+                stepContainerNode.addTarget(new Node.Builder()
+                        .withRole("step")
+                        .withName(new String("the generated step " + step))
+                        .withMethod(stepMethod)
+                        .withParameters(Collections.singletonMap("arg0", "value " + step)));
+                stepContainerNode.addAfter(hooks.apply("afterStep"));
+            }
+        }
+        return suiteNode;
+    }
+
+    private BaselineNode buildBaselineSuite() {
+        BaselineNode suiteNode = new BaselineNode(null, "suite", null, EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE));
+        BaselineNode featureNode = suiteNode.addChild(Node.Relation.CHILD, new BaselineNode(suiteNode, "feature", null,
+                EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE)));
+        featureNode.name = "Generated feature";
+        for (int scenario = 0; scenario < SCENARIOS_COUNT; scenario++) {
+            BaselineNode scenarioNode = featureNode.addChild(Node.Relation.CHILD, new BaselineNode(featureNode, "scenario",
+                    null, EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE,
+                    BYPASS_CHILDREN_AFTER_ITERATION_ERROR)));
+            scenarioNode.name = "Scenario " + scenario;
+            scenarioNode.historyId = String.format("%032x", scenario);
+            scenarioNode.attributes.put("bddTags", Arrays.asList(new String("@smoke"), new String("@generated")));
+            scenarioNode.attributes.put("location", scenario + ":3");
+            for (int step = 0; step < STEPS_PER_SCENARIO; step++) {
+                BaselineNode stepContainerNode = scenarioNode.addChild(Node.Relation.CHILD, new BaselineNode(scenarioNode,
+                        "stepContainer", null, EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE, BYPASS_AFTER_WHEN_BYPASS_MODE,
+                        BYPASS_TARGET_WHEN_BYPASS_MODE)));
+                stepContainerNode.name = new String("Given the generated step " + step);
+                BaselineNode beforeNode = stepContainerNode.addChild(Node.Relation.BEFORE,
+                        new BaselineNode(stepContainerNode, new String("beforeStep"), beforeMethod, EnumSet.noneOf(Node.Bypass.class)));
+                beforeNode.name = new String("beforeStep");
+                BaselineNode stepNode = stepContainerNode.addChild(Node.Relation.TARGET,
+                        new BaselineNode(stepContainerNode, "step", stepMethod, EnumSet.noneOf(Node.Bypass.class)));
+                stepNode.name = new String("the generated step " + step);
+                stepNode.parameters.put("arg0", "value " + step);
+                BaselineNode afterNode = stepContainerNode.addChild(Node.Relation.AFTER,
+                        new BaselineNode(stepContainerNode, new String("afterStep"), afterMethod, EnumSet.noneOf(Node.Bypass.class)));
+                afterNode.name = new String("afterStep");
+            }
+        }
+        return suiteNode;
+    }
+
+    private Node.Builder hookBuilder(String role) {
+        return new Node.Builder()
+                .withRole(new String(role))
+                .withName(new String(role))
+                .withMethod("beforeStep".equals(role) ? beforeMethod : afterMethod);
+    }
+
+    private long bytesPerScenario(Object suiteNode) {
+        return GraphLayout.parseInstance(suiteNode).totalSize() / SCENARIOS_COUNT;
+    }
+
+    /**
+     * The fields of the Node before the split: random runtime id, eagerly allocated attributes,
+     * parameters and children maps, and every value held by the node itself
+     */
+    private static class BaselineNode {
+
+        private String name;
+        private String description;
+        private String historyId;
+        private final String role;
+        private final Map<String, Object> attributes = new HashMap<>();
+        private Node.Status status;
+        private Node.Phase phase = Node.Phase.CREATED;
+        private final Node.Type type = Node.Type.HOLDER;
+        private final String adapterName = "testAdapter";
+        private boolean isBypassed;
+        private final EnumSet<Node.Bypass> subNodeExecutionModes;
+        private final Node.Condition condition = null;
+        private final UUID parentId;
+        private final UUID runtimeId = UUID.randomUUID();
+        private final Map<Node.Relation, List<BaselineNode>> children = new EnumMap<>(Node.Relation.class);
+        private final Method method;
+        private Throwable throwable;
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+        BaselineNode(BaselineNode parent, String role, Method method, EnumSet<Node.Bypass> subNodeExecutionModes) {
+            this.parentId = parent == null ? UUID.randomUUID() : parent.runtimeId;
+            this.role = role;
+            this.method = method;
+            this.subNodeExecutionModes = subNodeExecutionModes;
+        }
+
+        BaselineNode addChild(Node.Relation relation, BaselineNode node) {
+            children.computeIfAbsent(relation, k -> new ArrayList<>()).add(node);
+            return node;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.engine;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class NodeIdTest {
+
+    @Test
+    public void stableIdIsMurmurHashOfUniqueName() {
+        assertThat(Node.stableIdOf("hello")).isEqualTo("029bbd41b3a7d8cb191dae486a901e5b");
+        assertThat(Node.stableIdOf("com.example.Steps#login#2"))
+                .isEqualTo(Node.stableIdOf("com.example.Steps#login#2"))
+                .isNotEqualTo(Node.stableIdOf("com.example.Steps#login#3"))
+                .matches("[0-9a-f]{32}");
+    }
+
+    @Test
+    public void runtimeIdsIncreaseInOrderOfCreation() {
+        Node root = Node.createRootNode("suite", "test", EnumSet.noneOf(Node.Bypass.class));
+        Node testCase = root.addChild("testCase", EnumSet.noneOf(Node.Bypass.class));
+        Node detachedTestCase = root.newDetachedChild(new Node.Builder().withRole("testCase"));
+        Node nextRoot = Node.createRootNode("suite", "test", EnumSet.noneOf(Node.Bypass.class));
+
+        assertThat(root.getRuntimeId()).isPositive();
+        assertThat(testCase.getRuntimeId()).isGreaterThan(root.getRuntimeId());
+        assertThat(detachedTestCase.getRuntimeId()).isGreaterThan(testCase.getRuntimeId());
+        assertThat(nextRoot.getRuntimeId()).isGreaterThan(detachedTestCase.getRuntimeId());
+        assertThat(root.getParentId()).isZero();
+        assertThat(testCase.getParentId()).isEqualTo(root.getRuntimeId());
+    }
+
+    @Test
+    public void externalIdsUniqueWithinRunAndStableForNode() {
+        Node root = Node.createRootNode("suite", "test", EnumSet.noneOf(Node.Bypass.class));
+        Set<String> externalIds = new HashSet<>();
+        externalIds.add(root.getExternalId());
+        for (int i = 0; i < 1_000; i++) {
+            Node testCase = root.addChild("testCase", EnumSet.noneOf(Node.Bypass.class));
+            assertThat(externalIds.add(testCase.getExternalId())).isTrue();
+            assertThat(testCase.getParentExternalId()).isSameAs(root.getExternalId());
+        }
+
+        assertThat(root.getExternalId()).isSameAs(root.getExternalId())
+                .endsWith("-" + root.getRuntimeId());
+        assertThat(root.snapshot().getExternalId()).isEqualTo(root.getExternalId());
+        assertThat(root.getParentExternalId()).isNotIn(externalIds).endsWith("-0");
+    }
+}
@@ -0,0 +1,149 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.engine;
+
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.context.support.SimpleThreadScope;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author fparamonov
+ */
+
+public class SpringNodeInvokerTest {
+
+    private static final List<Object> invokedTargets = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void staticMethodInvokedWithoutTargetBean() {
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        SpringNodeInvoker nodeInvoker = new SpringNodeInvoker(applicationContext, mock(Environment.class));
+        invokedTargets.clear();
+
+        nodeInvoker.invoke(buildStepNode(StaticSteps.class, "static"));
+
+        assertThat(invokedTargets).containsExactly("static");
+        verifyZeroInteractions(applicationContext);
+    }
+
+    @Test
+    public void singletonTargetResolvedOnce() {
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        InstanceSteps instanceSteps = new InstanceSteps();
+        when(applicationContext.getBeanNamesForType(InstanceSteps.class)).thenReturn(new String[]{"instanceSteps"});
+        when(applicationContext.isSingleton("instanceSteps")).thenReturn(true);
+        when(applicationContext.getBean(InstanceSteps.class)).thenReturn(instanceSteps);
+        SpringNodeInvoker nodeInvoker = new SpringNodeInvoker(applicationContext, mock(Environment.class));
+        invokedTargets.clear();
+
+        nodeInvoker.invoke(buildStepNode(InstanceSteps.class, "first"));
+        nodeInvoker.invoke(buildStepNode(InstanceSteps.class, "second"));
+
+        assertThat(invokedTargets).containsExactly(instanceSteps, instanceSteps);
+        verify(applicationContext, times(1)).getBean(InstanceSteps.class);
+    }
+
+    @Test
+    public void nonSingletonTargetResolvedPerInvocation() {
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        InstanceSteps firstInstance = new InstanceSteps();
+        InstanceSteps secondInstance = new InstanceSteps();
+        when(applicationContext.getBeanNamesForType(InstanceSteps.class)).thenReturn(new String[]{"instanceSteps"});
+        when(applicationContext.isSingleton("instanceSteps")).thenReturn(false);
+        when(applicationContext.getBean(InstanceSteps.class)).thenReturn(firstInstance, secondInstance);
+        SpringNodeInvoker nodeInvoker = new SpringNodeInvoker(applicationContext, mock(Environment.class));
+        invokedTargets.clear();
+
+        nodeInvoker.invoke(buildStepNode(InstanceSteps.class, "first"));
+        nodeInvoker.invoke(buildStepNode(InstanceSteps.class, "second"));
+
+        assertThat(invokedTargets).containsExactly(firstInstance, secondInstance);
+        verify(applicationContext, times(2)).getBean(InstanceSteps.class);
+    }
+
+    @Test
+    public void scopedProxyTargetResolvedPerScope() throws Exception {
+        try (AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext()) {
+            applicationContext.getBeanFactory().registerScope("thread", new SimpleThreadScope());
+            applicationContext.register(ThreadScopedSteps.class);
+            applicationContext.refresh();
+            SpringNodeInvoker nodeInvoker = new SpringNodeInvoker(applicationContext, applicationContext.getEnvironment());
+            invokedTargets.clear();
+
+            nodeInvoker.invoke(buildStepNode(ThreadScopedSteps.class, "main"));
+            nodeInvoker.invoke(buildStepNode(ThreadScopedSteps.class, "main"));
+            CompletableFuture.runAsync(() -> nodeInvoker.invoke(buildStepNode(ThreadScopedSteps.class, "worker"))).get();
+
+            assertThat(invokedTargets).hasSize(3);
+            assertThat(invokedTargets.get(0)).isSameAs(invokedTargets.get(1));
+            assertThat(invokedTargets.get(2)).isNotSameAs(invokedTargets.get(0));
+            assertThat(invokedTargets).allMatch(target -> target.getClass() == ThreadScopedSteps.class);
+        }
+    }
+
+    private Node buildStepNode(Class<?> stepClass, String value) {
+        Node stepRoot = Node.createRootNode("stepRoot", "testAdapter", EnumSet.noneOf(Node.Bypass.class));
+        return stepRoot.addTarget(new Node.Builder()
+                .withRole("step")
+                .withMethod(ReflectionUtils.findMethod(stepClass, "step", String.class))
+                .withParameters(Collections.singletonMap("value", value)));
+    }
+
+    public static class StaticSteps {
+
+        public static void step(String value) {
+            invokedTargets.add(value);
+        }
+    }
+
+    public static class InstanceSteps {
+
+        public void step(String value) {
+            invokedTargets.add(this);
+        }
+    }
+
+    @Scope(value = "thread", proxyMode = ScopedProxyMode.TARGET_CLASS)
+    public static class ThreadScopedSteps {
+
+        public void step(String value) {
+            invokedTargets.add(this);
+        }
+    }
+}
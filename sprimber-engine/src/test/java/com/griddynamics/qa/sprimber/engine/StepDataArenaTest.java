@@ -0,0 +1,74 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.engine;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class StepDataArenaTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void textsStoredAcrossSegments() {
+        StepDataArena stepDataArena = new StepDataArena(temporaryFolder.getRoot().toPath(), 8);
+
+        CharSequence first = stepDataArena.store("payload");
+        CharSequence second = stepDataArena.store(new StringBuilder("large payload"));
+        CharSequence third = stepDataArena.store("x");
+
+        assertThat(first).isInstanceOf(StepDataArena.Text.class).hasToString("payload");
+        assertThat(second).isInstanceOf(StepDataArena.Text.class).hasToString("large payload");
+        assertThat(third).hasToString("x");
+        assertThat(second.charAt(6)).isEqualTo('p');
+        assertThat(second.subSequence(6, 13).toString()).isEqualTo("payload");
+        assertThat(((StepDataArena.Text) first).asCharBuffer().isReadOnly()).isTrue();
+        // the text larger than the segment takes the own segment of exactly its size
+        assertThat(temporaryFolder.getRoot().listFiles()).hasSize(3);
+    }
+
+    @Test
+    public void closedArenaRemovesSegmentsAndKeepsTextsReadable() {
+        StepDataArena stepDataArena = new StepDataArena(temporaryFolder.getRoot().toPath(), 1024);
+        CharSequence stored = stepDataArena.store("payload");
+
+        stepDataArena.close();
+
+        File[] segments = temporaryFolder.getRoot().listFiles();
+        assertThat(segments).isEmpty();
+        assertThat(stored).hasToString("payload");
+        assertThat(stepDataArena.store("on heap")).isEqualTo("on heap");
+    }
+}
@@ -123,6 +123,63 @@ public class TestCaseBuilder {
         return stepNode;
     }
 
+    Node buildSingleWrappedStepWithTwoExceptionalAfter() {
+        Node stepNode = Node.createRootNode("stepRoot", TEST_ADAPTER_NAME, EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE,
+                BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_TARGET_WHEN_BYPASS_MODE));
+        stepNode.addBefore(getBeforeStepBuilder());
+        stepNode.addTarget(getStepBuilder());
+        stepNode.addAfter(getExceptionalStepBuilder("after"));
+        stepNode.addAfter(getExceptionalStepBuilder("after"));
+        return stepNode;
+    }
+
+    Node buildSuiteWithTests(int testsCount) {
+        Node suiteNode = Node.createRootNode("suiteRoot", TEST_ADAPTER_NAME, EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE,
+                BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_TARGET_WHEN_BYPASS_MODE));
+        Node.Builder testBuilder = new Node.Builder()
+                .withRole("test")
+                .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE,
+                        BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_TARGET_WHEN_BYPASS_MODE, BYPASS_CHILDREN_AFTER_ITERATION_ERROR));
+        Node.Builder stepHolderBuilder = new Node.Builder()
+                .withRole("stepHolder")
+                .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE,
+                        BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_TARGET_WHEN_BYPASS_MODE));
+        for (int i = 0; i < testsCount; i++) {
+            Node testNode = suiteNode.addChild(testBuilder);
+            fillWrappedStep(testNode.addChild(stepHolderBuilder));
+        }
+        return suiteNode;
+    }
+
+    Node buildStreamedSuiteWithTests(int testsCount, int bufferSize) {
+        Node suiteNode = Node.createRootNode("suiteRoot", TEST_ADAPTER_NAME, EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE,
+                BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_TARGET_WHEN_BYPASS_MODE));
+        Node.ChildStream testStream = suiteNode.openChildStream(bufferSize);
+        Node.Builder testBuilder = new Node.Builder()
+                .withRole("test")
+                .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE,
+                        BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_TARGET_WHEN_BYPASS_MODE, BYPASS_CHILDREN_AFTER_ITERATION_ERROR));
+        Node.Builder stepHolderBuilder = new Node.Builder()
+                .withRole("stepHolder")
+                .withSubNodeModes(EnumSet.of(BYPASS_BEFORE_WHEN_BYPASS_MODE,
+                        BYPASS_AFTER_WHEN_BYPASS_MODE, BYPASS_TARGET_WHEN_BYPASS_MODE));
+        new Thread(() -> {
+            for (int i = 0; i < testsCount; i++) {
+                Node testNode = testStream.newChild(testBuilder);
+                fillWrappedStep(testNode.addChild(stepHolderBuilder));
+                testStream.publish(testNode);
+            }
+            testStream.complete();
+        }, "TestDiscovery").start();
+        return suiteNode;
+    }
+
+    private void fillWrappedStep(Node stepNode) {
+        stepNode.addBefore(getBeforeStepBuilder());
+        stepNode.addTarget(getStepBuilder());
+        stepNode.addAfter(getAfterStepBuilder());
+    }
+
     private Node.Builder getBeforeStepBuilder() {
         return new Node.Builder()
                 .withRole("before")
@@ -24,6 +24,7 @@ $Id:
 
 package com.griddynamics.qa.sprimber.engine;
 
+import com.griddynamics.qa.sprimber.scope.ScenarioContextTaskDecorator;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
@@ -33,7 +34,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.times;
 
 /**
@@ -55,7 +58,7 @@ public class TreeSuiteExecutorTest {
         childSubNodesExecutor.put("testExecutor", Executors.newFixedThreadPool(3));
 
         treeSuiteExecutor = Mockito.spy(
-                new TreeSuiteExecutor(stubbedNodeInvoker, childSubNodesExecutor, context, stubbedEventPublisher));
+                new TreeSuiteExecutor(stubbedNodeInvoker, childSubNodesExecutor, context, stubbedEventPublisher, new ScenarioContextTaskDecorator()));
     }
 
     @Test
@@ -131,4 +134,57 @@ public class TreeSuiteExecutorTest {
         inOrder.verify(stubbedNodeInvoker, times(1)).exceptionalStep();
         inOrder.verify(stubbedNodeInvoker, times(0)).after();
     }
+
+    @Test
+    public void singleWrappedStepWithTwoExceptionalAfter() {
+        Node stepNode = testCaseBuilder.buildSingleWrappedStepWithTwoExceptionalAfter();
+        treeSuiteExecutor.executeRoot(stepNode);
+        Mockito.verify(stubbedNodeInvoker, times(2)).exceptionalStep();
+        assertThat(stepNode.isCompletedExceptionally()).isTrue();
+        assertThat(stepNode.getThrowables()).hasSize(2);
+        assertThat(stepNode.getThrowable()).contains(stepNode.getThrowables().get(0));
+    }
+
+    @Test
+    public void streamedTests() {
+        Node suiteNode = testCaseBuilder.buildStreamedSuiteWithTests(20, 2);
+        treeSuiteExecutor.executeRoot(suiteNode);
+        Mockito.verify(stubbedNodeInvoker, times(20)).before();
+        Mockito.verify(stubbedNodeInvoker, times(20)).step();
+        Mockito.verify(stubbedNodeInvoker, times(20)).after();
+        Mockito.verify(stubbedEventPublisher, times(41)).stageFinished(Mockito.any());
+        assertThat(suiteNode.getDiscoveryCompletion()).isCompleted();
+        assertThat(suiteNode.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void scheduledStagesDecorated() {
+        AtomicInteger decoratedStages = new AtomicInteger();
+        Map<String, Executor> childSubNodesExecutor = new HashMap<>();
+        childSubNodesExecutor.put("testExecutor", Executors.newFixedThreadPool(3));
+        TreeSuiteExecutor decoratingExecutor = new TreeSuiteExecutor(stubbedNodeInvoker, childSubNodesExecutor, context,
+                stubbedEventPublisher, runnable -> {
+            decoratedStages.incrementAndGet();
+            return runnable;
+        });
+        Node suiteNode = testCaseBuilder.buildSuiteWithTests(5);
+        decoratingExecutor.executeRoot(suiteNode);
+        assertThat(decoratedStages).hasValue(5);
+        assertThat(suiteNode.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void compactRetention() {
+        TreeSuiteExecutor compactingExecutor = new TreeSuiteExecutor(stubbedNodeInvoker, new HashMap<>(),
+                new TreeExecutorContext(TreeExecutorContext.Retention.COMPACT), stubbedEventPublisher, new ScenarioContextTaskDecorator());
+        Node testNode = testCaseBuilder.buildTestWithRegularAndExceptionalWrappedStep();
+        compactingExecutor.executeRoot(testNode);
+        Mockito.verify(stubbedNodeInvoker, times(1)).exceptionalStep();
+        assertThat(testNode.isCompletedExceptionally()).isTrue();
+        assertThat(testNode.getThrowable()).isEmpty();
+        assertThat(testNode.getFailureSummary()).hasValueSatisfying(summary ->
+                assertThat(summary).startsWith(RuntimeException.class.getName()));
+        assertThat(testNode.getFinishTime()).isGreaterThanOrEqualTo(testNode.getStartTime()).isPositive();
+        assertThat(testNode.childSpliterator(false).estimateSize()).isZero();
+    }
 }
@@ -0,0 +1,115 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.reporting;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.core.Ordered;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author fparamonov
+ */
+
+public class NodeLifecycleDispatcherTest {
+
+    private final Node testAdapterNode = Node.createRootNode("testSuite", "testAdapter", EnumSet.noneOf(Node.Bypass.class));
+    private final Node otherAdapterNode = Node.createRootNode("testSuite", "otherAdapter", EnumSet.noneOf(Node.Bypass.class));
+
+    @Test
+    public void adapterListenerReceivesOnlyOwnNodes() {
+        NodeLifecycleListener commonListener = spy(new CommonListener());
+        NodeLifecycleListener adapterListener = spy(new AdapterListener());
+        NodeLifecycleDispatcher dispatcher = new NodeLifecycleDispatcher(Arrays.asList(commonListener, adapterListener));
+
+        dispatcher.stageStarted(testAdapterNode);
+        dispatcher.stageStarted(otherAdapterNode);
+
+        verify(commonListener, times(1)).stageStarted(testAdapterNode);
+        verify(commonListener, times(1)).stageStarted(otherAdapterNode);
+        verify(adapterListener, times(1)).stageStarted(testAdapterNode);
+        verify(adapterListener, never()).stageStarted(otherAdapterNode);
+    }
+
+    @Test
+    public void listenerReceivesOnlySubscribedEvents() {
+        NodeLifecycleListener adapterListener = spy(new AdapterListener());
+        NodeLifecycleDispatcher dispatcher = new NodeLifecycleDispatcher(Collections.singletonList(adapterListener));
+
+        dispatcher.stageStarted(testAdapterNode);
+        dispatcher.targetNodeStarted(testAdapterNode);
+        dispatcher.targetNodeError(testAdapterNode);
+
+        verify(adapterListener, times(1)).stageStarted(testAdapterNode);
+        verify(adapterListener, never()).targetNodeStarted(any());
+        verify(adapterListener, never()).targetNodeError(any());
+    }
+
+    @Test
+    public void listenersInvokedInOrder() {
+        NodeLifecycleListener commonListener = spy(new CommonListener());
+        NodeLifecycleListener orderedListener = spy(new OrderedListener());
+        NodeLifecycleDispatcher dispatcher = new NodeLifecycleDispatcher(Arrays.asList(commonListener, orderedListener));
+
+        dispatcher.stageFinished(otherAdapterNode);
+
+        InOrder inOrder = Mockito.inOrder(orderedListener, commonListener);
+        inOrder.verify(orderedListener).stageFinished(otherAdapterNode);
+        inOrder.verify(commonListener).stageFinished(otherAdapterNode);
+    }
+
+    static class CommonListener implements NodeLifecycleListener {
+    }
+
+    static class AdapterListener implements NodeLifecycleListener {
+
+        @Override
+        public String getAdapterName() {
+            return "testAdapter";
+        }
+
+        @Override
+        public Set<Event> getSubscribedEvents() {
+            return EnumSet.of(Event.STAGE_STARTED);
+        }
+    }
+
+    static class OrderedListener implements NodeLifecycleListener, Ordered {
+
+        @Override
+        public int getOrder() {
+            return HIGHEST_PRECEDENCE;
+        }
+    }
+}
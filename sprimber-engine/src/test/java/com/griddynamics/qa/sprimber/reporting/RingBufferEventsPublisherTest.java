@@ -0,0 +1,165 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.reporting;
+
+import com.griddynamics.qa.sprimber.engine.Node;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class RingBufferEventsPublisherTest {
+
+    private static final EnumSet<Node.Bypass> NO_BYPASS = EnumSet.noneOf(Node.Bypass.class);
+
+    @Test
+    public void eventsOfEachStageDeliveredInOrder() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        RingBufferEventsPublisher publisher = new RingBufferEventsPublisher(Collections.singletonList(listener), 16,
+                RingBufferEventsPublisher.WaitStrategy.BLOCKING, RingBufferEventsPublisher.BackPressure.BLOCK);
+        List<Node> stages = IntStream.range(0, 8)
+                .mapToObj(i -> Node.createRootNode("test", "testAdapter", NO_BYPASS))
+                .collect(Collectors.toList());
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = stages.stream()
+                .map(stage -> executorService.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        publisher.stageStarted(stage);
+                        publisher.stageFinished(stage);
+                    }
+                }))
+                .collect(Collectors.toList());
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        publisher.flush();
+        publisher.close();
+
+        assertThat(listener.eventsByNode).hasSize(8);
+        listener.eventsByNode.values().forEach(events -> {
+            assertThat(events).hasSize(1000);
+            for (int i = 0; i < events.size(); i++) {
+                assertThat(events.get(i)).isEqualTo(i % 2 == 0 ? NodeLifecycleListener.Event.STAGE_STARTED : NodeLifecycleListener.Event.STAGE_FINISHED);
+            }
+        });
+    }
+
+    @Test
+    public void listenerObservesStateAtPublishTime() {
+        RecordingListener listener = new RecordingListener();
+        RingBufferEventsPublisher publisher = new RingBufferEventsPublisher(Collections.singletonList(listener), 4,
+                RingBufferEventsPublisher.WaitStrategy.SLEEPING, RingBufferEventsPublisher.BackPressure.BLOCK);
+        Node node = Node.createRootNode("test", "testAdapter", NO_BYPASS);
+        node.prepareExecution();
+        publisher.stageStarted(node);
+        node.completeExceptionally(new RuntimeException("failed"));
+        publisher.stageFinished(node);
+        publisher.close();
+
+        assertThat(listener.snapshots).hasSize(2);
+        assertThat(listener.snapshots.get(0).getRuntimeId()).isEqualTo(node.getRuntimeId());
+        assertThat(listener.snapshots.get(0).isCompletedExceptionally()).isFalse();
+        assertThat(listener.snapshots.get(1).isCompletedExceptionally()).isTrue();
+        assertThat(listener.snapshots.get(1).getThrowable()).isPresent();
+    }
+
+    @Test
+    public void eventsDiscardedWhenBufferIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        NodeLifecycleListener blockedListener = new NodeLifecycleListener() {
+            @Override
+            public void stageStarted(Node node) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RingBufferEventsPublisher publisher = new RingBufferEventsPublisher(Collections.singletonList(blockedListener), 2,
+                RingBufferEventsPublisher.WaitStrategy.YIELDING, RingBufferEventsPublisher.BackPressure.DISCARD);
+        Node node = Node.createRootNode("test", "testAdapter", NO_BYPASS);
+        for (int i = 0; i < 10; i++) {
+            publisher.stageStarted(node);
+        }
+        release.countDown();
+        publisher.close();
+
+        assertThat(publisher.getDiscardedCount()).isEqualTo(8L);
+    }
+
+    @Test
+    public void closeDeliversPendingEventsAndStopsConsumer() {
+        List<Thread> consumerThreads = new ArrayList<>();
+        NodeLifecycleListener slowListener = new NodeLifecycleListener() {
+            @Override
+            public void stageStarted(Node node) {
+                consumerThreads.add(Thread.currentThread());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        };
+        RingBufferEventsPublisher publisher = new RingBufferEventsPublisher(Collections.singletonList(slowListener), 64,
+                RingBufferEventsPublisher.WaitStrategy.BLOCKING, RingBufferEventsPublisher.BackPressure.BLOCK);
+        Node node = Node.createRootNode("test", "testAdapter", NO_BYPASS);
+        for (int i = 0; i < 50; i++) {
+            publisher.stageStarted(node);
+        }
+        publisher.close();
+
+        assertThat(consumerThreads).hasSize(50);
+        assertThat(consumerThreads.get(0).isAlive()).isFalse();
+    }
+
+    static class RecordingListener implements NodeLifecycleListener {
+
+        private final Map<Long, List<Event>> eventsByNode = new HashMap<>();
+        private final List<Node> snapshots = new ArrayList<>();
+
+        @Override
+        public void stageStarted(Node node) {
+            record(node, Event.STAGE_STARTED);
+        }
+
+        @Override
+        public void stageFinished(Node node) {
+            record(node, Event.STAGE_FINISHED);
+        }
+
+        private void record(Node node, Event event) {
+            snapshots.add(node);
+            eventsByNode.computeIfAbsent(node.getRuntimeId(), k -> new ArrayList<>()).add(event);
+        }
+    }
+}
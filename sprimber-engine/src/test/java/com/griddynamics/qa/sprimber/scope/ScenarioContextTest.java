@@ -0,0 +1,125 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.scope;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class ScenarioContextTest {
+
+    private final ExecutorService pooledThread = Executors.newSingleThreadExecutor();
+    private final ExecutorService anotherThread = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        TestCaseContextHolder.setContext(null);
+        pooledThread.shutdown();
+        anotherThread.shutdown();
+    }
+
+    @Test
+    public void contextFollowsTaskWithoutLeakingToPooledThread() throws Exception {
+        TestCaseContextHolder.setupNewContext("scenario");
+        TestCaseContext scenarioContext = TestCaseContextHolder.getCurrentContext();
+
+        TestCaseContext seenByTask = CompletableFuture.supplyAsync(TestCaseContextHolder::getCurrentContext,
+                ScenarioContext.capture().wrap(pooledThread)).get();
+        TestCaseContext seenByNextTask = pooledThread.submit(TestCaseContextHolder::getCurrentContext).get();
+
+        assertThat(seenByTask).isSameAs(scenarioContext);
+        assertThat(seenByNextTask).isNull();
+    }
+
+    @Test
+    public void emptyContextDetachesThread() {
+        ScenarioContext emptyContext = ScenarioContext.capture();
+        TestCaseContextHolder.setupNewContext("scenario");
+        TestCaseContext scenarioContext = TestCaseContextHolder.getCurrentContext();
+
+        try (ScenarioContext.Attachment ignored = emptyContext.attach()) {
+            assertThat(TestCaseContextHolder.getCurrentContext()).isNull();
+        }
+
+        assertThat(emptyContext.isEmpty()).isTrue();
+        assertThat(TestCaseContextHolder.getCurrentContext()).isSameAs(scenarioContext);
+    }
+
+    @Test
+    public void scenarioFinishedWithinAttachmentStaysFinished() {
+        TestCaseContextHolder.setupNewContext("scenario");
+
+        new ScenarioContextTaskDecorator()
+                .decorate(() -> TestCaseContextHolder.cleanContext(new DefaultListableBeanFactory()))
+                .run();
+
+        assertThat(TestCaseContextHolder.getCurrentContext()).isNull();
+    }
+
+    @Test
+    public void scenarioStartedOnPooledThreadAndFinishedOnAnotherDoesNotStayOnPooledThread() throws Exception {
+        ScenarioContextTaskDecorator taskDecorator = new ScenarioContextTaskDecorator();
+        CompletableFuture<TestCaseContext> finishedScenario = new CompletableFuture<>();
+
+        pooledThread.execute(taskDecorator.decorate(() -> {
+            TestCaseContextHolder.setupNewContext("scenario");
+            TestCaseContext startedScenario = TestCaseContextHolder.getCurrentContext();
+            anotherThread.execute(taskDecorator.decorate(() -> {
+                TestCaseContextHolder.cleanContext(new DefaultListableBeanFactory());
+                finishedScenario.complete(startedScenario);
+            }));
+        }));
+
+        assertThat(finishedScenario.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(pooledThread.submit(TestCaseContextHolder::getCurrentContext).get()).isNull();
+        assertThat(anotherThread.submit(TestCaseContextHolder::getCurrentContext).get()).isNull();
+    }
+
+    @Test
+    public void preservedContextRestoredAfterScenarioFinished() {
+        TestCaseContextHolder.setupNewContext("caller");
+        TestCaseContext callerContext = TestCaseContextHolder.getCurrentContext();
+
+        try (ScenarioContext.Attachment ignored = ScenarioContext.preserve()) {
+            ScenarioContext.capture()
+                    .wrap(() -> TestCaseContextHolder.cleanContext(new DefaultListableBeanFactory()))
+                    .run();
+            assertThat(TestCaseContextHolder.getCurrentContext()).isNull();
+        }
+
+        assertThat(TestCaseContextHolder.getCurrentContext()).isSameAs(callerContext);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.stepdefinition;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class LazyStepBeansPostProcessorTest {
+
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+    @Before
+    public void setUp() {
+        beanFactory.registerSingleton("stepClassAnnotationsProvider",
+                (StepClassAnnotationsProvider) () -> Collections.singletonList(Steps.class));
+        beanFactory.registerBeanDefinition("scannedSteps", new AnnotatedGenericBeanDefinition(ScannedSteps.class));
+        beanFactory.registerBeanDefinition("registeredSteps", new RootBeanDefinition(ScannedSteps.class));
+        beanFactory.registerBeanDefinition("service", new AnnotatedGenericBeanDefinition(Service.class));
+    }
+
+    @Test
+    public void onlyStepBeansBecomeLazy() {
+        new LazyStepBeansPostProcessor().postProcessBeanFactory(beanFactory);
+
+        assertThat(beanFactory.getBeanDefinition("scannedSteps").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("registeredSteps").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("service").isLazyInit()).isFalse();
+    }
+
+    @Test
+    public void stepBeanCreatedOnFirstRequest() {
+        new LazyStepBeansPostProcessor().postProcessBeanFactory(beanFactory);
+        // done by the application context once all the post processors invoked
+        beanFactory.clearMetadataCache();
+        beanFactory.preInstantiateSingletons();
+
+        assertThat(beanFactory.containsSingleton("scannedSteps")).isFalse();
+        assertThat(beanFactory.containsSingleton("service")).isTrue();
+        assertThat(beanFactory.getBean("scannedSteps")).isInstanceOf(ScannedSteps.class);
+    }
+
+    @Test
+    public void markersTakenWithoutProviderBeanCreation() {
+        beanFactory.registerBeanDefinition("definedProvider", new RootBeanDefinition(DefinedStepsMarkerProvider.class));
+        beanFactory.registerBeanDefinition("definedSteps", new AnnotatedGenericBeanDefinition(DefinedSteps.class));
+
+        new LazyStepBeansPostProcessor().postProcessBeanFactory(beanFactory);
+
+        assertThat(beanFactory.getBeanDefinition("definedSteps").isLazyInit()).isTrue();
+        assertThat(beanFactory.containsSingleton("definedProvider")).isFalse();
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Steps {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface DefinedStepsMarker {
+    }
+
+    static class DefinedStepsMarkerProvider implements StepClassAnnotationsProvider {
+
+        @Override
+        public List<Class<? extends Annotation>> provide() {
+            return Collections.singletonList(DefinedStepsMarker.class);
+        }
+    }
+
+    @Steps
+    static class ScannedSteps {
+    }
+
+    @DefinedStepsMarker
+    static class DefinedSteps {
+    }
+
+    static class Service {
+    }
+}
@@ -0,0 +1,96 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.stepdefinition;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class StepMethodIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StepMethodIndex stepMethodIndex;
+
+    @Before
+    public void setUp() throws IOException {
+        Path index = temporaryFolder.getRoot().toPath().resolve(StepMethodIndex.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.write(index, Arrays.asList(
+                IndexedSteps.class.getName(),
+                IndexedSteps.class.getName() + "#given(java.lang.String,int)",
+                IndexedSteps.class.getName() + "#then(java.lang.String[])",
+                "com.example.AbsentSteps",
+                "com.example.AbsentSteps#given()"), StandardCharsets.UTF_8);
+        ClassLoader classLoader = new URLClassLoader(new URL[]{temporaryFolder.getRoot().toURI().toURL()}, getClass().getClassLoader());
+        stepMethodIndex = new StepMethodIndex(classLoader);
+    }
+
+    @Test
+    public void indexedMethodsOfRequestedClassesLoaded() throws Exception {
+        Method given = IndexedSteps.class.getDeclaredMethod("given", String.class, int.class);
+        Method then = IndexedSteps.class.getDeclaredMethod("then", String[].class);
+
+        Optional<List<Method>> methods = stepMethodIndex.loadMethods(Collections.singletonList(IndexedSteps.class));
+
+        assertThat(methods).hasValueSatisfying(indexedMethods -> assertThat(indexedMethods).containsExactly(given, then));
+    }
+
+    @Test
+    public void notIndexedClassDisablesIndex() {
+        Optional<List<Method>> methods = stepMethodIndex.loadMethods(Arrays.asList(IndexedSteps.class, StepMethodIndexTest.class));
+
+        assertThat(methods).isEmpty();
+    }
+
+    static class IndexedSteps {
+
+        void given(String name, int count) {
+        }
+
+        void then(String... values) {
+        }
+    }
+}
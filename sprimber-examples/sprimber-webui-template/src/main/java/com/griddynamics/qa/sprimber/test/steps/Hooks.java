@@ -24,15 +24,15 @@ $Id:
 
 package com.griddynamics.qa.sprimber.test.steps;
 
+import com.griddynamics.qa.sprimber.engine.Node;
 import com.griddynamics.qa.sprimber.engine.model.action.Actions;
-import com.griddynamics.qa.sprimber.reporting.SprimberEventPublisher;
+import com.griddynamics.qa.sprimber.reporting.NodeLifecycleListener;
 import io.cucumber.java.AfterStep;
 import io.qameta.allure.AllureLifecycle;
 import lombok.RequiredArgsConstructor;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import org.springframework.context.event.EventListener;
 
 /**
  * @author pmichalski
@@ -40,7 +40,7 @@ import org.springframework.context.event.EventListener;
 
 @Actions
 @RequiredArgsConstructor
-public class Hooks {
+public class Hooks implements NodeLifecycleListener {
 
     private final AllureLifecycle allureLifecycle;
     private final WebDriver webDriver;
@@ -51,8 +51,8 @@ public class Hooks {
                 ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES));
     }
 
-    @EventListener
-    public void after(SprimberEventPublisher.TargetNodeErrorEvent errorEvent) {
+    @Override
+    public void targetNodeError(Node node) {
         allureLifecycle.addAttachment("Page source after failure", "text/plain", "html",
                 webDriver.getPageSource().getBytes());
     }
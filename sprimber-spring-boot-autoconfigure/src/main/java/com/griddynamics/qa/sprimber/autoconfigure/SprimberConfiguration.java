@@ -30,6 +30,7 @@ import com.griddynamics.qa.sprimber.reporting.SprimberEventPublisher;
 import com.griddynamics.qa.sprimber.runtime.RuntimeConfiguration;
 import com.griddynamics.qa.sprimber.scope.FlowOrchestrator;
 import com.griddynamics.qa.sprimber.scope.TestCaseScope;
+import com.griddynamics.qa.sprimber.stepdefinition.LazyStepBeansPostProcessor;
 import com.griddynamics.qa.sprimber.stepdefinition.StepDefinitionSrpingConfiguration;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -61,6 +62,12 @@ public class SprimberConfiguration {
         };
     }
 
+    @Bean
+    @ConditionalOnProperty(value = "sprimber.configuration.discovery.lazy-step-beans.enable", havingValue = "true", matchIfMissing = true)
+    public static LazyStepBeansPostProcessor lazyStepBeansPostProcessor() {
+        return new LazyStepBeansPostProcessor();
+    }
+
     @Configuration
     static class SprimberExecutors {
 
@@ -72,14 +79,24 @@ public class SprimberConfiguration {
 
         @Bean
         @ConditionalOnMissingBean(name = "testExecutor")
-        public Executor testExecutor() {
-            return getDefaultExecutor("TestExecutor-");
+        public Executor testExecutor(SprimberProperties sprimberProperties) {
+            return getExecutor("TestExecutor-", sprimberProperties.getExecution().getVirtualThreads().isEnable());
         }
 
         @Bean
         @ConditionalOnMissingBean(name = "testCaseExecutor")
-        public Executor testCaseExecutor() {
-            return getDefaultExecutor("TestCaseExecutor-");
+        public Executor testCaseExecutor(SprimberProperties sprimberProperties) {
+            SprimberProperties.VirtualThreads virtualThreads = sprimberProperties.getExecution().getVirtualThreads();
+            return getExecutor("TestCaseExecutor-", virtualThreads.isEnable() && virtualThreads.isFeatures());
+        }
+
+        private Executor getExecutor(String threadNamePrefix, boolean virtualThreadsRequested) {
+            if (virtualThreadsRequested) {
+                return VirtualThreadExecutors.newVirtualThreadPerTaskExecutor(threadNamePrefix)
+                        .map(Executor.class::cast)
+                        .orElseGet(() -> getDefaultExecutor(threadNamePrefix));
+            }
+            return getDefaultExecutor(threadNamePrefix);
         }
 
         private ThreadPoolTaskExecutor getDefaultExecutor(String s) {
@@ -94,7 +111,13 @@ public class SprimberConfiguration {
 
     @Configuration
     @Import({EngineSpringConfiguration.class, StepDefinitionSrpingConfiguration.class, RuntimeConfiguration.class,
-            FlowOrchestrator.class, SprimberEventPublisher.class})
+            FlowOrchestrator.class})
     static class SprimberCore {
     }
+
+    @Configuration
+    @ConditionalOnProperty(value = "sprimber.configuration.events.bridge.enable", havingValue = "true")
+    @Import(SprimberEventPublisher.class)
+    static class SpringEventsBridge {
+    }
 }
@@ -0,0 +1,74 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.autoconfigure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Factory for the executors that start new virtual thread per task.
+ * The virtual threads API accessed via reflection since the library still compiled for Java 8,
+ * so on the JDK without virtual threads support the factory returns nothing and the caller should fall back
+ * to the platform threads pool.
+ * <p>
+ * The created threads do not inherit inheritable thread locals from the submitter,
+ * so every scenario starts with clean thread state the same way as on the fresh pool thread.
+ *
+ * @author fparamonov
+ */
+
+final class VirtualThreadExecutors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadExecutors.class);
+    private static final String THREAD_BUILDER_CLASS_NAME = "java.lang.Thread$Builder";
+
+    private VirtualThreadExecutors() {
+    }
+
+    static Optional<ExecutorService> newVirtualThreadPerTaskExecutor(String threadNamePrefix) {
+        try {
+            Class<?> threadBuilderClass = Class.forName(THREAD_BUILDER_CLASS_NAME);
+            Object threadBuilder = Thread.class.getMethod("ofVirtual").invoke(null);
+            threadBuilder = threadBuilderClass.getMethod("name", String.class, long.class)
+                    .invoke(threadBuilder, threadNamePrefix, 1L);
+            threadBuilder = threadBuilderClass.getMethod("inheritInheritableThreadLocals", boolean.class)
+                    .invoke(threadBuilder, false);
+            ThreadFactory threadFactory = (ThreadFactory) threadBuilderClass.getMethod("factory").invoke(threadBuilder);
+            Method executorFactoryMethod = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return Optional.of((ExecutorService) executorFactoryMethod.invoke(null, threadFactory));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Virtual threads are not available on the current JDK '{}', regular thread pool will be used",
+                    System.getProperty("java.version"));
+            LOGGER.debug("Virtual threads lookup failed", e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.autoconfigure;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class VirtualThreadExecutorsTest {
+
+    private static final int VIRTUAL_THREADS_FEATURE_VERSION = 21;
+
+    @Test
+    public void fallbackWhenVirtualThreadsNotSupported() {
+        Assume.assumeTrue(currentFeatureVersion() < VIRTUAL_THREADS_FEATURE_VERSION);
+
+        assertThat(VirtualThreadExecutors.newVirtualThreadPerTaskExecutor("sprimber-test-")).isEmpty();
+    }
+
+    @Test
+    public void newVirtualThreadPerTask() throws Exception {
+        Assume.assumeTrue(currentFeatureVersion() >= VIRTUAL_THREADS_FEATURE_VERSION);
+        InheritableThreadLocal<String> inheritableState = new InheritableThreadLocal<>();
+        inheritableState.set("submitter");
+
+        Optional<ExecutorService> executor = VirtualThreadExecutors.newVirtualThreadPerTaskExecutor("sprimber-test-");
+        assertThat(executor).isPresent();
+        try {
+            Thread firstThread = executor.get().submit(Thread::currentThread).get();
+            Thread secondThread = executor.get().submit(Thread::currentThread).get();
+            String inheritedState = executor.get().submit(inheritableState::get).get();
+
+            assertThat((Boolean) Thread.class.getMethod("isVirtual").invoke(firstThread)).isTrue();
+            assertThat(firstThread).isNotSameAs(secondThread);
+            assertThat(firstThread.getName()).startsWith("sprimber-test-");
+            assertThat(inheritedState).isNull();
+        } finally {
+            executor.get().shutdown();
+            inheritableState.remove();
+        }
+    }
+
+    private static int currentFeatureVersion() {
+        String specificationVersion = System.getProperty("java.specification.version");
+        return specificationVersion.startsWith("1.") ?
+                Integer.parseInt(specificationVersion.substring(2)) : Integer.parseInt(specificationVersion);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.stepindex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the index of the step definition candidates to {@value #INDEX_LOCATION} at compile time,
+ * so the runtime finds the step definitions without scanning the beans and their methods.
+ * <p>
+ * Every method of the class marked with one of the step class markers indexed once it has at least one annotation
+ * retained at runtime, the same methods the runtime takes from the beans. The index lists the binary name of every
+ * step class and then its methods with the names and the erasures of the parameter types,
+ * the arrays written as the binary name of the component type followed by the brackets:
+ * <pre>
+ * com.example.LoginSteps
+ * com.example.LoginSteps#userLogsIn(java.lang.String,int)
+ * com.example.LoginSteps#usersLogIn(com.example.LoginSteps$User[])
+ * </pre>
+ * The markers of the Sprimber adapters supported by default, the custom markers may be added with the comma separated
+ * {@value #MARKERS_OPTION} option
+ *
+ * @author fparamonov
+ */
+
+public class StepIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_LOCATION = "META-INF/sprimber/step-index";
+    public static final String MARKERS_OPTION = "sprimber.stepIndex.markers";
+
+    private static final List<String> DEFAULT_MARKERS = Arrays.asList(
+            "com.griddynamics.qa.sprimber.discovery.Actions",
+            "com.griddynamics.qa.sprimber.engine.model.action.Actions",
+            "com.griddynamics.qa.sprimber.discovery.TestController",
+            "com.griddynamics.qa.sprimber.discovery.StepController");
+
+    private final Set<String> indexedLines = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        Set<String> markers = new HashSet<>(DEFAULT_MARKERS);
+        String customMarkers = processingEnv == null ? null : processingEnv.getOptions().get(MARKERS_OPTION);
+        if (customMarkers != null) {
+            Arrays.stream(customMarkers.split(","))
+                    .map(String::trim)
+                    .filter(marker -> !marker.isEmpty())
+                    .forEach(markers::add);
+        }
+        return markers;
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(MARKERS_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> markers, RoundEnvironment roundEnv) {
+        markers.stream()
+                .flatMap(marker -> roundEnv.getElementsAnnotatedWith(marker).stream())
+                .filter(element -> element.getKind().isClass())
+                .map(TypeElement.class::cast)
+                .forEach(this::indexStepClass);
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        // the markers are left to the other processors
+        return false;
+    }
+
+    private void indexStepClass(TypeElement stepClass) {
+        String className = processingEnv.getElementUtils().getBinaryName(stepClass).toString();
+        // the class listed even without the methods, so the runtime knows the class is indexed
+        indexedLines.add(className);
+        ElementFilter.methodsIn(stepClass.getEnclosedElements()).stream()
+                .filter(this::hasRuntimeAnnotation)
+                .map(method -> className + "#" + method.getSimpleName() + "(" + parameterTypesOf(method) + ")")
+                .forEach(indexedLines::add);
+    }
+
+    private boolean hasRuntimeAnnotation(ExecutableElement method) {
+        return method.getAnnotationMirrors().stream()
+                .map(annotationMirror -> annotationMirror.getAnnotationType().asElement())
+                .anyMatch(annotationType -> {
+                    Retention retention = annotationType.getAnnotation(Retention.class);
+                    return retention != null && retention.value() == RetentionPolicy.RUNTIME;
+                });
+    }
+
+    private String parameterTypesOf(ExecutableElement method) {
+        return method.getParameters().stream()
+                .map(parameter -> processingEnv.getTypeUtils().erasure(parameter.asType()))
+                .map(this::binaryNameOf)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * The binary name lets the runtime load the nested classes as is, also when they are the array components
+     */
+    private String binaryNameOf(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return binaryNameOf(((ArrayType) type).getComponentType()) + "[]";
+        }
+        Element typeElement = processingEnv.getTypeUtils().asElement(type);
+        return typeElement instanceof TypeElement ?
+                processingEnv.getElementUtils().getBinaryName((TypeElement) typeElement).toString() : type.toString();
+    }
+
+    private void writeIndex() {
+        if (indexedLines.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String indexedLine : indexedLines) {
+                    writer.write(indexedLine);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write the step index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+Copyright (c) 2010-2018 Grid Dynamics International, Inc. All Rights Reserved
+http://www.griddynamics.com
+
+This library is free software; you can redistribute it and/or modify it under the terms of
+the GNU Lesser General Public License as published by the Free Software Foundation; either
+version 2.1 of the License, or any later version.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+$Id: 
+@Project:     Sprimber
+@Description: Framework that provide bdd engine and bridges for most popular BDD frameworks
+*/
+
+package com.griddynamics.qa.sprimber.stepindex;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.ClassUtils;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fparamonov
+ */
+
+public class StepIndexProcessorTest {
+
+    private static final String STEPS_SOURCE = String.join("\n",
+            "package sample;",
+            "",
+            "import java.lang.annotation.Retention;",
+            "import java.lang.annotation.RetentionPolicy;",
+            "import java.util.List;",
+            "",
+            "@SampleSteps.Marker",
+            "public class SampleSteps {",
+            "",
+            "    @Retention(RetentionPolicy.RUNTIME)",
+            "    public @interface Marker {",
+            "    }",
+            "",
+            "    @Retention(RetentionPolicy.RUNTIME)",
+            "    public @interface Step {",
+            "    }",
+            "",
+            "    public static class Payload {",
+            "        public static class Item {",
+            "        }",
+            "    }",
+            "",
+            "    @Step",
+            "    public void plain(String text, int count) {",
+            "    }",
+            "",
+            "    @Step",
+            "    public void arrays(Payload[] payloads, Payload.Item[][] items, int[] counts, String[] texts) {",
+            "    }",
+            "",
+            "    @Step",
+            "    public <T extends CharSequence> void generic(List<T> values, T value) {",
+            "    }",
+            "",
+            "    public void notAStep(Payload payload) {",
+            "    }",
+            "}");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void indexWrittenWithBinaryNames() throws Exception {
+        Path classOutput = compile("-Asprimber.stepIndex.markers=sample.SampleSteps.Marker");
+
+        List<String> index = Files.readAllLines(classOutput.resolve(StepIndexProcessor.INDEX_LOCATION), StandardCharsets.UTF_8);
+
+        assertThat(index).containsExactly(
+                "sample.SampleSteps",
+                "sample.SampleSteps#arrays(sample.SampleSteps$Payload[],sample.SampleSteps$Payload$Item[][],int[],java.lang.String[])",
+                "sample.SampleSteps#generic(java.util.List,java.lang.CharSequence)",
+                "sample.SampleSteps#plain(java.lang.String,int)");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classOutput.toUri().toURL()}, getClass().getClassLoader())) {
+            for (String parameterType : Arrays.asList("sample.SampleSteps$Payload[]", "sample.SampleSteps$Payload$Item[][]")) {
+                assertThat(ClassUtils.forName(parameterType, classLoader).isArray()).isTrue();
+            }
+        }
+    }
+
+    @Test
+    public void noIndexWithoutStepClasses() throws Exception {
+        Path classOutput = compile();
+
+        assertThat(classOutput.resolve(StepIndexProcessor.INDEX_LOCATION)).doesNotExist();
+    }
+
+    private Path compile(String... options) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path sourceFile = temporaryFolder.newFolder("sample").toPath().resolve("SampleSteps.java");
+        Files.write(sourceFile, STEPS_SOURCE.getBytes(StandardCharsets.UTF_8));
+        File classOutput = temporaryFolder.newFolder("classes");
+        List<String> arguments = new ArrayList<>(Arrays.asList(options));
+        arguments.addAll(Arrays.asList("-processor", StepIndexProcessor.class.getName(),
+                "-d", classOutput.getPath(), sourceFile.toString()));
+        ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+        int exitCode = compiler.run(null, null, diagnostics, arguments.toArray(new String[0]));
+        assertThat(exitCode).as(diagnostics.toString()).isZero();
+        return classOutput.toPath();
+    }
+}